@@ -229,7 +229,7 @@ export default function EventMap() {
   useEffect(() => {
     if (selectedEvent) {
       const recordView = async () => {
-        await api.recordView(selectedEvent.eventId);
+        await api.recordView(selectedEvent.eventId, userId);
 
         // Update local state to reflect the view
         setEvents((prev) =>
@@ -181,10 +181,11 @@ export const api = {
   },
 
   // Record a view for an event
-  // This increments the view count whenever a user views an event
-  recordView: async (eventId: string): Promise<boolean> => {
+  // The view count only goes up the first time a viewer sees an event
+  recordView: async (eventId: string, viewerId?: string | null): Promise<boolean> => {
     try {
-      const response = await fetch(`${API_BASE_URL}/events/views/${eventId}`, {
+      const query = viewerId ? `?viewerId=${encodeURIComponent(viewerId)}` : "";
+      const response = await fetch(`${API_BASE_URL}/events/views/${eventId}${query}`, {
         method: "PUT",
       });
       const data = await response.json();
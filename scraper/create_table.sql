@@ -60,7 +60,42 @@ CREATE TABLE IF NOT EXISTS user_category_frequencies (
     user_id VARCHAR(255),
     category_id INT,
     frequency INT DEFAULT 0 NOT NULL CHECK (frequency >= 0),
+    -- ln of the sum over the user's likes in the category of exp(0.05 * epoch day of the like) / categories of
+    -- the liked event; NULL when there are none. Decay is applied when read, see UserMapper
+    log_score DOUBLE PRECISION,
     PRIMARY KEY (user_id, category_id),
     FOREIGN KEY (user_id) REFERENCES users(user_id) ON DELETE CASCADE,
     FOREIGN KEY (category_id) REFERENCES categories(category_id) ON DELETE CASCADE
-);
\ No newline at end of file
+);
+
+CREATE TABLE IF NOT EXISTS event_viewer_sketches (
+    event_id INT,
+    node_id VARCHAR(64),
+    registers BYTEA NOT NULL,
+    PRIMARY KEY (event_id, node_id),
+    FOREIGN KEY (event_id) REFERENCES events(event_id) ON DELETE CASCADE
+);
+
+-- Migration for databases created before log_score was added to user_category_frequencies; a no-op otherwise
+ALTER TABLE user_category_frequencies ADD COLUMN IF NOT EXISTS log_score DOUBLE PRECISION;
+
+-- Rebuild the category preferences from the like history; safe to run again
+WITH contributions AS (
+    SELECT l.user_id, ec.category_id,
+           0.05 * EXTRACT(EPOCH FROM l.timestamp) / 86400
+               - LN(COUNT(*) OVER (PARTITION BY l.user_id, l.event_id)) AS contribution
+    FROM user_likes l
+    JOIN event_categories ec ON ec.event_id = l.event_id
+), peaks AS (
+    SELECT user_id, category_id, COUNT(*) AS likes, MAX(contribution) AS peak
+    FROM contributions
+    GROUP BY user_id, category_id
+)
+INSERT INTO user_category_frequencies (user_id, category_id, frequency, log_score)
+SELECT p.user_id, p.category_id, p.likes,
+       p.peak + LN(SUM(EXP(GREATEST(c.contribution - p.peak, -700))))
+FROM peaks p
+JOIN contributions c ON c.user_id = p.user_id AND c.category_id = p.category_id
+GROUP BY p.user_id, p.category_id, p.likes, p.peak
+ON CONFLICT (user_id, category_id) DO UPDATE
+SET frequency = EXCLUDED.frequency, log_score = EXCLUDED.log_score;
\ No newline at end of file
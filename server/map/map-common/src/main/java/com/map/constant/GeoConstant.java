@@ -0,0 +1,30 @@
+package com.map.constant;
+
+public class GeoConstant {
+
+  /**
+   * Mean earth radius used by the haversine distance.
+   */
+  public static final double EARTH_RADIUS_METERS = 6_371_008.8;
+
+  /**
+   * Largest radius a nearby search may ask for.
+   */
+  public static final double MAX_RADIUS_METERS = 50_000;
+
+  /**
+   * Side of a spatial grid cell, about 550 m north-south; a campus spans a few dozen cells.
+   */
+  public static final double GRID_CELL_DEGREES = 0.005;
+
+  /**
+   * Zoom levels with precomputed marker clusters; requests outside are clamped.
+   */
+  public static final int MIN_CLUSTER_ZOOM = 0;
+  public static final int MAX_CLUSTER_ZOOM = 18;
+
+  /**
+   * Side of a cluster cell in screen pixels, roughly the spacing at which markers start to overlap.
+   */
+  public static final int CLUSTER_CELL_PIXELS = 64;
+}
@@ -0,0 +1,9 @@
+package com.map.constant;
+
+public class InteractionConstant {
+
+  /**
+   * Most interactions a single batch request may carry.
+   */
+  public static final int MAX_BATCH_SIZE = 500;
+}
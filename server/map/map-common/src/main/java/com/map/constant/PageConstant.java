@@ -0,0 +1,9 @@
+package com.map.constant;
+
+public class PageConstant {
+
+  /**
+   * Largest page a single request may ask for.
+   */
+  public static final int MAX_PAGE_SIZE = 200;
+}
@@ -11,4 +11,24 @@ public class RecommendationConstant {
    * Lambda value for recommendation.
    */
   public static final double LAMBDA = 0.05;
+
+  /**
+   * Share of events that get the random boost.
+   */
+  public static final double RANDOM_BOOST_RATE = 0.3;
+
+  /**
+   * Random score of a boosted event.
+   */
+  public static final double RANDOM_BOOST = 0.2;
+
+  /**
+   * Weight of the trending score in cold start recommendations.
+   */
+  public static final double COLD_START_TRENDING_WEIGHT = 0.9;
+
+  /**
+   * Weight of the random score in cold start recommendations.
+   */
+  public static final double COLD_START_RANDOM_WEIGHT = 0.1;
 }
@@ -0,0 +1,24 @@
+package com.map.constant;
+
+public class SearchConstant {
+
+  /**
+   * Number of ranked results a free-text search returns.
+   */
+  public static final int SEARCH_LIMIT = 50;
+
+  /**
+   * Most dictionary terms the last, possibly half-typed, query token may expand to.
+   */
+  public static final int MAX_PREFIX_EXPANSIONS = 32;
+
+  /**
+   * Completions kept per trie node, and the most a suggest request may return.
+   */
+  public static final int SUGGEST_LIMIT = 10;
+
+  /**
+   * Deepest the suggest trie goes; longer prefixes are looked up by their first characters, then filtered.
+   */
+  public static final int MAX_SUGGEST_PREFIX = 32;
+}
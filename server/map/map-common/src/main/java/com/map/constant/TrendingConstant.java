@@ -0,0 +1,30 @@
+package com.map.constant;
+
+public class TrendingConstant {
+
+  /**
+   * Activity weight of one view.
+   */
+  public static final double VIEW_WEIGHT = 1.0;
+
+  /**
+   * Activity weight of one like; an unlike takes it back.
+   */
+  public static final double LIKE_WEIGHT = 3.0;
+
+  /**
+   * Score changes below this are not written back to events.trending_score.
+   */
+  public static final double SCORE_EPSILON = 1e-4;
+
+  /**
+   * Changed scores written per bulk UPDATE while the recalculation streams events.
+   */
+  public static final int RECALCULATION_BATCH_SIZE = 5000;
+
+  /**
+   * Default and maximum number of events returned by the hot events endpoint.
+   */
+  public static final int HOT_LIMIT = 10;
+  public static final int MAX_HOT_LIMIT = 100;
+}
@@ -0,0 +1,10 @@
+package com.map.enumeration;
+
+/**
+ * Where filtered event reads are answered from.
+ * MYBATIS runs the selectEvents query against Postgres, CATALOG answers from the in-memory event catalog.
+ */
+public enum EventReadMode {
+  MYBATIS,
+  CATALOG
+}
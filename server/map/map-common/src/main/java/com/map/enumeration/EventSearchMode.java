@@ -0,0 +1,10 @@
+package com.map.enumeration;
+
+/**
+ * How free-text event search is answered.
+ * LIKE runs the substring match against Postgres, INDEX ranks matches from the in-memory inverted index.
+ */
+public enum EventSearchMode {
+  LIKE,
+  INDEX
+}
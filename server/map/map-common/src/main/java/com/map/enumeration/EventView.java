@@ -0,0 +1,26 @@
+package com.map.enumeration;
+
+import java.util.Locale;
+
+/**
+ * Shape of the events in a list response.
+ * FULL returns complete Event rows, SUMMARY returns EventSummaryDTO without description and link.
+ */
+public enum EventView {
+  SUMMARY,
+  FULL;
+
+  /**
+   * Parse the view request parameter, case-insensitively.
+   * @param value e.g. summary or full
+   * @return the view, or null if the value is not a known view
+   */
+  public static EventView fromParam(String value) {
+    for (EventView view : values()) {
+      if (view.name().equals(value.toUpperCase(Locale.ROOT))) {
+        return view;
+      }
+    }
+    return null;
+  }
+}
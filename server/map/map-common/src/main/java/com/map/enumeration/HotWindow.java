@@ -0,0 +1,43 @@
+package com.map.enumeration;
+
+import java.util.Locale;
+
+/**
+ * Look-back windows of the hot events endpoint.
+ */
+public enum HotWindow {
+  ONE_MINUTE("1m", 1),
+  FIVE_MINUTES("5m", 5),
+  FIFTEEN_MINUTES("15m", 15),
+  ONE_HOUR("1h", 60);
+
+  private final String param;
+  private final int minutes;
+
+  HotWindow(String param, int minutes) {
+    this.param = param;
+    this.minutes = minutes;
+  }
+
+  public String getParam() {
+    return param;
+  }
+
+  public int getMinutes() {
+    return minutes;
+  }
+
+  /**
+   * Parse the window request parameter, case-insensitively.
+   * @param value e.g. 5m or 1h
+   * @return the window, or null if the value is not a supported window
+   */
+  public static HotWindow fromParam(String value) {
+    for (HotWindow window : values()) {
+      if (window.param.equals(value.toLowerCase(Locale.ROOT))) {
+        return window;
+      }
+    }
+    return null;
+  }
+}
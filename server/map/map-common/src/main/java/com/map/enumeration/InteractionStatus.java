@@ -0,0 +1,11 @@
+package com.map.enumeration;
+
+/**
+ * Outcome of one interaction in a batch.
+ * APPLIED changed the stored state, UNCHANGED found it already in place, REJECTED was invalid and skipped.
+ */
+public enum InteractionStatus {
+  APPLIED,
+  UNCHANGED,
+  REJECTED
+}
@@ -0,0 +1,28 @@
+package com.map.enumeration;
+
+import java.util.Locale;
+
+/**
+ * Kinds of user interaction accepted by the batch interaction endpoint.
+ */
+public enum InteractionType {
+  LIKE,
+  UNLIKE,
+  BOOKMARK,
+  UNBOOKMARK,
+  VIEW;
+
+  /**
+   * Parse an interaction type, case-insensitively.
+   * @param value e.g. like or unbookmark
+   * @return the type, or null if the value is not a known type
+   */
+  public static InteractionType fromParam(String value) {
+    for (InteractionType type : values()) {
+      if (type.name().equals(value.toUpperCase(Locale.ROOT))) {
+        return type;
+      }
+    }
+    return null;
+  }
+}
@@ -0,0 +1,129 @@
+package com.map.utils;
+
+import static com.map.constant.RecommendationConstant.COLD_START_RANDOM_WEIGHT;
+import static com.map.constant.RecommendationConstant.COLD_START_TRENDING_WEIGHT;
+import static com.map.constant.RecommendationConstant.RANDOM_BOOST;
+import static com.map.constant.RecommendationConstant.RANDOM_BOOST_RATE;
+
+import com.map.entity.Event;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Candidates of {@link RecommendationUtils#getColdStartRecommendations} for one filter, computed once and shared by
+ * every user without likes.
+ * The cold start score is a trending part that is the same for every user plus a random boost of at most
+ * COLD_START_RANDOM_WEIGHT * RANDOM_BOOST. An event whose trending part is that much below the depth-th best can
+ * never rank within depth, so only the events above that cut are kept, ordered by trending part. A request then
+ * draws the boosts of the kept events only and selects its top limit, O(candidates log limit) instead of scoring
+ * and ranking the whole catalog. For limit up to depth this is the same ranking getColdStartRecommendations
+ * would return, up to which events get boosted, unless the candidates were capped.
+ * Boosts are drawn per event from a seed, so the same seed ranks the same way at any depth.
+ */
+public final class ColdStartPool {
+
+  private static final double MAX_BOOST = COLD_START_RANDOM_WEIGHT * RANDOM_BOOST;
+
+  private final Event[] events;
+  private final double[] trendingScores;
+  private final boolean complete;
+  private final int depth;
+
+  private ColdStartPool(Event[] events, double[] trendingScores, boolean complete, int depth) {
+    this.events = events;
+    this.trendingScores = trendingScores;
+    this.complete = complete;
+    this.depth = depth;
+  }
+
+  /**
+   * Keep the candidates of the events.
+   *
+   * @param events every event the filter selects, in the order getColdStartRecommendations would get them
+   * @param depth deepest rank the pool has to answer exactly
+   * @param maxCandidates cap on the candidates kept, when many events tie around the cut
+   * @return the pool
+   */
+  public static ColdStartPool build(List<Event> events, int depth, int maxCandidates) {
+    double maxPopularity = RecommendationUtils.computeMaxPopularity(events);
+    TopKSelector topK = new TopKSelector(Math.max(0, Math.min(maxCandidates, events.size())));
+    for (int i = 0; i < events.size(); i++) {
+      topK.offer(i, trendingScore(events.get(i), maxPopularity));
+    }
+    int[] ranked = topK.drain();
+
+    int kept = ranked.length;
+    if (depth > 0 && depth < ranked.length) {
+      double cut = trendingScore(events.get(ranked[depth - 1]), maxPopularity) - MAX_BOOST;
+      kept = depth;
+      while (kept < ranked.length && trendingScore(events.get(ranked[kept]), maxPopularity) >= cut) {
+        kept++;
+      }
+    }
+    Event[] candidates = new Event[kept];
+    double[] trendingScores = new double[kept];
+    for (int i = 0; i < kept; i++) {
+      candidates[i] = events.get(ranked[i]);
+      trendingScores[i] = trendingScore(candidates[i], maxPopularity);
+    }
+    return new ColdStartPool(candidates, trendingScores, kept == events.size(), depth);
+  }
+
+  /**
+   * Whether the pool ranks down to the limit, i.e. the limit is within depth or no event was left out.
+   *
+   * @param limit
+   * @return
+   */
+  public boolean covers(int limit) {
+    return complete || limit <= depth;
+  }
+
+  /**
+   * Rank the candidates with this request's random boosts.
+   *
+   * @param limit number of ranked events to return, at most depth unless {@link #covers} says otherwise
+   * @param seed source of the boosts; the same seed gives the same ranking
+   * @param now events starting before this are skipped
+   * @return top limit events, best first
+   */
+  public List<Event> sample(int limit, long seed, LocalDateTime now) {
+    TopKSelector topK = new TopKSelector(Math.max(0, Math.min(limit, events.length)));
+    for (int i = 0; i < events.length; i++) {
+      if (events[i].getStartTime().isAfter(now)) {
+        topK.offer(i, trendingScores[i] + COLD_START_RANDOM_WEIGHT * randomScore(seed, events[i].getEventId()));
+      }
+    }
+    int[] ranked = topK.drain();
+    List<Event> recommendations = new ArrayList<>(ranked.length);
+    for (int index : ranked) {
+      recommendations.add(events[index]);
+    }
+    return recommendations;
+  }
+
+  /**
+   * Number of candidates kept.
+   *
+   * @return
+   */
+  public int size() {
+    return events.length;
+  }
+
+  // the trending part of the cold start score, as getColdStartRecommendations computes it
+  private static double trendingScore(Event event, double maxPopularity) {
+    return COLD_START_TRENDING_WEIGHT * ((event.getLikedCount() + event.getViewedCount()) / maxPopularity);
+  }
+
+  // RANDOM_BOOST for a RANDOM_BOOST_RATE share of events, drawn from a splitmix64 hash of the seed and event id
+  static double randomScore(long seed, int eventId) {
+    long z = seed + eventId * 0x9E3779B97F4A7C15L;
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    z = z ^ (z >>> 31);
+    double draw = (z >>> 11) * 0x1.0p-53;
+    return draw < RANDOM_BOOST_RATE ? RANDOM_BOOST : 0.0;
+  }
+}
@@ -0,0 +1,87 @@
+package com.map.utils;
+
+import com.map.vo.PageVO;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Opaque keyset cursors. A cursor wraps the sort key of the last item on a page plus its event id as a tie-breaker,
+ * so the next page can continue with "WHERE (sort_key, event_id) > (...)" instead of an OFFSET.
+ */
+public class CursorUtils {
+
+  private static final String SEPARATOR = "|";
+
+  /**
+   * Encode the position after the given item.
+   * @param sortKey the item's sort key in its string form
+   * @param eventId the item's event id
+   * @return url-safe opaque token
+   */
+  public static String encode(String sortKey, int eventId) {
+    String raw = sortKey + SEPARATOR + eventId;
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Decode a token produced by {@link #encode(String, int)}.
+   * @param token
+   * @return the decoded cursor
+   * @throws IllegalArgumentException if the token is malformed
+   */
+  public static Cursor decode(String token) {
+    try {
+      String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+      int split = raw.lastIndexOf(SEPARATOR);
+      if (split < 0) {
+        throw new IllegalArgumentException("Invalid cursor.");
+      }
+      return new Cursor(raw.substring(0, split), Integer.parseInt(raw.substring(split + 1)));
+    } catch (IllegalArgumentException e) {
+      // also covers bad base64 and NumberFormatException
+      throw new IllegalArgumentException("Invalid cursor.", e);
+    }
+  }
+
+  /**
+   * Cut a page out of rows fetched with limit + 1: the extra row only signals that another page follows.
+   * @param rows up to limit + 1 rows in page order
+   * @param limit page size
+   * @param sortKey sort key of a row in its string form
+   * @param eventId event id of a row
+   * @return the page, with a cursor after its last item if more rows follow
+   */
+  public static <T> PageVO<T> page(List<T> rows, int limit, Function<T, String> sortKey, ToIntFunction<T> eventId) {
+    if (rows.size() <= limit) {
+      return new PageVO<>(rows, null);
+    }
+    List<T> items = new ArrayList<>(rows.subList(0, limit));
+    T last = items.get(limit - 1);
+    return new PageVO<>(items, encode(sortKey.apply(last), eventId.applyAsInt(last)));
+  }
+
+  /**
+   * Decoded cursor: sort key of the last item returned and its event id.
+   */
+  public static final class Cursor {
+    private final String sortKey;
+    private final int eventId;
+
+    public Cursor(String sortKey, int eventId) {
+      this.sortKey = sortKey;
+      this.eventId = eventId;
+    }
+
+    public String getSortKey() {
+      return sortKey;
+    }
+
+    public int getEventId() {
+      return eventId;
+    }
+  }
+}
@@ -0,0 +1,74 @@
+package com.map.utils;
+
+import static com.map.constant.GeoConstant.EARTH_RADIUS_METERS;
+
+/**
+ * Great-circle helpers for the proximity queries.
+ */
+public class GeoUtils {
+
+  /**
+   * Haversine distance between two points.
+   * @param lat1 latitude of the first point, degrees
+   * @param lng1 longitude of the first point, degrees
+   * @param lat2 latitude of the second point, degrees
+   * @param lng2 longitude of the second point, degrees
+   * @return distance in meters
+   */
+  public static double haversineMeters(double lat1, double lng1, double lat2, double lng2) {
+    double dLat = Math.toRadians(lat2 - lat1);
+    double dLng = Math.toRadians(lng2 - lng1);
+    double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+        + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+    return 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1.0, Math.sqrt(a)));
+  }
+
+  /**
+   * Degrees of latitude spanned by a north-south distance.
+   * @param meters
+   * @return degrees
+   */
+  public static double latitudeDegrees(double meters) {
+    return Math.toDegrees(meters / EARTH_RADIUS_METERS);
+  }
+
+  /**
+   * Degrees of longitude spanned by an east-west distance at the given latitude.
+   * @param meters
+   * @param latitude degrees
+   * @return degrees, capped at 360 near the poles
+   */
+  public static double longitudeDegrees(double meters, double latitude) {
+    double cos = Math.cos(Math.toRadians(latitude));
+    if (cos < 1e-9) {
+      return 360.0;
+    }
+    return Math.min(360.0, Math.toDegrees(meters / (EARTH_RADIUS_METERS * cos)));
+  }
+
+  /**
+   * Web Mercator x of a longitude, in pixels of a 256 px tile world at the given zoom.
+   * @param lng degrees
+   * @param zoom
+   * @return pixel x, growing eastwards
+   */
+  public static double mercatorX(double lng, int zoom) {
+    return (lng + 180.0) / 360.0 * worldPixels(zoom);
+  }
+
+  /**
+   * Web Mercator y of a latitude, in pixels of a 256 px tile world at the given zoom.
+   * @param lat degrees, clamped to the Mercator limit of about 85.05
+   * @param zoom
+   * @return pixel y, growing southwards
+   */
+  public static double mercatorY(double lat, int zoom) {
+    double clamped = Math.max(-85.05112878, Math.min(85.05112878, lat));
+    double sin = Math.sin(Math.toRadians(clamped));
+    return (0.5 - Math.log((1 + sin) / (1 - sin)) / (4 * Math.PI)) * worldPixels(zoom);
+  }
+
+  private static double worldPixels(int zoom) {
+    return 256.0 * (1L << zoom);
+  }
+}
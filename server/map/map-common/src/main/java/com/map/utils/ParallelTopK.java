@@ -0,0 +1,69 @@
+package com.map.utils;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * {@link TopKSelector} over a large candidate range, scored in parallel.
+ * The range is split in halves down to partitions of a few thousand candidates; each partition keeps its own
+ * top k and halves are merged on the way back up. Ranking is a total order on (score, index), so the result is
+ * the same as selecting sequentially, however the range was partitioned.
+ */
+public final class ParallelTopK {
+
+  private static final int MIN_PARTITION = 4_096;
+
+  private ParallelTopK() {
+  }
+
+  /**
+   * Select the k best of candidates 0 .. n - 1.
+   *
+   * @param n number of candidates
+   * @param k number of candidates to keep
+   * @param scores score of a candidate index; called from pool threads, so it must be safe to share
+   * @param pool pool to score on
+   * @return a selector holding the k best
+   */
+  public static TopKSelector select(int n, int k, IntToDoubleFunction scores, ForkJoinPool pool) {
+    // a few partitions per worker so idle workers can steal from busy ones
+    int partition = Math.max(MIN_PARTITION, (n + pool.getParallelism() * 4 - 1) / (pool.getParallelism() * 4));
+    return pool.invoke(new Partition(0, n, k, partition, scores));
+  }
+
+  private static final class Partition extends RecursiveTask<TopKSelector> {
+    private final int from;
+    private final int to;
+    private final int k;
+    private final int partition;
+    private final IntToDoubleFunction scores;
+
+    private Partition(int from, int to, int k, int partition, IntToDoubleFunction scores) {
+      this.from = from;
+      this.to = to;
+      this.k = k;
+      this.partition = partition;
+      this.scores = scores;
+    }
+
+    @Override
+    protected TopKSelector compute() {
+      if (to - from <= partition) {
+        TopKSelector topK = new TopKSelector(Math.min(k, to - from));
+        for (int i = from; i < to; i++) {
+          topK.offer(i, scores.applyAsDouble(i));
+        }
+        return topK;
+      }
+      int mid = (from + to) >>> 1;
+      Partition left = new Partition(from, mid, k, partition, scores);
+      left.fork();
+      TopKSelector right = new Partition(mid, to, k, partition, scores).compute();
+      TopKSelector merged = new TopKSelector(Math.min(k, to - from));
+      merged.merge(left.join());
+      merged.merge(right);
+      return merged;
+    }
+  }
+}
@@ -0,0 +1,181 @@
+package com.map.utils;
+
+import com.map.constant.RecommendationConstant;
+import com.map.dto.EventCategoryDTO;
+import com.map.dto.UserLikeDTO;
+import com.map.entity.Event;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Primitive version of {@link RecommendationUtils#computePersonalMatchScores}.
+ * Category names are interned to dense ids and the categories of every event are stored as one compressed sparse
+ * row structure: the categories of row r are categories[offsets[r] .. offsets[r + 1]). The user's category weights
+ * are a double[] indexed by category id and scores are written into a caller-supplied double[], so scoring an
+ * event touches a few ints and doubles instead of boxed map entries. Weights and scores are accumulated in the
+ * same order as the map version, so the results are bit-for-bit the same.
+ * Recommendations score from the user's stored category preferences instead, see
+ * {@link #scores(Map, List, double[])}, so their cost does not grow with the like history.
+ */
+public final class PersonalMatchKernel {
+
+  // open-addressing index from event id to row; rowSlots holds row + 1, 0 for an empty slot
+  private final int[] eventSlots;
+  private final int[] rowSlots;
+  private final int[] offsets;
+  private final int[] categories;
+  private final Map<String, Integer> categoryIds;
+
+  private PersonalMatchKernel(
+      int[] eventSlots, int[] rowSlots, int[] offsets, int[] categories, Map<String, Integer> categoryIds) {
+    this.eventSlots = eventSlots;
+    this.rowSlots = rowSlots;
+    this.offsets = offsets;
+    this.categories = categories;
+    this.categoryIds = categoryIds;
+  }
+
+  /**
+   * Build the kernel from (event id, category name) pairs.
+   *
+   * @param eventCategories pairs of every event to score and every liked event; the categories of an event keep
+   *     the order of the pairs
+   * @return the kernel
+   */
+  public static PersonalMatchKernel build(List<EventCategoryDTO> eventCategories) {
+    int n = eventCategories.size();
+    // at least twice the number of distinct events, so probes stay short
+    int capacity = Integer.highestOneBit(n * 4 + 3);
+    int[] eventSlots = new int[capacity];
+    int[] rowSlots = new int[capacity];
+    Map<String, Integer> categoryIds = new HashMap<>();
+    int[] rowOfPair = new int[n];
+    int[] categoryOfPair = new int[n];
+    int rowCount = 0;
+    for (int i = 0; i < n; i++) {
+      EventCategoryDTO pair = eventCategories.get(i);
+      int slot = slot(eventSlots, rowSlots, pair.getEventId());
+      if (rowSlots[slot] == 0) {
+        eventSlots[slot] = pair.getEventId();
+        rowSlots[slot] = ++rowCount;
+      }
+      rowOfPair[i] = rowSlots[slot] - 1;
+      categoryOfPair[i] = categoryIds.computeIfAbsent(pair.getCategoryName(), k -> categoryIds.size());
+    }
+
+    // counting sort of the pairs by row, stable so each row keeps its category order
+    int[] offsets = new int[rowCount + 1];
+    for (int i = 0; i < n; i++) {
+      offsets[rowOfPair[i] + 1]++;
+    }
+    for (int r = 0; r < rowCount; r++) {
+      offsets[r + 1] += offsets[r];
+    }
+    int[] next = offsets.clone();
+    int[] categories = new int[n];
+    for (int i = 0; i < n; i++) {
+      categories[next[rowOfPair[i]]++] = categoryOfPair[i];
+    }
+    return new PersonalMatchKernel(eventSlots, rowSlots, offsets, categories, categoryIds);
+  }
+
+  /**
+   * Personal match score of every event, as computePersonalMatchScores would return it.
+   *
+   * @param userLikes the like entries for the user whose preferences we're modeling
+   * @param events the events to score
+   * @param now reference time of the like decay
+   * @param scores output buffer, reused if it holds at least events.size() values
+   * @return scores[i] is the score of events.get(i), 0.0 where computePersonalMatchScores has no entry
+   */
+  public double[] scores(List<UserLikeDTO> userLikes, List<Event> events, LocalDateTime now, double[] scores) {
+    double[] weights = new double[categoryIds.size()];
+    boolean[] liked = new boolean[categoryIds.size()];
+    for (UserLikeDTO like : userLikes) {
+      int row = row(like.getEventId());
+      if (row < 0) {
+        continue;
+      }
+      long daysSinceLike = Duration.between(like.getTimestamp(), now).toDays();
+      double decayWeight = Math.exp(-RecommendationConstant.LAMBDA * daysSinceLike);
+      int size = offsets[row + 1] - offsets[row];
+      for (int k = offsets[row]; k < offsets[row + 1]; k++) {
+        weights[categories[k]] += decayWeight / size;
+        liked[categories[k]] = true;
+      }
+    }
+    return scores(weights, liked, events, scores);
+  }
+
+  /**
+   * Personal match score of every event from the user's decayed weight per category, averaged over the
+   * categories of the event the user has a weight for.
+   *
+   * @param categoryWeights decayed like weight by category name, only categories the user has likes in
+   * @param events the events to score
+   * @param scores output buffer, reused if it holds at least events.size() values
+   * @return scores[i] is the score of events.get(i), 0.0 where no category matches
+   */
+  public double[] scores(Map<String, Double> categoryWeights, List<Event> events, double[] scores) {
+    double[] weights = new double[categoryIds.size()];
+    boolean[] liked = new boolean[categoryIds.size()];
+    for (Map.Entry<String, Double> entry : categoryWeights.entrySet()) {
+      Integer category = categoryIds.get(entry.getKey());
+      // categories of no event being scored cannot match
+      if (category != null) {
+        weights[category] = entry.getValue();
+        liked[category] = true;
+      }
+    }
+    return scores(weights, liked, events, scores);
+  }
+
+  private double[] scores(double[] weights, boolean[] liked, List<Event> events, double[] scores) {
+    if (scores == null || scores.length < events.size()) {
+      scores = new double[events.size()];
+    }
+    for (int i = 0; i < events.size(); i++) {
+      int row = row(events.get(i).getEventId());
+      double scoreSum = 0.0;
+      int matchedCategories = 0;
+      if (row >= 0) {
+        for (int k = offsets[row]; k < offsets[row + 1]; k++) {
+          if (liked[categories[k]]) {
+            scoreSum += weights[categories[k]];
+            matchedCategories++;
+          }
+        }
+      }
+      scores[i] = matchedCategories > 0 ? scoreSum / matchedCategories : 0.0;
+    }
+    return scores;
+  }
+
+  /**
+   * Distinct category names seen while building.
+   *
+   * @return
+   */
+  public int categoryCount() {
+    return categoryIds.size();
+  }
+
+  // row of the event, -1 for an event without categories
+  private int row(int eventId) {
+    return rowSlots[slot(eventSlots, rowSlots, eventId)] - 1;
+  }
+
+  // slot holding the event id, or the empty slot where it would go
+  private static int slot(int[] eventSlots, int[] rowSlots, int eventId) {
+    int mask = eventSlots.length - 1;
+    int hash = eventId * 0x9E3779B9;
+    int slot = (hash ^ (hash >>> 16)) & mask;
+    while (rowSlots[slot] != 0 && eventSlots[slot] != eventId) {
+      slot = (slot + 1) & mask;
+    }
+    return slot;
+  }
+}
@@ -7,7 +7,8 @@ import java.time.LocalDateTime;
 import java.util.*;
 import com.map.dto.UserLikeDTO;
 import com.map.entity.Event;
-import java.util.stream.Collectors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntToDoubleFunction;
 
 public class RecommendationUtils {
 
@@ -20,6 +21,7 @@ public class RecommendationUtils {
   * @param events the list of all events to score
   * @param eventCategoryMap event_id: a lits of categoriesn for all events to score
   * @return a map with event ID as key and personal match score as value
+  * @see PersonalMatchKernel the allocation-free equivalent used to serve recommendations
   */
  public static Map<Integer, Double> computePersonalMatchScores(
     List<UserLikeDTO> userLikes, List<Event> events, Map<Integer, List<String>> eventCategoryMap) {
@@ -77,7 +79,36 @@ public class RecommendationUtils {
     * @return
     */
     public static List<Event> getColdStartRecommendations(List<Event> events) {
-        return scoreAndSortEvents(events, null, 0.0, 0.9, 0.1);
+        return getColdStartRecommendations(events, RECOMMENDATION_LIMIT, null);
+    }
+
+    /**
+     * Cold start recommendations ranked down to the given depth.
+     *
+     * @param events
+     * @param limit number of ranked events to return
+     * @param random source for the random boost, null to use Math.random
+     * @return
+     */
+    public static List<Event> getColdStartRecommendations(List<Event> events, int limit, Random random) {
+        return getColdStartRecommendations(events, limit, random, null);
+    }
+
+    /**
+     * Cold start recommendations, optionally scored on a fork-join pool.
+     *
+     * @param events
+     * @param limit number of ranked events to return
+     * @param random source for the random boost, null to use Math.random
+     * @param pool pool to score on in parallel, null to score on the calling thread
+     * @return
+     * @see ColdStartPool the same ranking from a precomputed candidate list
+     */
+    public static List<Event> getColdStartRecommendations(
+        List<Event> events, int limit, Random random, ForkJoinPool pool) {
+        return scoreAndSortEvents(
+            events, i -> 0.0, 0.0, RecommendationConstant.COLD_START_TRENDING_WEIGHT,
+            RecommendationConstant.COLD_START_RANDOM_WEIGHT, limit, random, pool);
     }
 
     /**
@@ -96,43 +127,144 @@ public class RecommendationUtils {
     double personalWeight,
     double trendingWeight,
     double randomWeight) {
+        return scoreAndSortEvents(
+            events, personalMatchScores, personalWeight, trendingWeight, randomWeight, RECOMMENDATION_LIMIT, null);
+    }
+
+    /**
+     * Score, sort, and return recommended events down to the given depth. Passing a seeded random makes the
+     * ranking reproducible, which is what lets recommendations be paged with a cursor.
+    *
+    * @param events
+    * @param personalMatchScores
+    * @param personalWeight
+    * @param trendingWeight
+    * @param randomWeight
+    * @param limit number of ranked events to return
+    * @param random source for the random boost, null to use Math.random
+    * @return top limit recommended events
+    */
+    public static List<Event> scoreAndSortEvents(
+    List<Event> events,
+    Map<Integer, Double> personalMatchScores,
+    double personalWeight,
+    double trendingWeight,
+    double randomWeight,
+    int limit,
+    Random random) {
+        return scoreAndSortEvents(
+            events,
+            i -> personalMatchScores != null
+                ? personalMatchScores.getOrDefault(events.get(i).getEventId(), 0.0)
+                : 0.0,
+            personalWeight, trendingWeight, randomWeight, limit, random, null);
+    }
+
+    /**
+     * Same as the map version, with personal match scores by position as written by {@link PersonalMatchKernel}.
+    *
+    * @param events
+    * @param personalMatchScores personalMatchScores[i] is the score of events.get(i)
+    * @param personalWeight
+    * @param trendingWeight
+    * @param randomWeight
+    * @param limit number of ranked events to return
+    * @param random source for the random boost, null to use Math.random
+    * @return top limit recommended events
+    */
+    public static List<Event> scoreAndSortEvents(
+    List<Event> events,
+    double[] personalMatchScores,
+    double personalWeight,
+    double trendingWeight,
+    double randomWeight,
+    int limit,
+    Random random) {
+        return scoreAndSortEvents(
+            events, personalMatchScores, personalWeight, trendingWeight, randomWeight, limit, random, null);
+    }
+
+    /**
+     * Same as above, optionally scoring on a fork-join pool for large candidate sets. The ranking is the same
+     * either way, including the random boosts of a seeded random.
+    *
+    * @param events
+    * @param personalMatchScores personalMatchScores[i] is the score of events.get(i)
+    * @param personalWeight
+    * @param trendingWeight
+    * @param randomWeight
+    * @param limit number of ranked events to return
+    * @param random source for the random boost, null to use Math.random
+    * @param pool pool to score on in parallel, null to score on the calling thread
+    * @return top limit recommended events
+    */
+    public static List<Event> scoreAndSortEvents(
+    List<Event> events,
+    double[] personalMatchScores,
+    double personalWeight,
+    double trendingWeight,
+    double randomWeight,
+    int limit,
+    Random random,
+    ForkJoinPool pool) {
+        return scoreAndSortEvents(
+            events, i -> personalMatchScores[i], personalWeight, trendingWeight, randomWeight, limit, random, pool);
+    }
+
+    private static List<Event> scoreAndSortEvents(
+    List<Event> events,
+    IntToDoubleFunction personalMatchScores,
+    double personalWeight,
+    double trendingWeight,
+    double randomWeight,
+    int limit,
+    Random random,
+    ForkJoinPool pool) {
 
         // Max popularity (liked count + viewed count) for trending score normalization
         double maxPopularity =
         RecommendationUtils.computeMaxPopularity(
             events); // TODO: remove this once precalculation of trending score is added
 
-        // Compute final score for each event based on the 70/20/10 formula
-        List<ScoredEvent> scoredEvents = new ArrayList<>();
-        for (Event event : events) {
-            double personalScore =
-                (personalMatchScores != null)
-                    ? personalMatchScores.getOrDefault(event.getEventId(), 0.0)
-                    : 0.0;
+        // Personal and trending part of the 70/20/10 formula
+        IntToDoubleFunction weightedScores = i -> {
+            Event event = events.get(i);
             // TODO: pre-calculate trending scores periodically (e.g., hourly/daily) instead of on the fly
             // here
             // so replace this with double trendingScore = event.getTrendingScore();
             double trendingScore = (event.getLikedCount() + event.getViewedCount()) / maxPopularity;
-            double randomScore =
-                RecommendationUtils
-                    .computeRandomScores(); // random injection: 30% events get a random score boost of
-            // 0.2
-
-            double finalScore =
-                personalWeight * personalScore
-                    + trendingWeight * trendingScore
-                    + randomWeight * randomScore;
-            scoredEvents.add(new ScoredEvent(event, finalScore));
-        }
+            return personalWeight * personalMatchScores.applyAsDouble(i) + trendingWeight * trendingScore;
+        };
 
-        // Sort events list by final scores
-        scoredEvents.sort((a, b) -> Double.compare(b.score, a.score));
+        // Compute final score for each event, keeping only the top limit
+        int k = Math.max(0, Math.min(limit, events.size()));
+        TopKSelector topK;
+        if (pool == null) {
+            topK = new TopKSelector(k);
+            for (int i = 0; i < events.size(); i++) {
+                double randomScore =
+                    RecommendationUtils
+                        .computeRandomScores(random); // random injection: 30% events get a random score boost of
+                // 0.2
+                topK.offer(i, weightedScores.applyAsDouble(i) + randomWeight * randomScore);
+            }
+        } else {
+            // draw the boosts in input order up front, so a seeded ranking does not depend on the partitioning
+            double[] randomScores = new double[events.size()];
+            for (int i = 0; i < randomScores.length; i++) {
+                randomScores[i] = RecommendationUtils.computeRandomScores(random);
+            }
+            topK = ParallelTopK.select(
+                events.size(), k, i -> weightedScores.applyAsDouble(i) + randomWeight * randomScores[i], pool);
+        }
 
-        // Return top 50 recommended events
-        return scoredEvents.stream()
-            .limit(RECOMMENDATION_LIMIT)
-            .map(se -> se.event)
-            .collect(Collectors.toList());
+        // Return top limit recommended events, best first, ties in input order
+        int[] ranked = topK.drain();
+        List<Event> recommendations = new ArrayList<>(ranked.length);
+        for (int index : ranked) {
+            recommendations.add(events.get(index));
+        }
+        return recommendations;
     }
 
  /**
@@ -155,22 +287,19 @@ public class RecommendationUtils {
   * @return a score of 0.2 for 30% of events, otherwise 0.0
   */
  public static double computeRandomScores() {
-   return Math.random() < 0.3
-       ? 0.2
-       : 0.0; // random injection: 30% events get a random score boost of 0.2
+   return computeRandomScores(null);
  }
 
  /**
-  * A wrapper class that pairs an Event with its computed recommendation score Used for sorting and
-  * ranking purposes
+  * Same as {@link #computeRandomScores()} but drawing from the given source.
+  *
+  * @param random source of randomness, null to use Math.random
+  * @return a score of 0.2 for 30% of events, otherwise 0.0
   */
- public static class ScoredEvent {
-   public Event event;
-   public double score;
-
-   public ScoredEvent(Event event, double score) {
-     this.event = event;
-     this.score = score;
-   }
+ public static double computeRandomScores(Random random) {
+   double draw = random == null ? Math.random() : random.nextDouble();
+   return draw < RecommendationConstant.RANDOM_BOOST_RATE
+       ? RecommendationConstant.RANDOM_BOOST
+       : 0.0; // random injection: 30% events get a random score boost of 0.2
  }
 }
@@ -0,0 +1,119 @@
+package com.map.utils;
+
+/**
+ * The k best of a stream of (index, score) candidates, in O(n log k) time and O(k) memory.
+ * A bounded min-heap over two primitive arrays keeps the k best candidates seen so far with the worst at the
+ * root, so a candidate that cannot make the cut costs one comparison and nothing is allocated per candidate.
+ * Ranking is by score, highest first, ties by lower index, which is what a stable descending sort of the
+ * candidates in index order followed by a limit returns. Not thread-safe; a selector may be reused after drain().
+ */
+public final class TopKSelector {
+
+  private final double[] scores;
+  private final int[] indices;
+  private int size;
+
+  /**
+   * @param k number of candidates to keep
+   */
+  public TopKSelector(int k) {
+    this.scores = new double[k];
+    this.indices = new int[k];
+  }
+
+  /**
+   * Offer a candidate.
+   * @param index position of the candidate in the caller's list, or any id whose ascending order breaks ties
+   * @param score
+   */
+  public void offer(int index, double score) {
+    if (size < scores.length) {
+      scores[size] = score;
+      indices[size] = index;
+      siftUp(size++);
+    } else if (size > 0 && ranksAbove(score, index, scores[0], indices[0])) {
+      scores[0] = score;
+      indices[0] = index;
+      siftDown(0);
+    }
+  }
+
+  /**
+   * Offer every candidate another selector keeps, e.g. the top k of another partition of the candidates.
+   * @param other selector to read; it is left unchanged
+   */
+  public void merge(TopKSelector other) {
+    for (int i = 0; i < other.size; i++) {
+      offer(other.indices[i], other.scores[i]);
+    }
+  }
+
+  /**
+   * Number of candidates currently kept, at most k.
+   * @return
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Take the kept candidates and empty the selector.
+   * @return their indices, best first
+   */
+  public int[] drain() {
+    int[] ranked = new int[size];
+    for (int i = size - 1; i >= 0; i--) {
+      ranked[i] = indices[0];
+      size--;
+      scores[0] = scores[size];
+      indices[0] = indices[size];
+      siftDown(0);
+    }
+    return ranked;
+  }
+
+  // whether candidate a ranks above candidate b
+  private static boolean ranksAbove(double scoreA, int indexA, double scoreB, int indexB) {
+    int c = Double.compare(scoreA, scoreB);
+    return c > 0 || (c == 0 && indexA < indexB);
+  }
+
+  private void siftUp(int i) {
+    while (i > 0) {
+      int parent = (i - 1) >>> 1;
+      if (!ranksAbove(scores[parent], indices[parent], scores[i], indices[i])) {
+        return;
+      }
+      swap(i, parent);
+      i = parent;
+    }
+  }
+
+  private void siftDown(int i) {
+    while (true) {
+      int worst = i;
+      int left = 2 * i + 1;
+      int right = left + 1;
+      if (left < size && ranksAbove(scores[worst], indices[worst], scores[left], indices[left])) {
+        worst = left;
+      }
+      if (right < size && ranksAbove(scores[worst], indices[worst], scores[right], indices[right])) {
+        worst = right;
+      }
+      if (worst == i) {
+        return;
+      }
+      swap(i, worst);
+      i = worst;
+    }
+  }
+
+  private void swap(int a, int b) {
+    double score = scores[a];
+    scores[a] = scores[b];
+    scores[b] = score;
+    int index = indices[a];
+    indices[a] = indices[b];
+    indices[b] = index;
+  }
+}
@@ -0,0 +1,19 @@
+package com.map.dto;
+
+import java.io.Serializable;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A user's interest in one category: the time-decayed weight of the user's likes in it.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategoryPreferenceDTO implements Serializable {
+  private String categoryName;
+  private Double weight;
+}
\ No newline at end of file
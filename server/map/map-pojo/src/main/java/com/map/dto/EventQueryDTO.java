@@ -5,16 +5,30 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import java.io.Serializable;
+import java.time.LocalDateTime;
 
 /**
  * Event query DTO.
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class EventQueryDTO implements Serializable {
     private String category;
     private String time;
     private String near;
+    // optional inclusive start-time range; narrows the named time window when both are given
+    private LocalDateTime from;
+    private LocalDateTime to;
+    // keyset pagination: page size and the sort key / event id of the last item already returned
+    private Integer limit;
+    private Integer afterId;
+    private LocalDateTime afterStartTime;
+    private Double afterScore;
+    // optional bounding box on event coordinates, degrees; events without coordinates never match
+    private Double minLat;
+    private Double maxLat;
+    private Double minLng;
+    private Double maxLng;
 }
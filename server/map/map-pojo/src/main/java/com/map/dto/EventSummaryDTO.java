@@ -0,0 +1,42 @@
+package com.map.dto;
+
+import com.map.entity.Event;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * List projection of an event: what a list or map marker needs, without the description and link.
+ * Full details come from GET /events/{eventId}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventSummaryDTO implements Serializable {
+    private Integer eventId;
+    private String name;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+    private String location;
+    private Double latitude;
+    private Double longitude;
+    private Integer likedCount;
+    private Integer viewedCount;
+    private Double trendingScore;
+
+    /**
+     * Project a full event.
+     * @param event
+     * @return its summary
+     */
+    public static EventSummaryDTO of(Event event) {
+        return new EventSummaryDTO(
+            event.getEventId(), event.getName(), event.getStartTime(), event.getEndTime(), event.getLocation(),
+            event.getLatitude(), event.getLongitude(),
+            event.getLikedCount(), event.getViewedCount(), event.getTrendingScore());
+    }
+}
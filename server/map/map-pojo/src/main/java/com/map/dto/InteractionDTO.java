@@ -0,0 +1,19 @@
+package com.map.dto;
+
+import java.io.Serializable;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One interaction of a batch: like, unlike, bookmark, unbookmark or view of an event.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InteractionDTO implements Serializable {
+  private String type;
+  private Integer eventId;
+}
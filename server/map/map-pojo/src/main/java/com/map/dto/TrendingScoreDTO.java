@@ -0,0 +1,19 @@
+package com.map.dto;
+
+import java.io.Serializable;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * New trending score of one event, for bulk updates.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrendingScoreDTO implements Serializable {
+  private Integer eventId;
+  private Double trendingScore;
+}
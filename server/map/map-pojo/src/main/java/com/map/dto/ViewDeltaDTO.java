@@ -0,0 +1,19 @@
+package com.map.dto;
+
+import java.io.Serializable;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Views of one event accumulated since the last flush of the view counter.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ViewDeltaDTO implements Serializable {
+  private Integer eventId;
+  private Long delta;
+}
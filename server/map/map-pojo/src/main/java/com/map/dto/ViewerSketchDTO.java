@@ -0,0 +1,19 @@
+package com.map.dto;
+
+import java.io.Serializable;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * HyperLogLog registers of the distinct viewers of one event, as counted by one server node.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ViewerSketchDTO implements Serializable {
+  private Integer eventId;
+  private byte[] registers;
+}
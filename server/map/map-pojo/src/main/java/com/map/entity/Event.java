@@ -12,7 +12,7 @@ import java.io.Serializable;
  * Maps to the events table in the database.
  */
 @Data // getter/setter are automatically generated
-@Builder // generate a builder api
+@Builder(toBuilder = true) // generate a builder api
 @NoArgsConstructor // auto generate no parameter constructor
 @AllArgsConstructor // auto generate a all parameter constructor
 public class Event implements Serializable{
@@ -18,4 +18,6 @@ public class UserCategoryFrequency implements Serializable {
   private String userId;
   private Integer categoryId;
   private Integer frequency;
+  // ln of the undecayed like weights in the category, null without likes
+  private Double logScore;
 }
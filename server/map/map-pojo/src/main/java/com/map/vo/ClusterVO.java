@@ -0,0 +1,22 @@
+package com.map.vo;
+
+import com.map.entity.Event;
+import java.io.Serializable;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A map marker standing for one or more nearby events at a given zoom level.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClusterVO implements Serializable {
+  private Double latitude; // centroid of the clustered events
+  private Double longitude;
+  private Integer count;
+  private Event topEvent; // highest trending score in the cluster
+}
@@ -0,0 +1,20 @@
+package com.map.vo;
+
+import com.map.entity.Event;
+import java.io.Serializable;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * An event with its distance from the searched point.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventDistanceVO implements Serializable {
+  private Event event;
+  private Double distanceMeters;
+}
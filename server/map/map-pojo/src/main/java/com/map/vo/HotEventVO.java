@@ -0,0 +1,22 @@
+package com.map.vo;
+
+import java.io.Serializable;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Estimated activity of one event in the hot window. Estimates never undercount; see HotEventsVO for the
+ * error bounds.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HotEventVO implements Serializable {
+  private Integer eventId;
+  private String name; // null if the event is not in the catalog
+  private Long views;
+  private Long likes;
+}
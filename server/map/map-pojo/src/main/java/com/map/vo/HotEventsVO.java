@@ -0,0 +1,28 @@
+package com.map.vo;
+
+import java.io.Serializable;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Events with the most views and likes over a recent window, from fixed-size sketches.
+ * With probability confidence, each event's true views lie in [views - errorBound, views], and the same holds
+ * for likes. Every event with more than 1/candidateCapacity of the window's interactions is listed, up to the
+ * limit.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HotEventsVO implements Serializable {
+  private String window;
+  private Long totalViews; // exact, all events
+  private Long totalLikes;
+  private Long errorBound;
+  private Double confidence;
+  private Integer candidateCapacity; // events monitored per minute
+  private List<HotEventVO> events;
+}
@@ -0,0 +1,22 @@
+package com.map.vo;
+
+import java.io.Serializable;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one interaction of a batch, in request order.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InteractionResultVO implements Serializable {
+  private Integer index; // position in the request
+  private String type;
+  private Integer eventId;
+  private String status; // APPLIED, UNCHANGED or REJECTED
+  private String message; // reason of a rejection
+}
@@ -0,0 +1,21 @@
+package com.map.vo;
+
+import java.io.Serializable;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Like state of an event for one user right after a like or unlike.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LikeStateVO implements Serializable {
+  private Integer eventId;
+  private Boolean liked;
+  private Integer likedCount;
+  private Boolean changed; // false if the user had already liked (or not liked) the event
+}
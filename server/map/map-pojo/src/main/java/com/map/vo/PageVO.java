@@ -0,0 +1,21 @@
+package com.map.vo;
+
+import java.io.Serializable;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One page of a cursor-paginated list.
+ * @param <T>
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PageVO<T> implements Serializable {
+  private List<T> items;
+  private String nextCursor; // pass back as "after" to fetch the next page, null on the last page
+}
@@ -0,0 +1,21 @@
+package com.map.vo;
+
+import java.io.Serializable;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One typeahead completion.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SuggestionVO implements Serializable {
+  private String text;
+  private String type; // event, location or category
+  private Integer eventId; // only set for event suggestions
+  private Double score; // trending score used for ranking
+}
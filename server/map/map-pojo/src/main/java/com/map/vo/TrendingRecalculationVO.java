@@ -0,0 +1,21 @@
+package com.map.vo;
+
+import java.io.Serializable;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one trending score recalculation.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrendingRecalculationVO implements Serializable {
+  private Integer scannedEvents;
+  private Integer updatedEvents; // rows whose stored score changed
+  private Integer statements; // bulk UPDATE statements sent
+  private Long durationMs;
+}
@@ -0,0 +1,28 @@
+package com.map.vo;
+
+import java.io.Serializable;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Health of the write-behind view counter.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ViewCounterMetricsVO implements Serializable {
+  private Integer pendingEvents; // events with views not yet written
+  private Long pendingViews;
+  private Long pendingAgeMs; // age of the oldest unwritten view, 0 if none
+  private Long lastFlushLagMs; // age of the oldest view written by the last flush
+  private Long maxFlushLagMs;
+  private Integer lastBatchSize; // events written by the last flush
+  private Integer maxBatchSize;
+  private Long flushes;
+  private Long failedFlushes;
+  private Long flushedViews;
+  private Long droppedViews; // over the pending-events cap, or lost in a failed shutdown flush
+}
@@ -0,0 +1,156 @@
+package com.map.cache;
+
+import com.map.catalog.EventCatalog;
+import com.map.dto.EventQueryDTO;
+import com.map.entity.Event;
+import com.map.service.EventService;
+import com.map.utils.ColdStartPool;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Shared cold start candidates per filter, see {@link ColdStartPool}.
+ * Pools are built off the request path: on the trending persist schedule, for every filter asked for recently and
+ * for the unfiltered list, whenever the event catalog published a new snapshot since, which is how fresh like and
+ * view counts arrive. A request only reads the published pool. The first request of a new filter gets none and
+ * queues a background build; until it is published the caller ranks the filter itself. Filters not asked for in a
+ * while are dropped, and the least recently used ones beyond a maximum number of filters.
+ */
+@Component
+public class ColdStartRankings {
+    private static final Logger logger = LoggerFactory.getLogger(ColdStartRankings.class);
+
+    private static final EventQueryDTO ALL_EVENTS = EventQueryDTO.builder().build();
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private EventCatalog eventCatalog;
+
+    @Autowired
+    @Qualifier("recommendationRefreshExecutor")
+    private Executor buildExecutor;
+
+    @Value("${app.recommendations.cold-start.depth:200}")
+    private int depth = 200;
+
+    @Value("${app.recommendations.cold-start.max-candidates:2000}")
+    private int maxCandidates = 2_000;
+
+    @Value("${app.recommendations.cold-start.idle-after-ms:600000}")
+    private long idleAfterMillis = 600_000L;
+
+    @Value("${app.recommendations.cold-start.max-filters:1000}")
+    private int maxFilters = 1_000;
+
+    // access-ordered, so the eldest entry is the least recently used; guarded by its own monitor
+    private final LinkedHashMap<EventQueryDTO, Entry> pools = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<EventQueryDTO, Entry> eldest) {
+            return size() > maxFilters;
+        }
+    };
+
+    /**
+     * Published cold start candidates of the filter.
+     * @param queryDTO filter without paging fields
+     * @return the pool, null while the filter has none yet
+     */
+    public ColdStartPool pool(EventQueryDTO queryDTO) {
+        long now = System.currentTimeMillis();
+        synchronized (pools) {
+            Entry entry = pools.get(queryDTO);
+            if (entry != null) {
+                entry.readAt = now;
+                return entry.pool;
+            }
+            pools.put(queryDTO, new Entry(now));
+        }
+        buildLater(queryDTO);
+        return null;
+    }
+
+    /**
+     * Rebuild the pools of the catalog snapshots published since they were built, and drop idle filters; the first
+     * run (initial delay 0) builds the unfiltered pool at startup.
+     */
+    @Scheduled(fixedDelayString = "${app.trending.persist-interval-ms:60000}")
+    public void rebuild() {
+        long now = System.currentTimeMillis();
+        long catalogVersion = eventCatalog.snapshot().getVersion();
+        List<EventQueryDTO> outdated = new ArrayList<>();
+        synchronized (pools) {
+            pools.entrySet().removeIf(e -> !ALL_EVENTS.equals(e.getKey()) && now - e.getValue().readAt > idleAfterMillis);
+            if (!pools.containsKey(ALL_EVENTS)) {
+                pools.put(ALL_EVENTS, new Entry(now));
+            }
+            for (Map.Entry<EventQueryDTO, Entry> entry : pools.entrySet()) {
+                if (entry.getValue().pool == null || entry.getValue().catalogVersion != catalogVersion) {
+                    outdated.add(entry.getKey());
+                }
+            }
+        }
+        for (EventQueryDTO queryDTO : outdated) {
+            build(queryDTO, catalogVersion);
+        }
+        logger.debug("Rebuilt {} cold start pools for catalog v{}", outdated.size(), catalogVersion);
+    }
+
+    public int size() {
+        synchronized (pools) {
+            return pools.size();
+        }
+    }
+
+    private void buildLater(EventQueryDTO queryDTO) {
+        try {
+            buildExecutor.execute(() -> build(queryDTO, eventCatalog.snapshot().getVersion()));
+        } catch (RejectedExecutionException e) {
+            // queue full or executor shut down; the next scheduled rebuild builds it
+        }
+    }
+
+    // the version is read before the events, so a snapshot published meanwhile is picked up by the next rebuild
+    private void build(EventQueryDTO queryDTO, long catalogVersion) {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            List<Event> events = eventService.fetchEvents(queryDTO).stream()
+                .filter(e -> e.getStartTime().isAfter(now))
+                .collect(Collectors.toList());
+            ColdStartPool pool = ColdStartPool.build(events, depth, maxCandidates);
+            synchronized (pools) {
+                Entry entry = pools.get(queryDTO);
+                if (entry != null) {
+                    entry.pool = pool;
+                    entry.catalogVersion = catalogVersion;
+                }
+            }
+        } catch (Exception e) {
+            logger.warn("Building the cold start pool of {} failed, retrying next run: {}", queryDTO, e.getMessage());
+        }
+    }
+
+    private static final class Entry {
+        private ColdStartPool pool;
+        private long catalogVersion = -1L;
+        private long readAt;
+
+        private Entry(long readAt) {
+            this.readAt = readAt;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.map.cache;
+
+import com.map.catalog.EventCatalogListener;
+import com.map.catalog.EventCatalogSnapshot;
+import com.map.utils.PersonalMatchKernel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Holds the {@link PersonalMatchKernel} of the current catalog snapshot.
+ * The kernel is rebuilt after every catalog refresh and published with a single volatile write, so personalized
+ * recommendations share one kernel instead of building one per request. Events created since the last refresh are
+ * not in it and have no personal match until the next one.
+ */
+@Component
+public class PersonalMatchIndex implements EventCatalogListener {
+    private static final Logger logger = LoggerFactory.getLogger(PersonalMatchIndex.class);
+
+    private volatile PersonalMatchKernel kernel;
+
+    @Override
+    public void onRefresh(EventCatalogSnapshot previous, EventCatalogSnapshot current) {
+        long start = System.nanoTime();
+        kernel = PersonalMatchKernel.build(current.eventCategories());
+        logger.info("Personal match kernel v{} built in {} ms", current.getVersion(),
+            (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Kernel over the categories of every event of the catalog.
+     * @return the kernel, null until the first catalog load
+     */
+    public PersonalMatchKernel kernel() {
+        return kernel;
+    }
+}
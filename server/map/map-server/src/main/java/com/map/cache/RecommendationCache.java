@@ -0,0 +1,243 @@
+package com.map.cache;
+
+import com.map.catalog.EventCatalog;
+import com.map.dto.EventQueryDTO;
+import com.map.entity.Event;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * In-process cache of ranked recommendations per user and filter, served stale-while-revalidate.
+ * An entry goes stale as soon as its user likes or unlikes an event. New catalog snapshots, published within
+ * seconds of any view or like, only make it stale once it is older than the refresh interval, so the cache is not
+ * recomputed on every snapshot. A stale entry is still returned right away, and one background refresh is started
+ * for it; only a missing entry, or one stale for too long, is computed on the caller's thread, once for all callers
+ * missing it at the same time. Entries are evicted least recently used first beyond a maximum size.
+ */
+@Component
+public class RecommendationCache {
+    private static final Logger logger = LoggerFactory.getLogger(RecommendationCache.class);
+
+    private static final int STRIPES = 1024;
+
+    @Autowired
+    private EventCatalog eventCatalog;
+
+    @Autowired
+    @Qualifier("recommendationRefreshExecutor")
+    private Executor refreshExecutor;
+
+    @Value("${app.recommendations.cache.max-entries:10000}")
+    private int maxEntries = 10_000;
+
+    @Value("${app.recommendations.cache.refresh-after-ms:60000}")
+    private long refreshAfterMillis = 60_000L;
+
+    @Value("${app.recommendations.cache.max-stale-ms:600000}")
+    private long maxStaleMillis = 600_000L;
+
+    // access-ordered, so the eldest entry is the least recently used; guarded by its own monitor
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+            return size() > maxEntries;
+        }
+    };
+
+    // computations of missing entries in flight, joined by other callers missing the same key; guarded by entries
+    private final Map<Key, CompletableFuture<List<Event>>> loading = new HashMap<>();
+
+    // bumped when a user of the stripe likes or unlikes; entries computed under an older stamp are stale
+    private final AtomicLongArray userStamps = new AtomicLongArray(STRIPES);
+
+    /**
+     * Recommendations for the user and filter, from the cache when there.
+     * @param userId
+     * @param queryDTO filter, part of the key
+     * @param loader computes the recommendations; also run in the background to refresh a stale entry
+     * @return
+     */
+    public List<Event> get(String userId, EventQueryDTO queryDTO, Supplier<List<Event>> loader) {
+        Key key = new Key(userId, queryDTO);
+        long now = System.currentTimeMillis();
+        CompletableFuture<List<Event>> pending;
+        CompletableFuture<List<Event>> mine = null;
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null && now - entry.computedAt <= maxStaleMillis) {
+                if (isStale(entry, now) && !entry.refreshing) {
+                    entry.refreshing = true;
+                    refreshLater(key, entry, loader);
+                }
+                return entry.events;
+            }
+            pending = loading.get(key);
+            if (pending == null) {
+                mine = new CompletableFuture<>();
+                loading.put(key, mine);
+            }
+        }
+        if (mine == null) {
+            return await(pending);
+        }
+        try {
+            List<Event> events = load(key, loader);
+            mine.complete(events);
+            return events;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            synchronized (entries) {
+                loading.remove(key, mine);
+            }
+        }
+    }
+
+    /**
+     * Mark the user's entries stale, e.g. after a like or unlike.
+     * @param userId
+     */
+    public void invalidate(String userId) {
+        userStamps.incrementAndGet(stripe(userId));
+    }
+
+    /**
+     * Same as {@link #invalidate(String)}, for a change made inside a transaction: applied once the transaction
+     * completes, so a refresh cannot read the data from before the change and keep it as current. Without a
+     * transaction the user is invalidated right away.
+     * @param userId
+     */
+    public void invalidateAfterCommit(String userId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidate(userId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                invalidate(userId);
+            }
+        });
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private boolean isStale(Entry entry, long now) {
+        return entry.userStamp != userStamps.get(stripe(entry.userId))
+            || (entry.catalogVersion != eventCatalog.snapshot().getVersion()
+                && now - entry.computedAt > refreshAfterMillis);
+    }
+
+    // result of another caller's computation of the same entry, failing the same way
+    private static List<Event> await(CompletableFuture<List<Event>> pending) {
+        try {
+            return pending.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private void refreshLater(Key key, Entry stale, Supplier<List<Event>> loader) {
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    load(key, loader);
+                } catch (Exception e) {
+                    logger.warn("Recommendation refresh for user {} failed: {}", key.userId, e.getMessage());
+                } finally {
+                    synchronized (entries) {
+                        stale.refreshing = false;
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // queue full or executor shut down; called under the entries lock, the next read asks again
+            stale.refreshing = false;
+        }
+    }
+
+    // versions are read before computing, so a change made meanwhile leaves the new entry stale
+    private List<Event> load(Key key, Supplier<List<Event>> loader) {
+        long catalogVersion = eventCatalog.snapshot().getVersion();
+        long userStamp = userStamps.get(stripe(key.userId));
+        long computedAt = System.currentTimeMillis();
+        List<Event> events = List.copyOf(loader.get());
+        // an empty list is cheap to recompute and may come from a failed lookup
+        if (!events.isEmpty()) {
+            synchronized (entries) {
+                entries.put(key, new Entry(key.userId, events, catalogVersion, userStamp, computedAt));
+            }
+        }
+        return events;
+    }
+
+    private static int stripe(String userId) {
+        return (userId.hashCode() & 0x7fffffff) % STRIPES;
+    }
+
+    private static final class Key {
+        private final String userId;
+        private final EventQueryDTO queryDTO;
+
+        private Key(String userId, EventQueryDTO queryDTO) {
+            this.userId = userId;
+            this.queryDTO = queryDTO;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return userId.equals(other.userId) && Objects.equals(queryDTO, other.queryDTO);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * userId.hashCode() + Objects.hashCode(queryDTO);
+        }
+    }
+
+    private static final class Entry {
+        private final String userId;
+        private final List<Event> events;
+        private final long catalogVersion;
+        private final long userStamp;
+        private final long computedAt;
+        private boolean refreshing;
+
+        private Entry(String userId, List<Event> events, long catalogVersion, long userStamp, long computedAt) {
+            this.userId = userId;
+            this.events = events;
+            this.catalogVersion = catalogVersion;
+            this.userStamp = userStamp;
+            this.computedAt = computedAt;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.map.cache;
+
+import com.map.mapper.UserMapper;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Membership of user ids, so the common case of a known user needs no existence query.
+ * A Bloom filter over all user ids answers a hit as existing; only a miss is checked in Postgres, and a user found
+ * there is added to the filter. A miss can be a user created by another instance or straight in the database since
+ * the last load, so it is never taken as final. A false positive, at the configured rate, lets an unknown id
+ * through to its writes, which the foreign keys on users reject.
+ * The filter is warm-loaded from the users table on a schedule and updated as users are created or found.
+ */
+@Component
+public class UserDirectory {
+    private static final Logger logger = LoggerFactory.getLogger(UserDirectory.class);
+
+    @Autowired
+    private UserMapper userMapper;
+
+    @Value("${app.users.bloom-false-positive-rate:0.001}")
+    private double falsePositiveRate = 0.001;
+
+    private volatile BloomFilter bloom;
+
+    // ids added while a load is in flight, replayed into the new state; guarded by this
+    private Set<String> addedDuringLoad;
+
+    /**
+     * Reload all user ids; the first run (initial delay 0) warms the directory at startup.
+     */
+    @Scheduled(fixedDelayString = "${app.users.directory-refresh-ms:3600000}")
+    public void refresh() {
+        try {
+            synchronized (this) {
+                addedDuringLoad = new HashSet<>();
+            }
+            List<String> userIds = userMapper.selectAllUserIds();
+            // room to grow until the next load without losing the false positive rate
+            BloomFilter next = new BloomFilter(Math.max(1024L, userIds.size() * 2L), falsePositiveRate);
+            for (String userId : userIds) {
+                next.add(userId);
+            }
+            synchronized (this) {
+                for (String userId : addedDuringLoad) {
+                    next.add(userId);
+                }
+                addedDuringLoad = null;
+                bloom = next;
+            }
+            logger.info("User directory loaded {} users", userIds.size());
+        } catch (Exception e) {
+            synchronized (this) {
+                addedDuringLoad = null;
+            }
+            logger.warn("User directory load failed, keeping the previous one: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Whether a user exists.
+     * @param userId
+     * @return
+     */
+    public boolean exists(String userId) {
+        return exists(userId, userMapper);
+    }
+
+    /**
+     * Same as {@link #exists(String)}, checking misses through the given mapper, e.g. one bound to a batch session.
+     * @param userId
+     * @param loader
+     * @return
+     */
+    public boolean exists(String userId, UserMapper loader) {
+        BloomFilter current = bloom;
+        if (current != null && current.mightContain(userId)) {
+            return true;
+        }
+        boolean exists = loader.checkUserExists(userId);
+        if (exists) {
+            add(userId);
+        }
+        return exists;
+    }
+
+    /**
+     * Record a user that was just created or found.
+     * @param userId
+     */
+    public synchronized void add(String userId) {
+        if (bloom != null) {
+            bloom.add(userId);
+        }
+        if (addedDuringLoad != null) {
+            addedDuringLoad.add(userId);
+        }
+    }
+}
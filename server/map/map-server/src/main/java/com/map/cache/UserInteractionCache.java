@@ -0,0 +1,173 @@
+package com.map.cache;
+
+import com.map.mapper.UserMapper;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.UnaryOperator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * In-process cache of each user's likes and bookmarks, so profile reads, like checks and recommendation input
+ * do not query Postgres every time.
+ * Users are loaded lazily on first read, kept current write-through by the user service, and evicted least
+ * recently used first beyond a maximum size, or after being idle for a while.
+ */
+@Component
+public class UserInteractionCache {
+
+    private static final int STRIPES = 64;
+
+    @Autowired
+    private UserMapper userMapper;
+
+    @Value("${app.user-cache.max-users:10000}")
+    private int maxUsers = 10_000;
+
+    @Value("${app.user-cache.idle-ms:1800000}")
+    private long idleMillis = 1_800_000L;
+
+    // access-ordered, so iteration starts at the least recently used user; guarded by its own monitor
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > maxUsers;
+        }
+    };
+
+    // bumped by every write to a user of the stripe; a load that raced with a write is returned but not cached
+    private final AtomicLongArray writeStamps = new AtomicLongArray(STRIPES);
+
+    /**
+     * Cached interactions of a user, without loading.
+     * @param userId
+     * @return the interactions, or null if the user is not cached
+     */
+    public UserInteractions getIfPresent(String userId) {
+        synchronized (entries) {
+            Entry entry = entries.get(userId);
+            if (entry == null) {
+                return null;
+            }
+            entry.lastAccess = System.currentTimeMillis();
+            return entry.interactions;
+        }
+    }
+
+    /**
+     * Interactions of a user, loaded from the database on a miss. The caller checks that the user exists.
+     * @param userId
+     * @return
+     */
+    public UserInteractions get(String userId) {
+        UserInteractions cached = getIfPresent(userId);
+        if (cached != null) {
+            return cached;
+        }
+        int stripe = stripe(userId);
+        long stamp = writeStamps.get(stripe);
+        UserInteractions loaded = UserInteractions.of(
+            userMapper.getUserLikesWithTimestamps(userId), userMapper.getUserBookmarks(userId));
+        synchronized (entries) {
+            Entry current = entries.get(userId);
+            if (current != null) {
+                return current.interactions;
+            }
+            if (writeStamps.get(stripe) == stamp) {
+                entries.put(userId, new Entry(loaded, System.currentTimeMillis()));
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Write-through after a committed change; users that are not cached are left to load fresh.
+     * @param userId
+     * @param change e.g. {@code u -> u.withLike(eventId, now)}
+     */
+    public void update(String userId, UnaryOperator<UserInteractions> change) {
+        synchronized (entries) {
+            writeStamps.incrementAndGet(stripe(userId));
+            Entry entry = entries.get(userId);
+            if (entry != null) {
+                entry.interactions = change.apply(entry.interactions);
+                entry.lastAccess = System.currentTimeMillis();
+            }
+        }
+    }
+
+    /**
+     * Drop a user, e.g. after a bulk change that is simpler to reload than to replay.
+     * @param userId
+     */
+    public void invalidate(String userId) {
+        synchronized (entries) {
+            writeStamps.incrementAndGet(stripe(userId));
+            entries.remove(userId);
+        }
+    }
+
+    /**
+     * Write-through for a change made inside a transaction: applied once the transaction commits, and the user
+     * dropped instead if it rolls back. Without a transaction the change is applied right away.
+     * @param userId
+     * @param change must be idempotent, a load racing with the commit may already include it
+     */
+    public void updateAfterCommit(String userId, UnaryOperator<UserInteractions> change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            update(userId, change);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    update(userId, change);
+                } else {
+                    invalidate(userId);
+                }
+            }
+        });
+    }
+
+    /**
+     * Evict users not read for the idle time.
+     */
+    @Scheduled(fixedDelayString = "${app.user-cache.sweep-interval-ms:60000}")
+    public void evictIdle() {
+        long cutoff = System.currentTimeMillis() - idleMillis;
+        synchronized (entries) {
+            // least recently used first, so the scan stops at the first user still in use
+            Iterator<Entry> it = entries.values().iterator();
+            while (it.hasNext() && it.next().lastAccess < cutoff) {
+                it.remove();
+            }
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private static int stripe(String userId) {
+        return (userId.hashCode() & 0x7fffffff) % STRIPES;
+    }
+
+    private static final class Entry {
+        private UserInteractions interactions;
+        private long lastAccess;
+
+        private Entry(UserInteractions interactions, long lastAccess) {
+            this.interactions = interactions;
+            this.lastAccess = lastAccess;
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.map.cache;
+
+import com.map.dto.UserLikeDTO;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Immutable likes and bookmarks of one user.
+ * Event ids are dense serial keys, so membership is kept in bitsets; like times are a primitive array parallel to
+ * the ascending liked ids. Every change returns a new instance, so readers never need a lock.
+ */
+public final class UserInteractions {
+
+    private static final UserInteractions EMPTY = new UserInteractions(new BitSet(), new BitSet(), new int[0], new long[0]);
+
+    private final BitSet liked;
+    private final BitSet bookmarked;
+
+    // liked event ids ascending, and the like time of each as epoch millis of the stored (zone-less) timestamp
+    private final int[] likedIds;
+    private final long[] likedAt;
+
+    private UserInteractions(BitSet liked, BitSet bookmarked, int[] likedIds, long[] likedAt) {
+        this.liked = liked;
+        this.bookmarked = bookmarked;
+        this.likedIds = likedIds;
+        this.likedAt = likedAt;
+    }
+
+    /**
+     * Build from the user_likes and user_bookmarks rows of a user.
+     * @param likes liked events with their timestamps, any order
+     * @param bookmarks bookmarked event ids
+     * @return the interactions
+     */
+    public static UserInteractions of(List<UserLikeDTO> likes, List<Integer> bookmarks) {
+        List<UserLikeDTO> sorted = new ArrayList<>(likes);
+        sorted.sort((a, b) -> Integer.compare(a.getEventId(), b.getEventId()));
+        BitSet liked = new BitSet();
+        int[] likedIds = new int[sorted.size()];
+        long[] likedAt = new long[sorted.size()];
+        for (int i = 0; i < sorted.size(); i++) {
+            likedIds[i] = sorted.get(i).getEventId();
+            likedAt[i] = toMillis(sorted.get(i).getTimestamp());
+            liked.set(likedIds[i]);
+        }
+        BitSet bookmarked = new BitSet();
+        for (Integer eventId : bookmarks) {
+            bookmarked.set(eventId);
+        }
+        return new UserInteractions(liked, bookmarked, likedIds, likedAt);
+    }
+
+    /**
+     * A user without likes or bookmarks.
+     * @return the shared empty instance
+     */
+    public static UserInteractions empty() {
+        return EMPTY;
+    }
+
+    public boolean isLiked(int eventId) {
+        return eventId >= 0 && liked.get(eventId);
+    }
+
+    public boolean isBookmarked(int eventId) {
+        return eventId >= 0 && bookmarked.get(eventId);
+    }
+
+    /**
+     * Liked event ids, ascending.
+     * @return
+     */
+    public List<Integer> likes() {
+        return Arrays.stream(likedIds).boxed().toList();
+    }
+
+    /**
+     * Bookmarked event ids, ascending.
+     * @return
+     */
+    public List<Integer> bookmarks() {
+        return bookmarked.stream().boxed().toList();
+    }
+
+    /**
+     * Liked events with their like timestamps, ascending by event id.
+     * @return
+     */
+    public List<UserLikeDTO> likeEntries() {
+        List<UserLikeDTO> entries = new ArrayList<>(likedIds.length);
+        for (int i = 0; i < likedIds.length; i++) {
+            entries.add(new UserLikeDTO(likedIds[i], toDateTime(likedAt[i])));
+        }
+        return entries;
+    }
+
+    /**
+     * Like an event, or move the time of an existing like.
+     * @param eventId
+     * @param at like time
+     * @return the changed copy
+     */
+    public UserInteractions withLike(int eventId, LocalDateTime at) {
+        int slot = Arrays.binarySearch(likedIds, eventId);
+        if (slot >= 0) {
+            long[] times = likedAt.clone();
+            times[slot] = toMillis(at);
+            return new UserInteractions(liked, bookmarked, likedIds, times);
+        }
+        int insert = -slot - 1;
+        int[] ids = new int[likedIds.length + 1];
+        long[] times = new long[likedAt.length + 1];
+        System.arraycopy(likedIds, 0, ids, 0, insert);
+        System.arraycopy(likedAt, 0, times, 0, insert);
+        ids[insert] = eventId;
+        times[insert] = toMillis(at);
+        System.arraycopy(likedIds, insert, ids, insert + 1, likedIds.length - insert);
+        System.arraycopy(likedAt, insert, times, insert + 1, likedAt.length - insert);
+        BitSet nextLiked = (BitSet) liked.clone();
+        nextLiked.set(eventId);
+        return new UserInteractions(nextLiked, bookmarked, ids, times);
+    }
+
+    /**
+     * Remove the like of an event, if any.
+     * @param eventId
+     * @return the changed copy, or this if the event was not liked
+     */
+    public UserInteractions withoutLike(int eventId) {
+        int slot = Arrays.binarySearch(likedIds, eventId);
+        if (slot < 0) {
+            return this;
+        }
+        int[] ids = new int[likedIds.length - 1];
+        long[] times = new long[likedAt.length - 1];
+        System.arraycopy(likedIds, 0, ids, 0, slot);
+        System.arraycopy(likedAt, 0, times, 0, slot);
+        System.arraycopy(likedIds, slot + 1, ids, slot, likedIds.length - slot - 1);
+        System.arraycopy(likedAt, slot + 1, times, slot, likedAt.length - slot - 1);
+        BitSet nextLiked = (BitSet) liked.clone();
+        nextLiked.clear(eventId);
+        return new UserInteractions(nextLiked, bookmarked, ids, times);
+    }
+
+    public UserInteractions withBookmark(int eventId) {
+        if (isBookmarked(eventId)) {
+            return this;
+        }
+        BitSet next = (BitSet) bookmarked.clone();
+        next.set(eventId);
+        return new UserInteractions(liked, next, likedIds, likedAt);
+    }
+
+    public UserInteractions withoutBookmark(int eventId) {
+        if (!isBookmarked(eventId)) {
+            return this;
+        }
+        BitSet next = (BitSet) bookmarked.clone();
+        next.clear(eventId);
+        return new UserInteractions(liked, next, likedIds, likedAt);
+    }
+
+    // user_likes.timestamp has no zone, UTC is only used as a lossless encoding
+    private static long toMillis(LocalDateTime time) {
+        return time == null ? 0L : time.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    private static LocalDateTime toDateTime(long millis) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(millis, 1000L),
+            (int) Math.floorMod(millis, 1000L) * 1_000_000, ZoneOffset.UTC);
+    }
+}
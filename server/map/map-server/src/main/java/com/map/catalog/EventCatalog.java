@@ -0,0 +1,110 @@
+package com.map.catalog;
+
+import com.map.dto.EventCategoryDTO;
+import com.map.entity.Event;
+import com.map.mapper.EventMapper;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Holder of the current {@link EventCatalogSnapshot}.
+ * The snapshot is rebuilt from Postgres on a fixed schedule, and shortly after any write marks the catalog dirty.
+ * Each rebuild produces a brand new snapshot that is published with a single volatile write.
+ */
+@Component
+public class EventCatalog {
+    private static final Logger logger = LoggerFactory.getLogger(EventCatalog.class);
+
+    @Autowired
+    private EventMapper eventMapper;
+
+    @Autowired(required = false)
+    private List<EventCatalogListener> listeners = new ArrayList<>();
+
+    private volatile EventCatalogSnapshot snapshot = EventCatalogSnapshot.empty();
+    private volatile boolean loaded = false;
+
+    private final AtomicBoolean dirty = new AtomicBoolean(false);
+    private final AtomicLong versions = new AtomicLong(0);
+
+    /**
+     * Full reload on a fixed schedule; the first run (initial delay 0) warms the catalog at startup.
+     */
+    @Scheduled(fixedDelayString = "${app.catalog.refresh-interval-ms:300000}")
+    public void scheduledRefresh() {
+        refresh();
+    }
+
+    /**
+     * Debounced reload after writes, so bursts of likes/views collapse into a single rebuild.
+     */
+    @Scheduled(fixedDelayString = "${app.catalog.dirty-check-interval-ms:5000}")
+    public void refreshIfDirty() {
+        if (dirty.compareAndSet(true, false)) {
+            refresh();
+        }
+    }
+
+    /**
+     * Flag that the underlying tables changed; the next dirty check rebuilds the snapshot.
+     */
+    public void markDirty() {
+        dirty.set(true);
+    }
+
+    /**
+     * Load all events and their categories, swap in a new snapshot and notify listeners.
+     * On failure the previous snapshot stays in place.
+     */
+    public synchronized void refresh() {
+        try {
+            long start = System.nanoTime();
+            List<Event> events = eventMapper.selectAllEvents();
+            List<EventCategoryDTO> eventCategories = eventMapper.getAllEventCategories();
+            EventCatalogSnapshot next =
+                EventCatalogSnapshot.build(versions.incrementAndGet(), events, eventCategories);
+            EventCatalogSnapshot previous = snapshot;
+            snapshot = next;
+            loaded = true;
+            logger.info("Event catalog v{} loaded {} events in {} ms",
+                next.getVersion(), next.size(), (System.nanoTime() - start) / 1_000_000);
+            notifyListeners(previous, next);
+        } catch (Exception e) {
+            logger.warn("Event catalog refresh failed, keeping v{}: {}", snapshot.getVersion(), e.getMessage());
+        }
+    }
+
+    private void notifyListeners(EventCatalogSnapshot previous, EventCatalogSnapshot current) {
+        for (EventCatalogListener listener : listeners) {
+            try {
+                listener.onRefresh(previous, current);
+            } catch (Exception e) {
+                // one broken listener must not keep the others stale
+                logger.warn("Event catalog listener {} failed: {}", listener.getClass().getSimpleName(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * The snapshot currently being served.
+     * @return current snapshot, empty before the first load
+     */
+    public EventCatalogSnapshot snapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Whether at least one load succeeded.
+     * @return true once the catalog can answer reads
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+}
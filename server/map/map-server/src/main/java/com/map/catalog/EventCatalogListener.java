@@ -0,0 +1,14 @@
+package com.map.catalog;
+
+/**
+ * Callback for components that maintain derived structures from the event catalog.
+ */
+public interface EventCatalogListener {
+
+    /**
+     * Called after a new snapshot has been published.
+     * @param previous the snapshot that was replaced, empty on the first load
+     * @param current the snapshot now being served
+     */
+    void onRefresh(EventCatalogSnapshot previous, EventCatalogSnapshot current);
+}
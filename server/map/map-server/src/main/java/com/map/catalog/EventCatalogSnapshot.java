@@ -0,0 +1,368 @@
+package com.map.catalog;
+
+import com.map.dto.EventCategoryDTO;
+import com.map.dto.EventQueryDTO;
+import com.map.entity.Event;
+import com.map.utils.GeoUtils;
+import com.map.utils.TopKSelector;
+import com.map.vo.EventDistanceVO;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable, read-optimized view of all events with secondary indexes by category, location, start time and
+ * coordinates.
+ * A snapshot is built once per catalog refresh and never modified afterwards, so it can be shared by any
+ * number of request threads without locking. Returned events are shared instances and must be treated as read-only.
+ */
+public final class EventCatalogSnapshot {
+
+    private static final Comparator<Event> TRENDING_ORDER = Comparator
+        .comparingDouble(EventCatalogSnapshot::trendingScore).reversed()
+        .thenComparing(Event::getEventId);
+
+    private static final EventCatalogSnapshot EMPTY =
+        new EventCatalogSnapshot(0L, null, List.of(), List.of());
+
+    private final long version;
+    private final LocalDateTime builtAt;
+
+    // all events ordered by (startTime, eventId), same order as selectEvents
+    private final Event[] events;
+    private final StartTimeIndex startTimeIndex;
+    private final GeoGridIndex geoIndex;
+    private final Map<Integer, Event> eventsById;
+
+    // lower-cased key -> ascending positions into events
+    private final Map<String, int[]> categoryIndex;
+    private final Map<String, int[]> locationIndex;
+
+    // selectEvents inner-joins event_categories, so uncategorized events never match a filtered read
+    private final boolean[] categorized;
+
+    // the pairs as loaded, with the category names as stored, for derived structures
+    private final List<EventCategoryDTO> eventCategories;
+
+    private EventCatalogSnapshot(
+        long version, LocalDateTime builtAt, List<Event> allEvents, List<EventCategoryDTO> eventCategories) {
+        this.version = version;
+        this.builtAt = builtAt;
+
+        this.events = allEvents.toArray(new Event[0]);
+        Arrays.sort(this.events, Comparator
+            .comparing(Event::getStartTime, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(Event::getEventId));
+
+        this.startTimeIndex = StartTimeIndex.build(events);
+        this.geoIndex = GeoGridIndex.build(events);
+        Map<Integer, Integer> positions = new HashMap<>(events.length * 2);
+        Map<Integer, Event> byId = new HashMap<>(events.length * 2);
+        Map<String, List<Integer>> locations = new HashMap<>();
+        for (int i = 0; i < events.length; i++) {
+            Event event = events[i];
+            positions.put(event.getEventId(), i);
+            byId.put(event.getEventId(), event);
+            if (event.getLocation() != null) {
+                locations.computeIfAbsent(normalize(event.getLocation()), k -> new ArrayList<>()).add(i);
+            }
+        }
+
+        this.categorized = new boolean[events.length];
+        Map<String, List<Integer>> categories = new HashMap<>();
+        for (EventCategoryDTO pair : eventCategories) {
+            Integer position = positions.get(pair.getEventId());
+            if (position == null || pair.getCategoryName() == null) {
+                continue;
+            }
+            categorized[position] = true;
+            categories.computeIfAbsent(normalize(pair.getCategoryName()), k -> new ArrayList<>()).add(position);
+        }
+
+        this.eventCategories = Collections.unmodifiableList(eventCategories);
+        this.eventsById = Collections.unmodifiableMap(byId);
+        this.categoryIndex = toPositionIndex(categories);
+        this.locationIndex = toPositionIndex(locations);
+    }
+
+    /**
+     * Build a snapshot from a full load of the events and event_categories tables.
+     * @param version monotonically increasing snapshot version
+     * @param allEvents every event
+     * @param eventCategories every (event id, category name) pair
+     * @return the new snapshot
+     */
+    public static EventCatalogSnapshot build(
+        long version, List<Event> allEvents, List<EventCategoryDTO> eventCategories) {
+        return new EventCatalogSnapshot(version, LocalDateTime.now(), allEvents, eventCategories);
+    }
+
+    /**
+     * Snapshot used before the first successful load.
+     * @return an empty snapshot with version 0
+     */
+    public static EventCatalogSnapshot empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Answer the same query as EventMapper#selectEvents from memory, including its keyset pagination.
+     * @param queryDTO category/near/box filter plus optional limit and (afterStartTime, afterId) cursor
+     * @param window resolved start-time window, null for any time
+     * @return matching events ordered by start time
+     */
+    public List<Event> select(EventQueryDTO queryDTO, TimeWindow window) {
+        int lo = startTimeIndex.lowerBound(window);
+        int hi = startTimeIndex.upperBound(window);
+        if (queryDTO.getAfterStartTime() != null && queryDTO.getAfterId() != null) {
+            lo = Math.max(lo, firstSlotAfter(queryDTO.getAfterStartTime(), queryDTO.getAfterId()));
+        }
+        int limit = queryDTO.getLimit() == null ? Integer.MAX_VALUE : queryDTO.getLimit();
+        return collect(queryDTO, lo, hi, limit);
+    }
+
+    /**
+     * Answer the same query as EventMapper#selectTrendingEvents from memory.
+     * @param queryDTO category/near/box filter plus optional limit and (afterScore, afterId) cursor
+     * @param window resolved start-time window, null for any time
+     * @return matching events ordered by trending score, highest first, then event id
+     */
+    public List<Event> selectByTrendingScore(EventQueryDTO queryDTO, TimeWindow window) {
+        List<Event> matches = collect(
+            queryDTO, startTimeIndex.lowerBound(window), startTimeIndex.upperBound(window), Integer.MAX_VALUE);
+        Event after = queryDTO.getAfterScore() != null && queryDTO.getAfterId() != null
+            ? Event.builder().trendingScore(queryDTO.getAfterScore()).eventId(queryDTO.getAfterId()).build()
+            : null;
+
+        // select only the page instead of sorting every match; the event id breaks score ties
+        int limit = queryDTO.getLimit() == null ? matches.size() : Math.min(matches.size(), queryDTO.getLimit());
+        TopKSelector topK = new TopKSelector(limit);
+        for (Event event : matches) {
+            if (after == null || TRENDING_ORDER.compare(event, after) > 0) {
+                topK.offer(event.getEventId(), trendingScore(event));
+            }
+        }
+        List<Event> page = new ArrayList<>(topK.size());
+        for (int eventId : topK.drain()) {
+            page.add(eventsById.get(eventId));
+        }
+        return page;
+    }
+
+    // events are stored in start-time order, so index slots and event positions coincide
+    private List<Event> collect(EventQueryDTO queryDTO, int lo, int hi, int limit) {
+        int[] byCategory = postings(categoryIndex, queryDTO.getCategory(), "All Categories");
+        int[] byLocation = postings(locationIndex, queryDTO.getNear(), "All Locations");
+
+        List<Event> result = new ArrayList<>();
+        if (byCategory == null && byLocation == null) {
+            for (int i = lo; i < hi && result.size() < limit; i++) {
+                int position = startTimeIndex.positionAt(i);
+                if (categorized[position] && inBox(events[position], queryDTO)) {
+                    result.add(events[position]);
+                }
+            }
+            return result;
+        }
+
+        // walk the smaller posting list and probe the other one
+        int[] driver = byCategory;
+        int[] probe = byLocation;
+        if (driver == null || (probe != null && probe.length < driver.length)) {
+            driver = byLocation;
+            probe = byCategory;
+        }
+        int start = Arrays.binarySearch(driver, lo);
+        for (int i = start >= 0 ? start : -start - 1; i < driver.length && driver[i] < hi && result.size() < limit; i++) {
+            int position = driver[i];
+            if (!categorized[position]) {
+                continue;
+            }
+            if (probe != null && Arrays.binarySearch(probe, position) < 0) {
+                continue;
+            }
+            if (inBox(events[position], queryDTO)) {
+                result.add(events[position]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Events within a radius of a point that also pass the category, location and time filters.
+     * Only grid cells overlapping the radius are visited.
+     * @param queryDTO category/near filter plus optional limit
+     * @param window resolved start-time window, null for any time
+     * @param lat latitude of the center, degrees
+     * @param lng longitude of the center, degrees
+     * @param radiusMeters search radius
+     * @return matching events with their distance, nearest first, ties by event id
+     */
+    public List<EventDistanceVO> nearby(
+        EventQueryDTO queryDTO, TimeWindow window, double lat, double lng, double radiusMeters) {
+        double dLat = GeoUtils.latitudeDegrees(radiusMeters);
+        double dLng = GeoUtils.longitudeDegrees(radiusMeters, lat);
+        int[] byCategory = postings(categoryIndex, queryDTO.getCategory(), "All Categories");
+        int[] byLocation = postings(locationIndex, queryDTO.getNear(), "All Locations");
+
+        List<EventDistanceVO> result = new ArrayList<>();
+        geoIndex.forEachCandidate(lat - dLat, lat + dLat, lng - dLng, lng + dLng, position -> {
+            Event event = events[position];
+            if (!categorized[position]
+                || (byCategory != null && Arrays.binarySearch(byCategory, position) < 0)
+                || (byLocation != null && Arrays.binarySearch(byLocation, position) < 0)
+                || (window != null && !window.contains(event.getStartTime()))) {
+                return;
+            }
+            double distance = GeoUtils.haversineMeters(lat, lng, event.getLatitude(), event.getLongitude());
+            if (distance <= radiusMeters) {
+                result.add(new EventDistanceVO(event, distance));
+            }
+        });
+        result.sort(Comparator.comparingDouble(EventDistanceVO::getDistanceMeters)
+            .thenComparing(d -> d.getEvent().getEventId()));
+        if (queryDTO.getLimit() != null && result.size() > queryDTO.getLimit()) {
+            return new ArrayList<>(result.subList(0, queryDTO.getLimit()));
+        }
+        return result;
+    }
+
+    private static double trendingScore(Event event) {
+        return event.getTrendingScore() == null ? 0.0 : event.getTrendingScore();
+    }
+
+    // the optional bounding box of the query, like the BETWEEN filters of selectEvents
+    private static boolean inBox(Event event, EventQueryDTO queryDTO) {
+        if (queryDTO.getMinLat() == null || queryDTO.getMaxLat() == null
+            || queryDTO.getMinLng() == null || queryDTO.getMaxLng() == null) {
+            return true;
+        }
+        return event.getLatitude() != null && event.getLongitude() != null
+            && event.getLatitude() >= queryDTO.getMinLat() && event.getLatitude() <= queryDTO.getMaxLat()
+            && event.getLongitude() >= queryDTO.getMinLng() && event.getLongitude() <= queryDTO.getMaxLng();
+    }
+
+    // posting list of a filter value, null when the filter is unset or the wildcard
+    private static int[] postings(Map<String, int[]> index, String filter, String wildcard) {
+        if (!hasValue(filter, wildcard)) {
+            return null;
+        }
+        return index.getOrDefault(normalize(filter), new int[0]);
+    }
+
+    // first slot strictly after (startTime, eventId) in (startTime, eventId) order
+    private int firstSlotAfter(LocalDateTime startTime, int eventId) {
+        int slot = startTimeIndex.lowerBound(new TimeWindow(startTime, null));
+        while (slot < events.length
+            && startTime.equals(events[startTimeIndex.positionAt(slot)].getStartTime())
+            && events[startTimeIndex.positionAt(slot)].getEventId() <= eventId) {
+            slot++;
+        }
+        return slot;
+    }
+
+    /**
+     * Look up a single event.
+     * @param eventId
+     * @return the event, or null if it is not in this snapshot
+     */
+    public Event getEvent(Integer eventId) {
+        return eventsById.get(eventId);
+    }
+
+    /**
+     * All events in start-time order.
+     * @return read-only view over this snapshot's events
+     */
+    public List<Event> events() {
+        return Collections.unmodifiableList(Arrays.asList(events));
+    }
+
+    /**
+     * Ids of the events a filtered read can return, i.e. those with at least one category.
+     * @return event ids in start-time order
+     */
+    public List<Integer> categorizedEventIds() {
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < events.length; i++) {
+            if (categorized[i]) {
+                ids.add(events[i].getEventId());
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Every (event id, category name) pair this snapshot was built from, category names not normalized.
+     * @return read-only list in load order
+     */
+    public List<EventCategoryDTO> eventCategories() {
+        return eventCategories;
+    }
+
+    /**
+     * Ids of the categorized events per lower-cased category name.
+     * @return category key to event ids
+     */
+    public Map<String, List<Integer>> eventIdsByCategory() {
+        return eventIdsBy(categoryIndex);
+    }
+
+    /**
+     * Ids of the categorized events per lower-cased location.
+     * @return location key to event ids
+     */
+    public Map<String, List<Integer>> eventIdsByLocation() {
+        return eventIdsBy(locationIndex);
+    }
+
+    private Map<String, List<Integer>> eventIdsBy(Map<String, int[]> index) {
+        Map<String, List<Integer>> result = new HashMap<>(index.size() * 2);
+        for (Map.Entry<String, int[]> entry : index.entrySet()) {
+            List<Integer> ids = new ArrayList<>(entry.getValue().length);
+            for (int position : entry.getValue()) {
+                if (categorized[position]) {
+                    ids.add(events[position].getEventId());
+                }
+            }
+            result.put(entry.getKey(), ids);
+        }
+        return result;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public LocalDateTime getBuiltAt() {
+        return builtAt;
+    }
+
+    public int size() {
+        return events.length;
+    }
+
+    private static boolean hasValue(String filter, String wildcard) {
+        return filter != null && !filter.isEmpty() && !filter.equals(wildcard);
+    }
+
+    private static String normalize(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    private static Map<String, int[]> toPositionIndex(Map<String, List<Integer>> lists) {
+        Map<String, int[]> index = new HashMap<>(lists.size() * 2);
+        for (Map.Entry<String, List<Integer>> entry : lists.entrySet()) {
+            // an event may be listed twice under the same lower-cased category, keep positions unique
+            int[] positions = entry.getValue().stream().mapToInt(Integer::intValue).sorted().distinct().toArray();
+            index.put(entry.getKey(), positions);
+        }
+        return Collections.unmodifiableMap(index);
+    }
+}
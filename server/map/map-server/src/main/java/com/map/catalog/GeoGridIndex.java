@@ -0,0 +1,99 @@
+package com.map.catalog;
+
+import com.map.entity.Event;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntConsumer;
+
+import static com.map.constant.GeoConstant.GRID_CELL_DEGREES;
+
+/**
+ * Uniform latitude/longitude grid over event coordinates, built once per snapshot.
+ * A box query only visits the cells it overlaps, so its cost follows the area searched rather than the number
+ * of events. Events without coordinates are not indexed. Boxes crossing the antimeridian are not supported,
+ * which is fine for a single campus.
+ */
+final class GeoGridIndex {
+
+    // cell key -> positions of the events inside it
+    private final Map<Long, int[]> cells;
+    private final int size;
+
+    private GeoGridIndex(Map<Long, int[]> cells, int size) {
+        this.cells = cells;
+        this.size = size;
+    }
+
+    static GeoGridIndex build(Event[] events) {
+        Map<Long, List<Integer>> lists = new HashMap<>();
+        int size = 0;
+        for (int i = 0; i < events.length; i++) {
+            Event event = events[i];
+            if (event.getLatitude() == null || event.getLongitude() == null) {
+                continue;
+            }
+            lists.computeIfAbsent(key(cell(event.getLatitude()), cell(event.getLongitude())),
+                k -> new ArrayList<>()).add(i);
+            size++;
+        }
+        Map<Long, int[]> cells = new HashMap<>(lists.size() * 2);
+        for (Map.Entry<Long, List<Integer>> entry : lists.entrySet()) {
+            cells.put(entry.getKey(), entry.getValue().stream().mapToInt(Integer::intValue).toArray());
+        }
+        return new GeoGridIndex(Collections.unmodifiableMap(cells), size);
+    }
+
+    /**
+     * Visit the positions of every event in the cells overlapping the box.
+     * Cells are coarser than the box, so callers still check the exact coordinates.
+     */
+    void forEachCandidate(double minLat, double maxLat, double minLng, double maxLng, IntConsumer consumer) {
+        int fromLat = cell(minLat);
+        int toLat = cell(maxLat);
+        int fromLng = cell(minLng);
+        int toLng = cell(maxLng);
+        // a huge box touches more cells than there are occupied ones, walk the occupied cells instead
+        if ((long) (toLat - fromLat + 1) * (toLng - fromLng + 1) > cells.size()) {
+            for (Map.Entry<Long, int[]> entry : cells.entrySet()) {
+                int latCell = (int) (entry.getKey() >> 32);
+                int lngCell = (int) (long) entry.getKey();
+                if (latCell >= fromLat && latCell <= toLat && lngCell >= fromLng && lngCell <= toLng) {
+                    visit(entry.getValue(), consumer);
+                }
+            }
+            return;
+        }
+        for (int latCell = fromLat; latCell <= toLat; latCell++) {
+            for (int lngCell = fromLng; lngCell <= toLng; lngCell++) {
+                int[] positions = cells.get(key(latCell, lngCell));
+                if (positions != null) {
+                    visit(positions, consumer);
+                }
+            }
+        }
+    }
+
+    /**
+     * Number of events with coordinates.
+     */
+    int size() {
+        return size;
+    }
+
+    private static void visit(int[] positions, IntConsumer consumer) {
+        for (int position : positions) {
+            consumer.accept(position);
+        }
+    }
+
+    private static int cell(double degrees) {
+        return (int) Math.floor(degrees / GRID_CELL_DEGREES);
+    }
+
+    private static long key(int latCell, int lngCell) {
+        return ((long) latCell << 32) | (lngCell & 0xffffffffL);
+    }
+}
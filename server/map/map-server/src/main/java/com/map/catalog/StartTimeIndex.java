@@ -0,0 +1,126 @@
+package com.map.catalog;
+
+import com.map.entity.Event;
+import java.util.Arrays;
+
+/**
+ * Start-time index over an event array: epoch seconds sorted ascending, paired with each event's position.
+ * Built with primitive sorts of packed longs, and any time window is answered with two binary searches over a
+ * primitive long[]; no boxing, no comparator calls.
+ */
+public final class StartTimeIndex {
+    // events without a start time sort after every real one
+    private static final long MISSING = Long.MAX_VALUE;
+
+    private final long[] epochSeconds;
+    private final int[] positions;
+
+    private StartTimeIndex(long[] epochSeconds, int[] positions) {
+        this.epochSeconds = epochSeconds;
+        this.positions = positions;
+    }
+
+    /**
+     * Index the given events; events without a start time sort last and never fall inside a bounded window.
+     * @param events events addressed by position
+     * @return the index
+     */
+    public static StartTimeIndex build(Event[] events) {
+        long[] keys = new long[events.length];
+        for (int i = 0; i < events.length; i++) {
+            keys[i] = events[i].getStartTime() == null ? MISSING : TimeWindow.toEpochSecond(events[i].getStartTime());
+        }
+        // order by event id: (id, position) packed into a long, so a primitive sort ranks the ids
+        long[] byId = new long[events.length];
+        for (int i = 0; i < events.length; i++) {
+            byId[i] = (long) events[i].getEventId() << 32 | i;
+        }
+        Arrays.sort(byId);
+        int[] idRank = new int[events.length];
+        int[] positionOfIdRank = new int[events.length];
+        for (int r = 0; r < byId.length; r++) {
+            int position = (int) byId[r];
+            idRank[position] = r;
+            positionOfIdRank[r] = position;
+        }
+
+        // then by start time, ties by event id: (start time rank, id rank) packed the same way
+        long[] distinctKeys = keys.clone();
+        Arrays.sort(distinctKeys);
+        long[] byStart = new long[events.length];
+        for (int i = 0; i < events.length; i++) {
+            long keyRank = Arrays.binarySearch(distinctKeys, keys[i]);
+            byStart[i] = keyRank << 32 | idRank[i];
+        }
+        Arrays.sort(byStart);
+        int[] order = new int[events.length];
+        for (int slot = 0; slot < byStart.length; slot++) {
+            order[slot] = positionOfIdRank[(int) byStart[slot]];
+        }
+
+        long[] sorted = new long[order.length];
+        for (int i = 0; i < order.length; i++) {
+            sorted[i] = keys[order[i]];
+        }
+        return new StartTimeIndex(sorted, order);
+    }
+
+    /**
+     * First slot whose start time is at or after the window start.
+     * @param window inclusive window, null for unbounded
+     * @return slot index in [0, size]
+     */
+    public int lowerBound(TimeWindow window) {
+        if (window == null || window.getFrom() == null) {
+            return 0;
+        }
+        long bound = window.fromEpochSecond();
+        int lo = 0;
+        int hi = epochSeconds.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (epochSeconds[mid] < bound) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * First slot whose start time is after the window end.
+     * @param window inclusive window, null for unbounded
+     * @return slot index in [0, size]
+     */
+    public int upperBound(TimeWindow window) {
+        if (window == null || window.getTo() == null) {
+            return epochSeconds.length;
+        }
+        long bound = window.toEpochSecond();
+        int lo = 0;
+        int hi = epochSeconds.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (epochSeconds[mid] <= bound) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Position (into the indexed event array) of the event in the given slot.
+     * @param slot slot in start-time order
+     * @return event position
+     */
+    public int positionAt(int slot) {
+        return positions[slot];
+    }
+
+    public int size() {
+        return positions.length;
+    }
+}
@@ -0,0 +1,98 @@
+package com.map.catalog;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Objects;
+
+/**
+ * Inclusive start-time range used by the time filters. A null bound means the range is open on that side.
+ */
+public final class TimeWindow {
+    private final LocalDateTime from;
+    private final LocalDateTime to;
+
+    public TimeWindow(LocalDateTime from, LocalDateTime to) {
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * Narrow this window by another one.
+     * @param other window to intersect with, may be null
+     * @return the overlap; empty (from after to) if the windows are disjoint
+     */
+    public TimeWindow intersect(TimeWindow other) {
+        if (other == null) {
+            return this;
+        }
+        LocalDateTime lower = from == null ? other.from
+            : other.from == null || from.isAfter(other.from) ? from : other.from;
+        LocalDateTime upper = to == null ? other.to
+            : other.to == null || to.isBefore(other.to) ? to : other.to;
+        return new TimeWindow(lower, upper);
+    }
+
+    /**
+     * Whether a start time falls inside this window.
+     * @param time may be null, which never matches
+     * @return true if within both bounds
+     */
+    public boolean contains(LocalDateTime time) {
+        return time != null
+            && (from == null || !time.isBefore(from))
+            && (to == null || !time.isAfter(to));
+    }
+
+    public LocalDateTime getFrom() {
+        return from;
+    }
+
+    public LocalDateTime getTo() {
+        return to;
+    }
+
+    /**
+     * Lower bound in the epoch-second encoding of {@link StartTimeIndex}.
+     * @return epoch seconds, Long.MIN_VALUE when open
+     */
+    public long fromEpochSecond() {
+        return from == null ? Long.MIN_VALUE : toEpochSecond(from);
+    }
+
+    /**
+     * Upper bound in the epoch-second encoding of {@link StartTimeIndex}.
+     * @return epoch seconds, Long.MAX_VALUE when open
+     */
+    public long toEpochSecond() {
+        return to == null ? Long.MAX_VALUE : toEpochSecond(to);
+    }
+
+    /**
+     * Start times are wall-clock LocalDateTime values, encoded against UTC purely to get a sortable long.
+     */
+    static long toEpochSecond(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof TimeWindow)) {
+            return false;
+        }
+        TimeWindow that = (TimeWindow) o;
+        return Objects.equals(from, that.from) && Objects.equals(to, that.to);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(from, to);
+    }
+
+    @Override
+    public String toString() {
+        return "[" + from + ", " + to + "]";
+    }
+}
@@ -0,0 +1,104 @@
+package com.map.catalog;
+
+import com.map.dto.EventQueryDTO;
+import java.time.Clock;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import org.springframework.stereotype.Component;
+
+/**
+ * Resolves the named time filters (Today, Tomorrow, This Week, This Weekend, Next Week) and explicit
+ * from/to ranges into a {@link TimeWindow}. Named windows are computed once per day and reused until the
+ * date rolls over, instead of redoing CURRENT_DATE arithmetic in SQL on every request.
+ */
+@Component
+public class TimeWindowResolver {
+
+    /**
+     * Time filter names accepted by the list endpoints.
+     */
+    public static final Set<String> NAMED_WINDOWS =
+        Set.of("Today", "Tomorrow", "This Week", "This Weekend", "Next Week");
+
+    private static final String ANY_TIME = "Any Time";
+
+    private final Clock clock;
+    private volatile DayWindows current;
+
+    public TimeWindowResolver() {
+        this(Clock.systemDefaultZone());
+    }
+
+    public TimeWindowResolver(Clock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Resolve the effective window of a query: the named window narrowed by any explicit from/to bounds.
+     * @param queryDTO
+     * @return inclusive window, or null if the query has no time restriction
+     * @throws IllegalArgumentException for an unknown window name
+     */
+    public TimeWindow resolve(EventQueryDTO queryDTO) {
+        TimeWindow window = null;
+        String time = queryDTO.getTime();
+        if (time != null && !time.isEmpty() && !ANY_TIME.equals(time)) {
+            window = resolve(time);
+        }
+        if (queryDTO.getFrom() != null || queryDTO.getTo() != null) {
+            TimeWindow range = new TimeWindow(queryDTO.getFrom(), queryDTO.getTo());
+            window = window == null ? range : window.intersect(range);
+        }
+        return window;
+    }
+
+    /**
+     * Resolve a named window for the current day.
+     * @param name one of {@link #NAMED_WINDOWS}
+     * @return inclusive window
+     * @throws IllegalArgumentException for an unknown window name
+     */
+    public TimeWindow resolve(String name) {
+        LocalDate today = LocalDate.now(clock);
+        DayWindows windows = current;
+        if (windows == null || !windows.day.equals(today)) {
+            windows = new DayWindows(today);
+            current = windows;
+        }
+        TimeWindow window = windows.byName.get(name);
+        if (window == null) {
+            throw new IllegalArgumentException("Invalid time filter: " + name);
+        }
+        return window;
+    }
+
+    /**
+     * All named windows for one day. Both bounds are inclusive, matching the BETWEEN the SQL used to do.
+     */
+    private static final class DayWindows {
+        private final LocalDate day;
+        private final Map<String, TimeWindow> byName;
+
+        private DayWindows(LocalDate today) {
+            this.day = today;
+            int isoDayOfWeek = today.getDayOfWeek().getValue();
+            Map<String, TimeWindow> windows = new LinkedHashMap<>();
+            windows.put("Today", days(today, 0, 1));
+            windows.put("Tomorrow", days(today, 1, 2));
+            windows.put("This Week", days(today, 0, 7));
+            windows.put("This Weekend", days(today,
+                DayOfWeek.SUNDAY.getValue() - isoDayOfWeek, DayOfWeek.SUNDAY.getValue() + 2 - isoDayOfWeek));
+            windows.put("Next Week", days(today, 7, 14));
+            this.byName = Collections.unmodifiableMap(windows);
+        }
+
+        private static TimeWindow days(LocalDate today, int fromOffset, int toOffset) {
+            return new TimeWindow(
+                today.plusDays(fromOffset).atStartOfDay(), today.plusDays(toOffset).atStartOfDay());
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.map.config;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ScoringConfig {
+
+    /**
+     * Pool that scores large recommendation candidate sets in parallel. Kept apart from the common pool so
+     * scoring neither competes with parallel streams elsewhere nor is starved by them.
+     * @param parallelism worker threads, 0 for one per available processor
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ForkJoinPool scoringPool(@Value("${app.recommendations.scoring-parallelism:0}") int parallelism) {
+        return new ForkJoinPool(
+            parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors(),
+            pool -> {
+                ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                thread.setName("scoring-" + thread.getPoolIndex());
+                return thread;
+            },
+            null,
+            false);
+    }
+
+    /**
+     * Threads that recompute stale cached recommendations in the background. Refreshes beyond the queue are
+     * rejected, which clears the entry's refresh flag, so it is served stale and the next read of it asks again.
+     * @param threads refresh threads
+     * @param queueSize refreshes that may wait for a thread
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService recommendationRefreshExecutor(
+        @Value("${app.recommendations.cache.refresh-threads:2}") int threads,
+        @Value("${app.recommendations.cache.refresh-queue-size:256}") int queueSize) {
+        AtomicInteger count = new AtomicInteger();
+        return new ThreadPoolExecutor(
+            threads, threads, 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(queueSize),
+            runnable -> {
+                Thread thread = new Thread(runnable, "recommendation-refresh-" + count.getAndIncrement());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+    }
+}
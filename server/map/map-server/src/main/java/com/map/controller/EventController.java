@@ -1,11 +1,24 @@
 package com.map.controller;
 
+import com.map.catalog.TimeWindowResolver;
 import com.map.dto.EventQueryDTO;
+import com.map.dto.EventSummaryDTO;
 import com.map.entity.Event;
+import com.map.enumeration.EventView;
 import com.map.service.EventService;
+import com.map.utils.CursorUtils;
+import com.map.vo.ClusterVO;
+import com.map.vo.EventDistanceVO;
+import com.map.vo.PageVO;
+import com.map.vo.SuggestionVO;
+import com.map.vo.ViewCounterMetricsVO;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.List;
-import java.util.Set;
+import javax.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PutMapping;
@@ -14,6 +27,10 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import com.map.result.Result;
 
+import static com.map.constant.GeoConstant.MAX_RADIUS_METERS;
+import static com.map.constant.PageConstant.MAX_PAGE_SIZE;
+import static com.map.constant.SearchConstant.SUGGEST_LIMIT;
+
 /**
  * Controller handling event logic.
  */
@@ -40,50 +57,278 @@ public class EventController {
     /**
      * Search for event(s) by roughly matching the value with the event name/event description.
      * @param query
+     * @param fuzzy match names and locations despite typos instead
+     * @param view full (default) for complete events, summary to leave out description and link
      * @return a list of roughly matching events.
      */
     @GetMapping
-    public Result<List<Event>> getEventByValue(@RequestParam String query){
-        return Result.success(eventService.getEventByMatching(query));
+    public Result<? extends List<?>> getEventByValue(
+        @RequestParam String query,
+        @RequestParam(defaultValue = "false") boolean fuzzy,
+        @RequestParam(defaultValue = "full") String view){
+        EventView eventView = EventView.fromParam(view);
+        if (eventView == null) {
+            return Result.error("Invalid view.");
+        }
+        List<Event> events = fuzzy
+            ? eventService.getEventByFuzzyMatching(query)
+            : eventService.getEventByMatching(query);
+        if (eventView == EventView.SUMMARY) {
+            return Result.success(events.stream().map(EventSummaryDTO::of).toList());
+        }
+        return Result.success(events);
+    }
+
+    /**
+     * Page through events roughly matching the value, in event id order.
+     * Selected instead of the plain search whenever a limit is given.
+     * @param query
+     * @param limit page size, 1 to MAX_PAGE_SIZE
+     * @param after nextCursor of the previous page, omitted for the first page
+     * @param view full (default) for complete events, summary to leave out description and link
+     * @return one page of roughly matching events.
+     */
+    @GetMapping(params = {"query", "limit"})
+    public Result<? extends PageVO<?>> getEventByValuePage(
+        @RequestParam String query,
+        @RequestParam Integer limit,
+        @RequestParam(required = false) String after,
+        @RequestParam(defaultValue = "full") String view) {
+
+        EventView eventView = EventView.fromParam(view);
+        if (eventView == null) {
+            return Result.error("Invalid view.");
+        }
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            return Result.error("Invalid page size.");
+        }
+        Integer afterId = null;
+        if (after != null) {
+            try {
+                afterId = CursorUtils.decode(after).getEventId();
+            } catch (IllegalArgumentException e) {
+                return Result.error("Invalid cursor.");
+            }
+        }
+
+        List<Event> rows = eventService.getEventByMatching(query, afterId, limit + 1);
+        if (eventView == EventView.SUMMARY) {
+            return Result.success(CursorUtils.page(rows.stream().map(EventSummaryDTO::of).toList(), limit,
+                e -> String.valueOf(e.getEventId()), EventSummaryDTO::getEventId));
+        }
+        return Result.success(CursorUtils.page(rows, limit, e -> String.valueOf(e.getEventId()), Event::getEventId));
+    }
+
+    /**
+     * Typeahead: complete a prefix to event names, locations and categories.
+     * @param prefix
+     * @param limit number of completions, at most SUGGEST_LIMIT
+     * @return completions ranked by trending score.
+     */
+    @GetMapping("/suggest")
+    public Result<List<SuggestionVO>> suggest(
+        @RequestParam String prefix,
+        @RequestParam(defaultValue = "" + SUGGEST_LIMIT) Integer limit) {
+        if (limit < 1) {
+            return Result.error("Invalid limit.");
+        }
+        return Result.success(eventService.suggest(prefix, limit));
     }
 
     /**
      * Fetch events by specifications.
      * @param category
-     * @param time
+     * @param time one of the named windows, e.g. Today or This Weekend
      * @param near
+     * @param from optional inclusive lower bound on start time (ISO date-time)
+     * @param to optional inclusive upper bound on start time (ISO date-time)
+     * @param view full (default) for complete events, summary to leave out description and link
      * @return a list of events matching the specifications.
      */
     @GetMapping("/filter")
-    public Result<List<Event>> fetchEvents(
+    public Result<? extends List<?>> fetchEvents(
         @RequestParam(required = false) String category,
         @RequestParam(required = false) String time,
-        @RequestParam(required = false) String near) {
+        @RequestParam(required = false) String near,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+        @RequestParam(defaultValue = "full") String view) {
 
-        Set<String> allowedNames = Set.of("Today", "Tomorrow", "This Week", "This Weekend", "Next Week");
         System.out.println("here's the time" + time);
-        if (time != null && !allowedNames.contains(time)) {
+        EventView eventView = EventView.fromParam(view);
+        if (eventView == null) {
+            return Result.error("Invalid view.");
+        }
+        if (time != null && !TimeWindowResolver.NAMED_WINDOWS.contains(time)) {
             return Result.error("Invalid time filter.");
         }
+        if (from != null && to != null && from.isAfter(to)) {
+            return Result.error("Invalid time range.");
+        }
 
         EventQueryDTO queryDTO = EventQueryDTO.builder()
             .category(category)
             .time(time)
             .near(near)
+            .from(from)
+            .to(to)
             .build();
 
+        if (eventView == EventView.SUMMARY) {
+            return Result.success(eventService.fetchEventSummaries(queryDTO));
+        }
         return Result.success(eventService.fetchEvents(queryDTO));
     }
 
     /**
-     * Update the view count for the selected event by eventId.
+     * Fetch one page of events by specifications, ordered by start time then event id.
+     * Selected instead of the plain filter whenever a limit is given.
+     * @param category
+     * @param time one of the named windows, e.g. Today or This Weekend
+     * @param near
+     * @param from optional inclusive lower bound on start time (ISO date-time)
+     * @param to optional inclusive upper bound on start time (ISO date-time)
+     * @param limit page size, 1 to MAX_PAGE_SIZE
+     * @param after nextCursor of the previous page, omitted for the first page
+     * @param view full (default) for complete events, summary to leave out description and link
+     * @return one page of events matching the specifications.
+     */
+    @GetMapping(value = "/filter", params = "limit")
+    public Result<? extends PageVO<?>> fetchEventsPage(
+        @RequestParam(required = false) String category,
+        @RequestParam(required = false) String time,
+        @RequestParam(required = false) String near,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+        @RequestParam Integer limit,
+        @RequestParam(required = false) String after,
+        @RequestParam(defaultValue = "full") String view) {
+
+        EventView eventView = EventView.fromParam(view);
+        if (eventView == null) {
+            return Result.error("Invalid view.");
+        }
+        if (time != null && !TimeWindowResolver.NAMED_WINDOWS.contains(time)) {
+            return Result.error("Invalid time filter.");
+        }
+        if (from != null && to != null && from.isAfter(to)) {
+            return Result.error("Invalid time range.");
+        }
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            return Result.error("Invalid page size.");
+        }
+
+        EventQueryDTO.EventQueryDTOBuilder builder = EventQueryDTO.builder()
+            .category(category)
+            .time(time)
+            .near(near)
+            .from(from)
+            .to(to)
+            .limit(limit + 1);
+        if (after != null) {
+            try {
+                CursorUtils.Cursor cursor = CursorUtils.decode(after);
+                builder.afterStartTime(LocalDateTime.parse(cursor.getSortKey())).afterId(cursor.getEventId());
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                return Result.error("Invalid cursor.");
+            }
+        }
+
+        if (eventView == EventView.SUMMARY) {
+            List<EventSummaryDTO> rows = eventService.fetchEventSummaries(builder.build());
+            return Result.success(
+                CursorUtils.page(rows, limit, e -> e.getStartTime().toString(), EventSummaryDTO::getEventId));
+        }
+        List<Event> rows = eventService.fetchEvents(builder.build());
+        return Result.success(CursorUtils.page(rows, limit, e -> e.getStartTime().toString(), Event::getEventId));
+    }
+
+    /**
+     * Fetch events within a radius of a point, nearest first, optionally filtered like /filter.
+     * Example: GET /events/nearby?lat=41.8268&lng=-71.4025&radiusMeters=500&category=Music
+     * @param lat latitude of the center
+     * @param lng longitude of the center
+     * @param radiusMeters search radius, up to MAX_RADIUS_METERS
+     * @param limit optional maximum number of events
+     * @return events with their distance in meters.
+     */
+    @GetMapping("/nearby")
+    public Result<List<EventDistanceVO>> fetchNearbyEvents(
+        @RequestParam Double lat,
+        @RequestParam Double lng,
+        @RequestParam Double radiusMeters,
+        @RequestParam(required = false) String category,
+        @RequestParam(required = false) String time,
+        @RequestParam(required = false) String near,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+        @RequestParam(required = false) Integer limit) {
+
+        if (lat < -90 || lat > 90 || lng < -180 || lng > 180) {
+            return Result.error("Invalid coordinates.");
+        }
+        if (radiusMeters <= 0 || radiusMeters > MAX_RADIUS_METERS) {
+            return Result.error("Invalid radius.");
+        }
+        if (time != null && !TimeWindowResolver.NAMED_WINDOWS.contains(time)) {
+            return Result.error("Invalid time filter.");
+        }
+        if (from != null && to != null && from.isAfter(to)) {
+            return Result.error("Invalid time range.");
+        }
+        if (limit != null && (limit < 1 || limit > MAX_PAGE_SIZE)) {
+            return Result.error("Invalid page size.");
+        }
+
+        EventQueryDTO queryDTO = EventQueryDTO.builder()
+            .category(category)
+            .time(time)
+            .near(near)
+            .from(from)
+            .to(to)
+            .limit(limit)
+            .build();
+        return Result.success(eventService.fetchNearbyEvents(queryDTO, lat, lng, radiusMeters));
+    }
+
+    /**
+     * Fetch marker clusters for a map viewport at a zoom level.
+     * Example: GET /events/viewport?minLat=41.82&maxLat=41.83&minLng=-71.41&maxLng=-71.39&zoom=16
+     * @param minLat southern edge
+     * @param maxLat northern edge
+     * @param minLng western edge
+     * @param maxLng eastern edge
+     * @param zoom map zoom level
+     * @return clusters with centroid, event count and top trending event.
+     */
+    @GetMapping("/viewport")
+    public Result<List<ClusterVO>> fetchViewportClusters(
+        @RequestParam Double minLat,
+        @RequestParam Double maxLat,
+        @RequestParam Double minLng,
+        @RequestParam Double maxLng,
+        @RequestParam Integer zoom) {
+
+        if (minLat < -90 || maxLat > 90 || minLng < -180 || maxLng > 180 || minLat > maxLat || minLng > maxLng) {
+            return Result.error("Invalid viewport.");
+        }
+        return Result.success(eventService.fetchViewportClusters(minLat, maxLat, minLng, maxLng, zoom));
+    }
+
+    /**
+     * Update the view count for the selected event by eventId; repeated views by the same viewer count once.
+     * Example: PUT /events/views/12?viewerId=abc
      * @param eventId
+     * @param viewerId id of the signed-in user; anonymous viewers are told apart by their address
      * @return success message if successful, else error message.
      */
     @PutMapping("/views/{eventId}")
-    public Result updateViewCount(@PathVariable Integer eventId){
+    public Result updateViewCount(@PathVariable Integer eventId,
+        @RequestParam(required = false) String viewerId,
+        HttpServletRequest request){
         try{
-            eventService.updateViewCount(eventId);
+            String viewer = StringUtils.hasText(viewerId) ? viewerId : "addr:" + request.getRemoteAddr();
+            eventService.updateViewCount(eventId, viewer);
             return Result.success();
         } catch (Exception e) {
             return Result.error("Failed to update view count for event: " + eventId);
@@ -91,6 +336,27 @@ public class EventController {
 
     }
 
+    /**
+     * Metrics of the buffered view counter.
+     * Example: GET /events/views/metrics
+     * @return pending views, flush lag, batch sizes and dropped views.
+     */
+    @GetMapping("/views/metrics")
+    public Result<ViewCounterMetricsVO> getViewCounterMetrics(){
+        return Result.success(eventService.getViewCounterMetrics());
+    }
+
+    /**
+     * Estimated distinct viewers of the selected event over all server nodes, within about 2%.
+     * Example: GET /events/views/12/unique
+     * @param eventId
+     * @return estimated unique viewers.
+     */
+    @GetMapping("/views/{eventId}/unique")
+    public Result<Long> getUniqueViewers(@PathVariable Integer eventId){
+        return Result.success(eventService.getUniqueViewers(eventId));
+    }
+
     /**
      * Fetch all event locations.
      * @return a list of all event locations.
@@ -1,13 +1,21 @@
 package com.map.controller;
 
+import com.map.dto.EventSummaryDTO;
 import com.map.entity.Event;
+import com.map.enumeration.EventView;
 import com.map.result.Result;
 import com.map.service.RecommendationService;
+import com.map.utils.CursorUtils;
+import com.map.vo.PageVO;
+import java.time.LocalDateTime;
 import java.util.List;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
 import com.map.dto.EventQueryDTO;
 
+import static com.map.constant.PageConstant.MAX_PAGE_SIZE;
+
 // TODO: handle exceptions!!!!!
 /** Controller responsible for handling recommendation logic :) */
 @RestController
@@ -28,21 +36,93 @@ public class RecommendationController {
      * @param category
      * @param time
      * @param near
+     * @param view full (default) for complete events, summary to leave out description and link
      * @return
      */
     @GetMapping("/{userId}")
-    public Result<List<Event>> fetchRecommendations(
+    public Result<? extends List<?>> fetchRecommendations(
         @PathVariable String userId,
         @RequestParam(required = false) String category,
         @RequestParam(required = false) String time,
-        @RequestParam(required = false) String near
+        @RequestParam(required = false) String near,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+        @RequestParam(defaultValue = "full") String view
     ) throws Exception {
+        EventView eventView = EventView.fromParam(view);
+        if (eventView == null) {
+            return Result.error("Invalid view.");
+        }
         EventQueryDTO queryDTO = EventQueryDTO.builder()
             .category(category)
             .time(time)
             .near(near)
+            .from(from)
+            .to(to)
             .build();
     
-        return Result.success(recommendationService.fetchRecommendations(userId, queryDTO));
+        List<Event> events = recommendationService.fetchRecommendations(userId, queryDTO);
+        if (eventView == EventView.SUMMARY) {
+            return Result.success(events.stream().map(EventSummaryDTO::of).toList());
+        }
+        return Result.success(events);
+    }
+
+    /**
+     * Fetch one page of personalized recommendations, paging past the fixed recommendation limit.
+     * Selected instead of the plain list whenever a limit is given.
+     * @param userId
+     * @param limit page size, 1 to MAX_PAGE_SIZE
+     * @param after nextCursor of the previous page, omitted for the first page
+     * @param view full (default) for complete events, summary to leave out description and link
+     * @return
+     */
+    @GetMapping(value = "/{userId}", params = "limit")
+    public Result<? extends PageVO<?>> fetchRecommendationPage(
+        @PathVariable String userId,
+        @RequestParam(required = false) String category,
+        @RequestParam(required = false) String time,
+        @RequestParam(required = false) String near,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+        @RequestParam Integer limit,
+        @RequestParam(required = false) String after,
+        @RequestParam(defaultValue = "full") String view
+    ) throws Exception {
+        EventView eventView = EventView.fromParam(view);
+        if (eventView == null) {
+            return Result.error("Invalid view.");
+        }
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            return Result.error("Invalid page size.");
+        }
+        Integer afterRank = null;
+        Integer afterId = null;
+        if (after != null) {
+            try {
+                CursorUtils.Cursor cursor = CursorUtils.decode(after);
+                afterRank = Integer.parseInt(cursor.getSortKey());
+                afterId = cursor.getEventId();
+                if (afterRank < 0) {
+                    return Result.error("Invalid cursor.");
+                }
+            } catch (IllegalArgumentException e) {
+                return Result.error("Invalid cursor.");
+            }
+        }
+        EventQueryDTO queryDTO = EventQueryDTO.builder()
+            .category(category)
+            .time(time)
+            .near(near)
+            .from(from)
+            .to(to)
+            .build();
+
+        PageVO<Event> page = recommendationService.fetchRecommendationPage(userId, queryDTO, afterRank, afterId, limit);
+        if (eventView == EventView.SUMMARY) {
+            return Result.success(new PageVO<>(
+                page.getItems().stream().map(EventSummaryDTO::of).toList(), page.getNextCursor()));
+        }
+        return Result.success(page);
     }
 }
@@ -1,13 +1,26 @@
 package com.map.controller;
 
+import com.map.dto.EventSummaryDTO;
 import com.map.entity.Event;
+import com.map.enumeration.EventView;
+import com.map.enumeration.HotWindow;
 import com.map.result.Result;
+import com.map.utils.CursorUtils;
+import com.map.vo.HotEventsVO;
+import com.map.vo.PageVO;
+import com.map.vo.TrendingRecalculationVO;
+import java.time.LocalDateTime;
 import java.util.List;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
 import com.map.service.TrendingService;
 import com.map.dto.EventQueryDTO;
 
+import static com.map.constant.PageConstant.MAX_PAGE_SIZE;
+import static com.map.constant.TrendingConstant.HOT_LIMIT;
+import static com.map.constant.TrendingConstant.MAX_HOT_LIMIT;
+
 /** Controller responsible for handling trending event logic */
 @RestController
 @RequestMapping("/trending")
@@ -20,34 +33,119 @@ public class TrendingController {
     /**
      * Fetch a list of trending events, ranked by current trending scores
     *
+    * @param view full (default) for complete events, summary to leave out description and link
     * @return list of trending events
     */
     @GetMapping
-    public Result<List<Event>> fetchTrendingEvents(
+    public Result<? extends List<?>> fetchTrendingEvents(
         @RequestParam(required = false) String category,
         @RequestParam(required = false) String time,
-        @RequestParam(required = false) String near
+        @RequestParam(required = false) String near,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+        @RequestParam(defaultValue = "full") String view
     ) {
+        EventView eventView = EventView.fromParam(view);
+        if (eventView == null) {
+            return Result.error("Invalid view.");
+        }
         EventQueryDTO queryDTO = EventQueryDTO.builder()
             .category(category)
             .time(time)
             .near(near)
+            .from(from)
+            .to(to)
             .build();
+        if (eventView == EventView.SUMMARY) {
+            return Result.success(trendingService.fetchTrendingEventSummaries(queryDTO));
+        }
         return Result.success(trendingService.fetchTrendingEvents(queryDTO));
     }
 
+    /**
+     * Fetch one page of trending events; selected instead of the top list whenever a limit is given.
+    *
+    * @param limit page size, 1 to MAX_PAGE_SIZE
+    * @param after nextCursor of the previous page, omitted for the first page
+    * @param view full (default) for complete events, summary to leave out description and link
+    * @return one page of trending events
+    */
+    @GetMapping(params = "limit")
+    public Result<? extends PageVO<?>> fetchTrendingEventsPage(
+        @RequestParam(required = false) String category,
+        @RequestParam(required = false) String time,
+        @RequestParam(required = false) String near,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+        @RequestParam Integer limit,
+        @RequestParam(required = false) String after,
+        @RequestParam(defaultValue = "full") String view
+    ) {
+        EventView eventView = EventView.fromParam(view);
+        if (eventView == null) {
+            return Result.error("Invalid view.");
+        }
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            return Result.error("Invalid page size.");
+        }
+        EventQueryDTO.EventQueryDTOBuilder builder = EventQueryDTO.builder()
+            .category(category)
+            .time(time)
+            .near(near)
+            .from(from)
+            .to(to)
+            .limit(limit + 1);
+        if (after != null) {
+            try {
+                CursorUtils.Cursor cursor = CursorUtils.decode(after);
+                builder.afterScore(Double.parseDouble(cursor.getSortKey())).afterId(cursor.getEventId());
+            } catch (IllegalArgumentException e) {
+                return Result.error("Invalid cursor.");
+            }
+        }
+        if (eventView == EventView.SUMMARY) {
+            List<EventSummaryDTO> rows = trendingService.fetchTrendingEventSummaries(builder.build());
+            return Result.success(CursorUtils.page(rows, limit,
+                e -> String.valueOf(e.getTrendingScore() == null ? 0.0 : e.getTrendingScore()),
+                EventSummaryDTO::getEventId));
+        }
+        List<Event> rows = trendingService.fetchTrendingEvents(builder.build());
+        return Result.success(CursorUtils.page(rows, limit,
+            e -> String.valueOf(e.getTrendingScore() == null ? 0.0 : e.getTrendingScore()), Event::getEventId));
+    }
+
+    /**
+     * Fetch the events getting the most views and likes right now, with the error bounds of the estimates.
+    *
+    * @param window look-back window: 1m, 5m (default), 15m or 1h
+    * @param limit number of events, 1 to MAX_HOT_LIMIT
+    * @return hot events with estimated counts
+    */
+    @GetMapping("/hot")
+    public Result<HotEventsVO> fetchHotEvents(
+        @RequestParam(defaultValue = "5m") String window,
+        @RequestParam(defaultValue = "" + HOT_LIMIT) Integer limit
+    ) {
+        HotWindow hotWindow = HotWindow.fromParam(window);
+        if (hotWindow == null) {
+            return Result.error("Invalid window.");
+        }
+        if (limit < 1 || limit > MAX_HOT_LIMIT) {
+            return Result.error("Invalid limit.");
+        }
+        return Result.success(trendingService.fetchHotEvents(hotWindow, limit));
+    }
+
     /**
      * POST /api/trending/recalculate
     * Recalculate trending scores for all events triggered by a cron job or internal call
     *
     * curl -X POST http://localhost:8080/trending/recalculate
     *
-    * @return success message after recalculation
+    * @return events scanned and updated, statements sent and duration of the recalculation
     */
     @PostMapping("/recalculate")
-    public Result<String> recalculateTrendingScores() {
-        // TODO
-        trendingService.recalculateTrendingScores();
-        return Result.success("Trending scores recalculated successfully.");
+    public Result<TrendingRecalculationVO> recalculateTrendingScores() {
+        return Result.success(trendingService.recalculateTrendingScores());
     }
 }
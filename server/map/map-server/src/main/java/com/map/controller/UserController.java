@@ -1,8 +1,12 @@
 package com.map.controller;
 
+import com.map.dto.InteractionDTO;
 import com.map.result.Result;
 import com.map.service.UserService;
+import com.map.vo.InteractionResultVO;
+import com.map.vo.LikeStateVO;
 import com.map.vo.UserProfileVO;
+import java.util.List;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -13,6 +17,8 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import static com.map.constant.InteractionConstant.MAX_BATCH_SIZE;
+
 /**
  * Controller handling user logic.
  */
@@ -23,9 +29,9 @@ public class UserController {
   private UserService userService;
 
   /**
-   * Fetch the user profile by id.
+   * Fetch the user profile by id; a user seen for the first time is created with an empty profile.
    * @param userId
-   * @return user profile if found, else error message.
+   * @return user profile, else error message.
    */
   @GetMapping("/{userId}/profile")
   public Result<UserProfileVO> getUserProfile(@PathVariable String userId){
@@ -40,12 +46,12 @@ public class UserController {
    * Like an event if it hasn't been liked; else do nothing.
    * @param userId
    * @param eventId
+   * @return the like state and the event's like count after the click.
    */
   @PostMapping("/{userId}/likes")
-  public Result likeEvent(@PathVariable String userId, @RequestBody Integer eventId){
+  public Result<LikeStateVO> likeEvent(@PathVariable String userId, @RequestBody Integer eventId){
     try{
-      userService.likeEvent(userId, eventId);
-      return Result.success();
+      return Result.success(userService.likeEvent(userId, eventId));
     } catch (Exception e) {
       return Result.error(e.getMessage());
     }
@@ -55,12 +61,33 @@ public class UserController {
    * Remove like for an event if it has been liked; else do nothing.
    * @param userId
    * @param eventId
+   * @return the like state and the event's like count after the click.
    */
   @DeleteMapping("/{userId}/likes")
-  public Result delikeEvent(@PathVariable String userId, @RequestBody Integer eventId){
+  public Result<LikeStateVO> delikeEvent(@PathVariable String userId, @RequestBody Integer eventId){
     try{
-      userService.delikeEvent(userId, eventId);
-      return Result.success();
+      return Result.success(userService.delikeEvent(userId, eventId));
+    } catch (Exception e) {
+      return Result.error(e.getMessage());
+    }
+  }
+
+  /**
+   * Apply an ordered batch of interactions, e.g. queued while offline, in one transaction.
+   * Example: POST /users/u1/interactions:batch
+   *   [{"type": "like", "eventId": 3}, {"type": "view", "eventId": 3}, {"type": "unbookmark", "eventId": 7}]
+   * @param userId
+   * @param interactions like, unlike, bookmark, unbookmark or view, each with an eventId
+   * @return per-interaction outcomes in request order, else error message.
+   */
+  @PostMapping("/{userId}/interactions:batch")
+  public Result<List<InteractionResultVO>> applyInteractions(
+      @PathVariable String userId, @RequestBody List<InteractionDTO> interactions){
+    if (interactions == null || interactions.isEmpty() || interactions.size() > MAX_BATCH_SIZE) {
+      return Result.error("Invalid batch size.");
+    }
+    try{
+      return Result.success(userService.applyInteractions(userId, interactions));
     } catch (Exception e) {
       return Result.error(e.getMessage());
     }
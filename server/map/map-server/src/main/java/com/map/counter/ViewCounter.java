@@ -0,0 +1,201 @@
+package com.map.counter;
+
+import com.map.catalog.EventCatalog;
+import com.map.dto.ViewDeltaDTO;
+import com.map.mapper.EventMapper;
+import com.map.vo.ViewCounterMetricsVO;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Write-behind view counter.
+ * Page views only bump a striped in-memory counter per event; a scheduled flush writes the accumulated deltas
+ * with one batched UPDATE, so a popular event costs one row update per interval instead of one per view.
+ * Pending views are flushed once more on shutdown. A failed flush keeps its deltas for the next attempt.
+ */
+@Component
+public class ViewCounter {
+    private static final Logger logger = LoggerFactory.getLogger(ViewCounter.class);
+
+    @Autowired
+    private EventMapper eventMapper;
+
+    @Autowired
+    private EventCatalog eventCatalog;
+
+    /**
+     * Distinct events that may hold unwritten views; views of further events are dropped until the next flush.
+     * Keeps arbitrary ids sent to the endpoint from growing the map without bound.
+     */
+    @Value("${app.views.max-pending-events:100000}")
+    private int maxPendingEvents = 100_000;
+
+    /**
+     * Rows per UPDATE statement, well below the bind parameter limit of the driver.
+     */
+    @Value("${app.views.flush-batch-size:1000}")
+    private int flushBatchSize = 1_000;
+
+    private final ConcurrentHashMap<Integer, LongAdder> pending = new ConcurrentHashMap<>();
+
+    // System.nanoTime() of the oldest view not yet written, 0 when nothing is pending
+    private final AtomicLong oldestPendingNanos = new AtomicLong();
+
+    private final AtomicLong flushes = new AtomicLong();
+    private final AtomicLong failedFlushes = new AtomicLong();
+    private final AtomicLong flushedViews = new AtomicLong();
+    private final AtomicLong droppedViews = new AtomicLong();
+    private final AtomicLong lastFlushLagNanos = new AtomicLong();
+    private final AtomicLong maxFlushLagNanos = new AtomicLong();
+    private final AtomicInteger lastBatchSize = new AtomicInteger();
+    private final AtomicInteger maxBatchSize = new AtomicInteger();
+
+    /**
+     * Count one view. Never touches the database.
+     * @param eventId
+     */
+    public void increment(Integer eventId) {
+        add(eventId, 1L);
+    }
+
+    /**
+     * Count several views at once. Never touches the database.
+     * @param eventId
+     * @param views
+     */
+    public void add(Integer eventId, long views) {
+        LongAdder counter = pending.get(eventId);
+        if (counter == null) {
+            if (pending.size() >= maxPendingEvents) {
+                droppedViews.addAndGet(views);
+                return;
+            }
+            counter = pending.computeIfAbsent(eventId, k -> new LongAdder());
+        }
+        counter.add(views);
+        if (oldestPendingNanos.get() == 0L) {
+            oldestPendingNanos.compareAndSet(0L, System.nanoTime());
+        }
+    }
+
+    /**
+     * Write all pending views on a short fixed delay.
+     */
+    @Scheduled(fixedDelayString = "${app.views.flush-interval-ms:2000}")
+    public void scheduledFlush() {
+        flush();
+    }
+
+    /**
+     * Last flush before the context closes; whatever still fails to be written is counted as dropped.
+     */
+    @PreDestroy
+    public void flushOnShutdown() {
+        if (!flush()) {
+            long lost = drain().stream().mapToLong(ViewDeltaDTO::getDelta).sum();
+            droppedViews.addAndGet(lost);
+            logger.warn("Dropped {} unwritten views at shutdown", lost);
+        }
+    }
+
+    /**
+     * Drain the pending deltas and write them in event id order.
+     * @return false if the write failed; the deltas are then put back
+     */
+    public synchronized boolean flush() {
+        long since = oldestPendingNanos.getAndSet(0L);
+        List<ViewDeltaDTO> deltas = drain();
+        if (deltas.isEmpty()) {
+            return true;
+        }
+        deltas.sort((a, b) -> Integer.compare(a.getEventId(), b.getEventId()));
+
+        int written = 0;
+        try {
+            while (written < deltas.size()) {
+                int end = Math.min(deltas.size(), written + flushBatchSize);
+                eventMapper.incrementViewCounts(deltas.subList(written, end));
+                written = end;
+            }
+        } catch (Exception e) {
+            // chunks run as separate statements, only put back the ones that were not written
+            for (ViewDeltaDTO delta : deltas.subList(written, deltas.size())) {
+                pending.computeIfAbsent(delta.getEventId(), k -> new LongAdder()).add(delta.getDelta());
+            }
+            if (written > 0) {
+                eventCatalog.markDirty();
+            }
+            oldestPendingNanos.compareAndSet(0L, since);
+            failedFlushes.incrementAndGet();
+            logger.warn("View count flush of {} events failed, retrying next interval: {}",
+                deltas.size(), e.getMessage());
+            return false;
+        }
+
+        long lag = since == 0L ? 0L : System.nanoTime() - since;
+        lastFlushLagNanos.set(lag);
+        maxFlushLagNanos.accumulateAndGet(lag, Math::max);
+        lastBatchSize.set(deltas.size());
+        maxBatchSize.accumulateAndGet(deltas.size(), Math::max);
+        flushes.incrementAndGet();
+        flushedViews.addAndGet(deltas.stream().mapToLong(ViewDeltaDTO::getDelta).sum());
+        eventCatalog.markDirty();
+        return true;
+    }
+
+    /**
+     * Take the current deltas. Counters that saw no view since the previous drain are removed, so the map only
+     * holds recently viewed events. A view whose thread fetched such a counter just before the removal and
+     * increments it only after the second read below is lost; that is accepted for a view counter.
+     */
+    private List<ViewDeltaDTO> drain() {
+        List<ViewDeltaDTO> deltas = new ArrayList<>();
+        for (Map.Entry<Integer, LongAdder> entry : pending.entrySet()) {
+            long delta = entry.getValue().sumThenReset();
+            if (delta > 0) {
+                deltas.add(new ViewDeltaDTO(entry.getKey(), delta));
+            } else {
+                pending.remove(entry.getKey(), entry.getValue());
+                // pick up a view that slipped in between the reset and the removal
+                long late = entry.getValue().sumThenReset();
+                if (late > 0) {
+                    deltas.add(new ViewDeltaDTO(entry.getKey(), late));
+                }
+            }
+        }
+        return deltas;
+    }
+
+    /**
+     * Current counters for the metrics endpoint.
+     * @return
+     */
+    public ViewCounterMetricsVO metrics() {
+        long since = oldestPendingNanos.get();
+        return ViewCounterMetricsVO.builder()
+            .pendingEvents(pending.size())
+            .pendingViews(pending.values().stream().mapToLong(LongAdder::sum).sum())
+            .pendingAgeMs(since == 0L ? 0L : (System.nanoTime() - since) / 1_000_000)
+            .lastFlushLagMs(lastFlushLagNanos.get() / 1_000_000)
+            .maxFlushLagMs(maxFlushLagNanos.get() / 1_000_000)
+            .lastBatchSize(lastBatchSize.get())
+            .maxBatchSize(maxBatchSize.get())
+            .flushes(flushes.get())
+            .failedFlushes(failedFlushes.get())
+            .flushedViews(flushedViews.get())
+            .droppedViews(droppedViews.get())
+            .build();
+    }
+}
@@ -0,0 +1,41 @@
+package com.map.geo;
+
+import com.map.catalog.EventCatalogListener;
+import com.map.catalog.EventCatalogSnapshot;
+import com.map.vo.ClusterVO;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Holds the {@link ClusterPyramid} of the current catalog snapshot.
+ * The pyramid is rebuilt after every catalog refresh, since top events follow trending scores, and published
+ * with a single volatile write.
+ */
+@Component
+public class ClusterIndex implements EventCatalogListener {
+    private static final Logger logger = LoggerFactory.getLogger(ClusterIndex.class);
+
+    private volatile ClusterPyramid pyramid = ClusterPyramid.empty();
+
+    @Override
+    public void onRefresh(EventCatalogSnapshot previous, EventCatalogSnapshot current) {
+        long start = System.nanoTime();
+        pyramid = ClusterPyramid.build(current.events());
+        logger.info("Cluster pyramid v{} built in {} ms", current.getVersion(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Clusters covering a map viewport.
+     * @param minLat
+     * @param maxLat
+     * @param minLng
+     * @param maxLng
+     * @param zoom
+     * @return clusters, largest first; empty until the first catalog load
+     */
+    public List<ClusterVO> viewport(double minLat, double maxLat, double minLng, double maxLng, int zoom) {
+        return pyramid.query(minLat, maxLat, minLng, maxLng, zoom);
+    }
+}
@@ -0,0 +1,178 @@
+package com.map.geo;
+
+import com.map.entity.Event;
+import com.map.utils.GeoUtils;
+import com.map.vo.ClusterVO;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.map.constant.GeoConstant.CLUSTER_CELL_PIXELS;
+import static com.map.constant.GeoConstant.MAX_CLUSTER_ZOOM;
+import static com.map.constant.GeoConstant.MIN_CLUSTER_ZOOM;
+
+/**
+ * Marker clusters for every zoom level, computed once per catalog snapshot.
+ * Events are bucketed into square Web Mercator pixel cells at the deepest zoom; each shallower level merges
+ * 2x2 cells of the one below, so the whole pyramid costs one pass over the events plus one pass per level over
+ * the clusters. A viewport request then only reads the cells it covers. Returned clusters are shared and must
+ * be treated as read-only.
+ */
+public final class ClusterPyramid {
+
+    private static final Comparator<Event> TOP_EVENT = Comparator
+        .comparingDouble((Event e) -> e.getTrendingScore() == null ? 0.0 : e.getTrendingScore()).reversed()
+        .thenComparing(Event::getEventId);
+
+    private static final Comparator<ClusterVO> LARGEST_FIRST = Comparator
+        .comparingInt(ClusterVO::getCount).reversed()
+        .thenComparing(c -> c.getTopEvent().getEventId());
+
+    private static final ClusterPyramid EMPTY = build(List.of());
+
+    // cell key -> cluster, one map per zoom level starting at MIN_CLUSTER_ZOOM
+    private final List<Map<Long, ClusterVO>> levels;
+
+    private ClusterPyramid(List<Map<Long, ClusterVO>> levels) {
+        this.levels = levels;
+    }
+
+    /**
+     * Pyramid used before the first build.
+     * @return a pyramid without clusters
+     */
+    public static ClusterPyramid empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Cluster the events that have coordinates.
+     * @param events
+     * @return the pyramid
+     */
+    public static ClusterPyramid build(Collection<Event> events) {
+        Map<Long, Accumulator> cells = new HashMap<>();
+        for (Event event : events) {
+            if (event.getLatitude() == null || event.getLongitude() == null) {
+                continue;
+            }
+            long key = key(
+                cell(GeoUtils.mercatorX(event.getLongitude(), MAX_CLUSTER_ZOOM)),
+                cell(GeoUtils.mercatorY(event.getLatitude(), MAX_CLUSTER_ZOOM)));
+            cells.computeIfAbsent(key, k -> new Accumulator()).add(event);
+        }
+
+        List<Map<Long, ClusterVO>> levels =
+            new ArrayList<>(Collections.nCopies(MAX_CLUSTER_ZOOM - MIN_CLUSTER_ZOOM + 1, null));
+        for (int zoom = MAX_CLUSTER_ZOOM; ; zoom--) {
+            levels.set(zoom - MIN_CLUSTER_ZOOM, freeze(cells));
+            if (zoom == MIN_CLUSTER_ZOOM) {
+                break;
+            }
+            // one zoom out halves pixel coordinates, so four cells fold into their parent
+            Map<Long, Accumulator> parents = new HashMap<>();
+            for (Map.Entry<Long, Accumulator> entry : cells.entrySet()) {
+                long parent = key(cellX(entry.getKey()) >> 1, cellY(entry.getKey()) >> 1);
+                parents.computeIfAbsent(parent, k -> new Accumulator()).merge(entry.getValue());
+            }
+            cells = parents;
+        }
+        return new ClusterPyramid(Collections.unmodifiableList(levels));
+    }
+
+    /**
+     * Clusters whose cell overlaps the viewport.
+     * @param minLat southern edge
+     * @param maxLat northern edge
+     * @param minLng western edge
+     * @param maxLng eastern edge
+     * @param zoom map zoom, clamped to the precomputed levels
+     * @return clusters, largest first
+     */
+    public List<ClusterVO> query(double minLat, double maxLat, double minLng, double maxLng, int zoom) {
+        int level = Math.max(MIN_CLUSTER_ZOOM, Math.min(MAX_CLUSTER_ZOOM, zoom));
+        Map<Long, ClusterVO> cells = levels.get(level - MIN_CLUSTER_ZOOM);
+        int fromX = cell(GeoUtils.mercatorX(minLng, level));
+        int toX = cell(GeoUtils.mercatorX(maxLng, level));
+        // pixel y grows southwards
+        int fromY = cell(GeoUtils.mercatorY(maxLat, level));
+        int toY = cell(GeoUtils.mercatorY(minLat, level));
+
+        List<ClusterVO> result = new ArrayList<>();
+        if ((long) (toX - fromX + 1) * (toY - fromY + 1) > cells.size()) {
+            for (Map.Entry<Long, ClusterVO> entry : cells.entrySet()) {
+                int x = cellX(entry.getKey());
+                int y = cellY(entry.getKey());
+                if (x >= fromX && x <= toX && y >= fromY && y <= toY) {
+                    result.add(entry.getValue());
+                }
+            }
+        } else {
+            for (int x = fromX; x <= toX; x++) {
+                for (int y = fromY; y <= toY; y++) {
+                    ClusterVO cluster = cells.get(key(x, y));
+                    if (cluster != null) {
+                        result.add(cluster);
+                    }
+                }
+            }
+        }
+        result.sort(LARGEST_FIRST);
+        return result;
+    }
+
+    private static Map<Long, ClusterVO> freeze(Map<Long, Accumulator> cells) {
+        Map<Long, ClusterVO> frozen = new HashMap<>(cells.size() * 2);
+        for (Map.Entry<Long, Accumulator> entry : cells.entrySet()) {
+            Accumulator acc = entry.getValue();
+            frozen.put(entry.getKey(), new ClusterVO(
+                acc.latitudeSum / acc.count, acc.longitudeSum / acc.count, acc.count, acc.top));
+        }
+        return Collections.unmodifiableMap(frozen);
+    }
+
+    private static int cell(double pixels) {
+        return (int) Math.floor(pixels / CLUSTER_CELL_PIXELS);
+    }
+
+    private static long key(int x, int y) {
+        return ((long) x << 32) | (y & 0xffffffffL);
+    }
+
+    private static int cellX(long key) {
+        return (int) (key >> 32);
+    }
+
+    private static int cellY(long key) {
+        return (int) key;
+    }
+
+    private static final class Accumulator {
+        private int count;
+        private double latitudeSum;
+        private double longitudeSum;
+        private Event top;
+
+        private void add(Event event) {
+            count++;
+            latitudeSum += event.getLatitude();
+            longitudeSum += event.getLongitude();
+            if (top == null || TOP_EVENT.compare(event, top) < 0) {
+                top = event;
+            }
+        }
+
+        private void merge(Accumulator other) {
+            count += other.count;
+            latitudeSum += other.latitudeSum;
+            longitudeSum += other.longitudeSum;
+            if (top == null || TOP_EVENT.compare(other.top, top) < 0) {
+                top = other.top;
+            }
+        }
+    }
+}
@@ -1,13 +1,21 @@
 package com.map.mapper;
 
 import com.map.dto.EventQueryDTO;
+import com.map.dto.EventSummaryDTO;
 import com.map.dto.EventCategoryDTO;
+import com.map.dto.TrendingScoreDTO;
+import com.map.dto.ViewDeltaDTO;
+import com.map.dto.ViewerSketchDTO;
+import org.apache.ibatis.annotations.Delete;
 import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
 import org.apache.ibatis.annotations.Select;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Update;
+import org.apache.ibatis.cursor.Cursor;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import com.map.entity.Event;
 
@@ -25,6 +33,16 @@ public interface EventMapper{
   @Select("SELECT COUNT(*) > 0 FROM events WHERE event_id = #{eventId}")
   boolean checkIfEventExists(@Param("eventId") Integer eventId);
 
+  /**
+   * Batch version of checkIfEventExists.
+   * @param eventIds non-empty list of event ids
+   * @return the ids that exist
+   */
+  @Select("<script>SELECT event_id FROM events WHERE event_id IN "
+      + "<foreach collection='eventIds' item='id' open='(' separator=',' close=')'>#{id}</foreach>"
+      + "</script>")
+  List<Integer> selectExistingEventIds(@Param("eventIds") List<Integer> eventIds);
+
   /**
    * Select all matching events by the query.
    * @param queryDTO
@@ -32,6 +50,34 @@ public interface EventMapper{
    */
   List<Event> selectEvents(EventQueryDTO queryDTO);
 
+  /**
+   * Select matching events ordered by trending score, highest first, honoring limit and keyset cursor.
+   * @param queryDTO
+   * @return one page of events matching the query.
+   */
+  List<Event> selectTrendingEvents(EventQueryDTO queryDTO);
+
+  /**
+   * Same query as selectEvents, projected to summary columns.
+   * @param queryDTO
+   * @return summaries of the events matching the query.
+   */
+  List<EventSummaryDTO> selectEventSummaries(EventQueryDTO queryDTO);
+
+  /**
+   * Same query as selectTrendingEvents, projected to summary columns.
+   * @param queryDTO
+   * @return summaries of one page of events matching the query.
+   */
+  List<EventSummaryDTO> selectTrendingEventSummaries(EventQueryDTO queryDTO);
+
+  /**
+   * Select every event, used to build the in-memory event catalog.
+   * @return all events.
+   */
+  @Select("SELECT * FROM events")
+  List<Event> selectAllEvents();
+
   /**
    * Select an event by its ID.
    * @param eventId
@@ -50,6 +96,21 @@ public interface EventMapper{
       + "OR LOWER(description) LIKE '%' || LOWER(#{query}) || '%' ")
   List<Event> selectEventByValue(@Param("query") String query);
 
+  /**
+   * Page through events by name or description containing the given value, in event id order.
+   * @param query the search term
+   * @param afterId event id of the last match already returned, null for the first page
+   * @param limit page size
+   * @return one page of matching events
+   */
+  @Select("<script>SELECT * FROM events "
+      + "WHERE (LOWER(name) LIKE '%' || LOWER(#{query}) || '%' "
+      + "OR LOWER(description) LIKE '%' || LOWER(#{query}) || '%') "
+      + "<if test='afterId != null'>AND event_id &gt; #{afterId} </if>"
+      + "ORDER BY event_id LIMIT #{limit}</script>")
+  List<Event> selectEventByValuePage(
+      @Param("query") String query, @Param("afterId") Integer afterId, @Param("limit") Integer limit);
+
   /**
    * Update trending score
    * @param eventId
@@ -59,25 +120,62 @@ public interface EventMapper{
   void updateTrendingScore(@Param("eventId") Integer eventId, @Param("trendingScore") Double trendingScore);
 
   /**
-   * Increment the view count for a specific event by 1.
-   * @param eventId
+   * Add buffered view deltas to their events in one statement.
+   * @param deltas per-event deltas, best sorted by event id so concurrent flushes lock rows in the same order
+   * @return number of events updated
    */
-  @Update("UPDATE events SET viewed_count = viewed_count + 1 WHERE event_id = #{eventId}")
-  void updateViewCount(@Param("eventId") Integer eventId);
+  int incrementViewCounts(@Param("deltas") List<ViewDeltaDTO> deltas);
 
   /**
-   * Increment the like count for a specific event by 1.
-   * @param eventId
+   * Write many trending scores in one statement with two array parameters, so the statement text and its
+   * bind parameter count stay the same however many events are written.
+   * @param eventIds best ascending, so concurrent writers lock rows in the same order
+   * @param scores new score of the event at the same index
+   * @return number of events updated
+   */
+  int updateTrendingScores(@Param("eventIds") Integer[] eventIds, @Param("scores") Double[] scores);
+
+  /**
+   * Distinct viewer sketches last written by one node.
+   * @param nodeId
+   * @return one sketch per event
    */
-  @Update("UPDATE events SET liked_count = liked_count + 1 WHERE event_id = #{eventId}")
-  void incrementLikedCount(@Param("eventId") Integer eventId);
+  @Select("SELECT event_id, registers FROM event_viewer_sketches WHERE node_id = #{nodeId}")
+  List<ViewerSketchDTO> selectViewerSketches(@Param("nodeId") String nodeId);
 
   /**
-   * Decrement the like count for a specific event by 1.
+   * Distinct viewer sketches of an event from every node, to be merged.
    * @param eventId
+   * @return registers, one entry per node
+   */
+  @Select("SELECT registers FROM event_viewer_sketches WHERE event_id = #{eventId}")
+  List<byte[]> selectViewerSketchesOfEvent(@Param("eventId") Integer eventId);
+
+  /**
+   * Insert or replace the sketches of one node; sketches of events that do not exist are skipped.
+   * @param nodeId
+   * @param sketches non-empty list of sketches
+   * @return number of rows written
    */
-  @Update("UPDATE events SET liked_count = GREATEST(liked_count - 1, 0) WHERE event_id = #{eventId}")
-  void decrementLikedCount(@Param("eventId") Integer eventId);
+  int upsertViewerSketches(@Param("nodeId") String nodeId, @Param("sketches") List<ViewerSketchDTO> sketches);
+
+  /**
+   * Delete the viewer sketches of every node for events that ended before the given time.
+   * @param before
+   * @return number of rows deleted
+   */
+  @Delete("DELETE FROM event_viewer_sketches s USING events e "
+      + "WHERE e.event_id = s.event_id AND COALESCE(e.end_time, e.start_time) < #{before}")
+  int deleteEndedViewerSketches(@Param("before") LocalDateTime before);
+
+  /**
+   * Stream the trending score of every event, in event id order.
+   * Must be iterated inside a transaction, so the driver can fetch rows in chunks instead of all at once.
+   * @return cursor over (event id, trending score)
+   */
+  @Select("SELECT event_id, trending_score FROM events ORDER BY event_id")
+  @Options(fetchSize = 1000)
+  Cursor<TrendingScoreDTO> selectTrendingScores();
 
   /**
    * Return locations of all events.
@@ -93,4 +191,12 @@ public interface EventMapper{
    * @return
    */
   List<EventCategoryDTO> getCategoriesForEvents(List<Integer> eventIds);
+
+  /**
+   * Return every event-category pair, used to build the in-memory event catalog.
+   * @return list of event-category pairs
+   */
+  @Select("SELECT ec.event_id AS eventId, c.category_name AS categoryName "
+      + "FROM event_categories ec JOIN categories c ON ec.category_id = c.category_id")
+  List<EventCategoryDTO> getAllEventCategories();
 }
\ No newline at end of file
@@ -1,20 +1,37 @@
 package com.map.mapper;
 
 
+import com.map.constant.RecommendationConstant;
+import com.map.dto.CategoryPreferenceDTO;
 import com.map.dto.UserLikeDTO;
+import com.map.vo.LikeStateVO;
+import java.time.LocalDateTime;
 import java.util.List;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
 import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Delete;
 
 @Mapper
 public interface UserMapper {
 
-  @Insert("INSERT INTO users (user_id) VALUES (#{userId})")
+  /**
+   * Create a user if it does not exist yet; safe to repeat and to race.
+   * @param userId
+   */
+  @Insert("INSERT INTO users (user_id) VALUES (#{userId}) ON CONFLICT (user_id) DO NOTHING")
   void createUser(@Param("userId") String userId);
 
+  /**
+   * All user ids, to warm the user directory.
+   * @return
+   */
+  @Select("SELECT user_id FROM users")
+  List<String> selectAllUserIds();
+
   /**
    * Check if a user exists in the database.
    * @param userId
@@ -50,6 +67,16 @@ public interface UserMapper {
   @Select("SELECT event_id, timestamp FROM user_likes WHERE user_id = #{userId}")
   List<UserLikeDTO> getUserLikesWithTimestamps(@Param("userId") String userId);
 
+  /**
+   * Likes of all users made in a time range, oldest first.
+   * @param from inclusive
+   * @param to exclusive
+   * @return
+   */
+  @Select("SELECT event_id, timestamp FROM user_likes "
+      + "WHERE timestamp >= #{from} AND timestamp < #{to} ORDER BY timestamp")
+  List<UserLikeDTO> selectLikesBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
   /**
    * Extract all events that the user has bookmarked.
    * @param userId
@@ -60,22 +87,162 @@ public interface UserMapper {
   List<Integer> getUserBookmarks(@Param("userId") String userId);
 
   /**
-   * Like an event if it hasn't been liked; else do nothing.
+   * Which of the events the user has liked, locking those like rows until the transaction ends.
+   * @param userId
+   * @param eventIds non-empty list of event ids, sorted so concurrent callers lock in the same order
+   * @return the liked ids
+   */
+  @Select("<script>SELECT event_id FROM user_likes WHERE user_id = #{userId} AND event_id IN "
+      + "<foreach collection='eventIds' item='id' open='(' separator=',' close=')'>#{id}</foreach>"
+      + " ORDER BY event_id FOR UPDATE</script>")
+  List<Integer> selectLikedEventIdsForUpdate(@Param("userId") String userId,
+      @Param("eventIds") List<Integer> eventIds);
+
+  /**
+   * Which of the events the user has bookmarked.
+   * @param userId
+   * @param eventIds non-empty list of event ids
+   * @return the bookmarked ids
+   */
+  @Select("<script>SELECT event_id FROM user_bookmarks WHERE user_id = #{userId} AND event_id IN "
+      + "<foreach collection='eventIds' item='id' open='(' separator=',' close=')'>#{id}</foreach>"
+      + "</script>")
+  List<Integer> selectBookmarkedEventIds(@Param("userId") String userId, @Param("eventIds") List<Integer> eventIds);
+
+  /*
+   * Category preferences. A like at time t adds exp(LAMBDA * day(t)) / n to each of the n categories of the liked
+   * event, and user_category_frequencies.log_score keeps the ln of that sum per category, so a like or unlike
+   * touches only the event's categories and decay is applied once, when read: the weight now is
+   * exp(log_score - LAMBDA * day(now)). Sums are kept in log space because exp(LAMBDA * day) alone overflows.
+   * The fragments below are shared by the single and the batched like statements; they use the like's own
+   * timestamp, so adding and later removing a like cancel out.
+   */
+
+  String LAMBDA = "" + RecommendationConstant.LAMBDA;
+
+  // categories of the event, with ln of their count
+  String EVENT_CATEGORIES = "event_cats AS ("
+      + "  SELECT category_id, LN(COUNT(*) OVER ()) AS ln_n FROM event_categories WHERE event_id = #{eventId}"
+      + ")";
+
+  // adds the like in `liked` (inserted, timestamp) to the preferences; if it refreshed the like in `previous`
+  // (timestamp), adds only the difference of the two
+  String ADD_PREFERENCE = "INSERT INTO user_category_frequencies AS f (user_id, category_id, frequency, log_score) "
+      + "SELECT #{userId}, c.category_id, CASE WHEN l.inserted THEN 1 ELSE 0 END, "
+      + "  " + LAMBDA + " * EXTRACT(EPOCH FROM l.timestamp) / 86400 - c.ln_n "
+      + "  + CASE WHEN l.inserted THEN 0 ELSE LN(1 - EXP(GREATEST("
+      + "    " + LAMBDA + " * EXTRACT(EPOCH FROM p.timestamp - l.timestamp) / 86400, -700))) END "
+      + "FROM liked l CROSS JOIN event_cats c LEFT JOIN previous p ON TRUE "
+      + "WHERE l.inserted OR l.timestamp > p.timestamp "
+      + "ON CONFLICT (user_id, category_id) DO UPDATE SET "
+      + "  frequency = f.frequency + EXCLUDED.frequency, "
+      + "  log_score = CASE WHEN f.log_score IS NULL THEN EXCLUDED.log_score "
+      + "    ELSE GREATEST(f.log_score, EXCLUDED.log_score) "
+      + "      + LN(1 + EXP(GREATEST(-ABS(f.log_score - EXCLUDED.log_score), -700))) END";
+
+  // removes the like in `removed` (timestamp) from the preferences
+  String REMOVE_PREFERENCE = "UPDATE user_category_frequencies AS f SET "
+      + "  frequency = f.frequency - 1, "
+      + "  log_score = CASE WHEN f.frequency <= 1 THEN NULL "
+      + "    ELSE f.log_score + LN(GREATEST(1 - EXP(LEAST("
+      + "      " + LAMBDA + " * EXTRACT(EPOCH FROM r.timestamp) / 86400 - c.ln_n - f.log_score, 0)), 1e-12)) END "
+      + "FROM removed r, event_cats c "
+      + "WHERE f.user_id = #{userId} AND f.category_id = c.category_id AND f.frequency > 0";
+
+  /**
+   * Time-decayed weight of the user's likes per category, for the categories the user has likes in.
+   * @param userId
+   * @return
+   */
+  @Select("SELECT c.category_name, "
+      + "EXP(GREATEST(f.log_score - " + LAMBDA + " * EXTRACT(EPOCH FROM LOCALTIMESTAMP) / 86400, -700)) AS weight "
+      + "FROM user_category_frequencies f JOIN categories c ON c.category_id = f.category_id "
+      + "WHERE f.user_id = #{userId} AND f.frequency > 0 AND f.log_score IS NOT NULL")
+  List<CategoryPreferenceDTO> selectCategoryPreferences(@Param("userId") String userId);
+
+  /**
+   * Like an event in one statement: insert the like (or refresh its timestamp if it exists) and bump
+   * events.liked_count only when the row was newly inserted. The user's category preferences follow the like.
+   * A missing user or event fails the foreign keys of user_likes.
+   * @param userId
+   * @param eventId
+   * @return the like state after the statement
+   */
+  @Select("WITH previous AS ("
+      + "  SELECT timestamp FROM user_likes WHERE user_id = #{userId} AND event_id = #{eventId}"
+      + "), liked AS ("
+      + "  INSERT INTO user_likes (user_id, event_id, timestamp) "
+      + "  VALUES (#{userId}, #{eventId}, CURRENT_TIMESTAMP) "
+      + "  ON CONFLICT (user_id, event_id) DO UPDATE SET timestamp = CURRENT_TIMESTAMP "
+      + "  RETURNING (xmax = 0) AS inserted, timestamp"
+      + "), " + EVENT_CATEGORIES + ", preferred AS (" + ADD_PREFERENCE + "), counted AS ("
+      + "  UPDATE events SET liked_count = liked_count + 1 "
+      + "  WHERE event_id = #{eventId} AND (SELECT inserted FROM liked) "
+      + "  RETURNING liked_count"
+      + ") "
+      + "SELECT e.event_id, TRUE AS liked, "
+      + "COALESCE((SELECT liked_count FROM counted), e.liked_count) AS liked_count, "
+      + "EXISTS (SELECT 1 FROM counted) AS changed "
+      + "FROM events e WHERE e.event_id = #{eventId}")
+  @Options(flushCache = Options.FlushCachePolicy.TRUE)
+  LikeStateVO likeEvent(@Param("userId") String userId, @Param("eventId") Integer eventId);
+
+  /**
+   * Remove a like in one statement, decrementing events.liked_count and the user's category preferences only
+   * when a row was deleted.
+   * @param userId
+   * @param eventId
+   * @return the like state after the statement, or null if the user or the event does not exist
+   */
+  @Select("WITH removed AS ("
+      + "  DELETE FROM user_likes WHERE user_id = #{userId} AND event_id = #{eventId} "
+      + "  RETURNING event_id, timestamp"
+      + "), " + EVENT_CATEGORIES + ", preferred AS (" + REMOVE_PREFERENCE + "), counted AS ("
+      + "  UPDATE events SET liked_count = GREATEST(liked_count - 1, 0) "
+      + "  WHERE event_id IN (SELECT event_id FROM removed) "
+      + "  RETURNING liked_count"
+      + ") "
+      + "SELECT e.event_id, FALSE AS liked, "
+      + "COALESCE((SELECT liked_count FROM counted), e.liked_count) AS liked_count, "
+      + "EXISTS (SELECT 1 FROM counted) AS changed "
+      + "FROM events e WHERE e.event_id = #{eventId} "
+      + "AND EXISTS (SELECT 1 FROM users WHERE user_id = #{userId})")
+  @Options(flushCache = Options.FlushCachePolicy.TRUE)
+  LikeStateVO delikeEvent(@Param("userId") String userId, @Param("eventId") Integer eventId);
+
+  /**
+   * Batched form of likeEvent: insert a like, or refresh its timestamp if it exists, bumping liked_count only
+   * when the row was newly inserted, and update the category preferences.
    * @param userId
    * @param eventId
    */
-  @Insert("INSERT INTO user_likes (user_id, event_id, timestamp) " +
-          "VALUES (#{userId}, #{eventId}, CURRENT_TIMESTAMP) " +
-          "ON CONFLICT (user_id, event_id) DO UPDATE SET timestamp = CURRENT_TIMESTAMP")
-  void likeEvent(@Param("userId") String userId, @Param("eventId") Integer eventId);
+  @Insert("WITH previous AS ("
+      + "  SELECT timestamp FROM user_likes WHERE user_id = #{userId} AND event_id = #{eventId}"
+      + "), liked AS ("
+      + "  INSERT INTO user_likes (user_id, event_id, timestamp) "
+      + "  VALUES (#{userId}, #{eventId}, CURRENT_TIMESTAMP) "
+      + "  ON CONFLICT (user_id, event_id) DO UPDATE SET timestamp = CURRENT_TIMESTAMP "
+      + "  RETURNING (xmax = 0) AS inserted, timestamp"
+      + "), counted AS ("
+      + "  UPDATE events SET liked_count = liked_count + 1 "
+      + "  WHERE event_id = #{eventId} AND (SELECT inserted FROM liked)"
+      + "), " + EVENT_CATEGORIES + " " + ADD_PREFERENCE)
+  void upsertLike(@Param("userId") String userId, @Param("eventId") Integer eventId);
 
   /**
-   * Remove like for an event if it has been liked; else do nothing.
+   * Batched form of delikeEvent: delete a like, decrementing liked_count and the category preferences only when
+   * a row was deleted.
    * @param userId
    * @param eventId
    */
-  @Delete("DELETE FROM user_likes WHERE user_id = #{userId} AND event_id = #{eventId}")
-  void delikeEvent(@Param("userId") String userId, @Param("eventId") Integer eventId);
+  @Update("WITH removed AS ("
+      + "  DELETE FROM user_likes WHERE user_id = #{userId} AND event_id = #{eventId} "
+      + "  RETURNING event_id, timestamp"
+      + "), counted AS ("
+      + "  UPDATE events SET liked_count = GREATEST(liked_count - 1, 0) "
+      + "  WHERE event_id IN (SELECT event_id FROM removed)"
+      + "), " + EVENT_CATEGORIES + " " + REMOVE_PREFERENCE)
+  void deleteLike(@Param("userId") String userId, @Param("eventId") Integer eventId);
 
   /**
    * Bookmark an event if it hasn't been bookmarked; else do nothing.
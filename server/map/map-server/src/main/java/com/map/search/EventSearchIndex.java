@@ -0,0 +1,81 @@
+package com.map.search;
+
+import com.map.catalog.EventCatalogListener;
+import com.map.catalog.EventCatalogSnapshot;
+import com.map.entity.Event;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the full-text {@link InvertedIndex} and the typo-tolerant {@link TrigramIndex} in step with the
+ * event catalog. On every catalog refresh only events that were added, removed, or whose name, description or
+ * location changed are re-indexed, so like/view churn never touches the indexes.
+ */
+@Component
+public class EventSearchIndex implements EventCatalogListener {
+    private static final Logger logger = LoggerFactory.getLogger(EventSearchIndex.class);
+
+    private final InvertedIndex index = new InvertedIndex();
+    private final TrigramIndex trigramIndex = new TrigramIndex();
+    private volatile boolean ready = false;
+
+    @Override
+    public void onRefresh(EventCatalogSnapshot previous, EventCatalogSnapshot current) {
+        List<Event> upserts = new ArrayList<>();
+        for (Event event : current.events()) {
+            Event before = previous.getEvent(event.getEventId());
+            if (before == null
+                || !Objects.equals(before.getName(), event.getName())
+                || !Objects.equals(before.getDescription(), event.getDescription())
+                || !Objects.equals(before.getLocation(), event.getLocation())) {
+                upserts.add(event);
+            }
+        }
+        List<Integer> removals = new ArrayList<>();
+        for (Event event : previous.events()) {
+            if (current.getEvent(event.getEventId()) == null) {
+                removals.add(event.getEventId());
+            }
+        }
+
+        if (!upserts.isEmpty() || !removals.isEmpty()) {
+            index.apply(upserts, removals);
+            trigramIndex.apply(upserts, removals);
+            logger.info("Search index v{}: {} re-indexed, {} removed, {} total",
+                current.getVersion(), upserts.size(), removals.size(), index.size());
+        }
+        ready = true;
+    }
+
+    /**
+     * Ranked event ids for a free-text query.
+     * @param query
+     * @param limit maximum number of ids
+     * @return event ids, best match first
+     */
+    public List<Integer> search(String query, int limit) {
+        return index.search(query, limit).stream().map(InvertedIndex.Hit::getEventId).toList();
+    }
+
+    /**
+     * Event ids whose name or location is within a few typos of the query.
+     * @param query
+     * @param limit maximum number of ids
+     * @return event ids, closest match first
+     */
+    public List<Integer> fuzzySearch(String query, int limit) {
+        return trigramIndex.search(query, limit).stream().map(TrigramIndex.Match::getEventId).toList();
+    }
+
+    /**
+     * Whether the indexes have been built from at least one catalog snapshot.
+     * @return true once searches can be answered from the indexes
+     */
+    public boolean isReady() {
+        return ready;
+    }
+}
@@ -0,0 +1,226 @@
+package com.map.search;
+
+import com.map.entity.Event;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static com.map.constant.SearchConstant.MAX_PREFIX_EXPANSIONS;
+
+/**
+ * In-memory inverted index over event name and description, ranked with BM25F.
+ * Each term keeps a postings map from event id to its per-field term frequencies, so a document can be added,
+ * replaced or removed without rebuilding the rest. Name matches weigh more than description matches, and the
+ * last query token also matches as a prefix so results stay useful while a word is still being typed.
+ * Reads run concurrently; updates take a short exclusive lock.
+ */
+public class InvertedIndex {
+
+    static final double K1 = 1.2;
+    static final double B = 0.75;
+    static final double NAME_WEIGHT = 3.0;
+    static final double DESCRIPTION_WEIGHT = 1.0;
+
+    private static final int NAME = 0;
+    private static final int DESCRIPTION = 1;
+
+    // term -> (event id -> {name tf, description tf}); sorted so prefixes are a range scan
+    private final NavigableMap<String, Map<Integer, int[]>> postings = new TreeMap<>();
+    private final Map<Integer, Document> documents = new HashMap<>();
+    private long totalNameLength;
+    private long totalDescriptionLength;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Apply a batch of changes under a single write lock.
+     * @param upserts events to add or re-index
+     * @param removals ids of events to drop
+     */
+    public void apply(Collection<Event> upserts, Collection<Integer> removals) {
+        lock.writeLock().lock();
+        try {
+            for (Integer eventId : removals) {
+                remove(eventId);
+            }
+            for (Event event : upserts) {
+                remove(event.getEventId());
+                add(event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Rank events against the query and return the best k.
+     * @param query free text
+     * @param k maximum number of hits
+     * @return hits ordered by score, highest first, ties by event id
+     */
+    public List<Hit> search(String query, int k) {
+        List<String> tokens = TextAnalyzer.tokenize(query);
+        if (tokens.isEmpty() || k <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            if (documents.isEmpty()) {
+                return List.of();
+            }
+            Map<Integer, Double> scores = new HashMap<>();
+            for (String term : queryTerms(tokens)) {
+                Map<Integer, int[]> termPostings = postings.get(term);
+                if (termPostings != null) {
+                    score(termPostings, scores);
+                }
+            }
+            return topK(scores, k);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of indexed events.
+     * @return document count
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // every token stemmed, plus the most common dictionary terms starting with the last raw token
+    private Set<String> queryTerms(List<String> tokens) {
+        Set<String> terms = new LinkedHashSet<>();
+        for (String token : tokens) {
+            terms.add(TextAnalyzer.stem(token));
+        }
+        String last = tokens.get(tokens.size() - 1);
+        if (last.length() >= 2) {
+            postings.subMap(last, true, last + Character.MAX_VALUE, true).entrySet().stream()
+                .sorted(Comparator.comparingInt((Map.Entry<String, Map<Integer, int[]>> e) -> e.getValue().size())
+                    .reversed())
+                .limit(MAX_PREFIX_EXPANSIONS)
+                .forEach(e -> terms.add(e.getKey()));
+        }
+        return terms;
+    }
+
+    private void score(Map<Integer, int[]> termPostings, Map<Integer, Double> scores) {
+        int n = documents.size();
+        int df = termPostings.size();
+        double idf = Math.log(1.0 + (n - df + 0.5) / (df + 0.5));
+        double avgName = Math.max(1.0, (double) totalNameLength / n);
+        double avgDescription = Math.max(1.0, (double) totalDescriptionLength / n);
+
+        for (Map.Entry<Integer, int[]> posting : termPostings.entrySet()) {
+            Document doc = documents.get(posting.getKey());
+            int[] tf = posting.getValue();
+            double weighted =
+                NAME_WEIGHT * tf[NAME] / (1 - B + B * doc.nameLength / avgName)
+                    + DESCRIPTION_WEIGHT * tf[DESCRIPTION] / (1 - B + B * doc.descriptionLength / avgDescription);
+            scores.merge(posting.getKey(), idf * weighted / (K1 + weighted), Double::sum);
+        }
+    }
+
+    // bounded min-heap: the weakest of the current top k sits on top and is evicted first
+    private static List<Hit> topK(Map<Integer, Double> scores, int k) {
+        Comparator<Hit> ranking = Comparator.comparingDouble(Hit::getScore).reversed()
+            .thenComparingInt(Hit::getEventId);
+        PriorityQueue<Hit> heap = new PriorityQueue<>(Math.min(k, scores.size()) + 1, ranking.reversed());
+        for (Map.Entry<Integer, Double> entry : scores.entrySet()) {
+            heap.offer(new Hit(entry.getKey(), entry.getValue()));
+            if (heap.size() > k) {
+                heap.poll();
+            }
+        }
+        List<Hit> hits = new ArrayList<>(heap);
+        hits.sort(ranking);
+        return hits;
+    }
+
+    private void add(Event event) {
+        List<String> nameTerms = TextAnalyzer.analyze(event.getName());
+        List<String> descriptionTerms = TextAnalyzer.analyze(event.getDescription());
+
+        Map<String, int[]> frequencies = new HashMap<>();
+        for (String term : nameTerms) {
+            frequencies.computeIfAbsent(term, t -> new int[2])[NAME]++;
+        }
+        for (String term : descriptionTerms) {
+            frequencies.computeIfAbsent(term, t -> new int[2])[DESCRIPTION]++;
+        }
+        for (Map.Entry<String, int[]> entry : frequencies.entrySet()) {
+            postings.computeIfAbsent(entry.getKey(), t -> new HashMap<>()).put(event.getEventId(), entry.getValue());
+        }
+
+        documents.put(event.getEventId(),
+            new Document(nameTerms.size(), descriptionTerms.size(), frequencies.keySet()));
+        totalNameLength += nameTerms.size();
+        totalDescriptionLength += descriptionTerms.size();
+    }
+
+    private void remove(Integer eventId) {
+        Document doc = documents.remove(eventId);
+        if (doc == null) {
+            return;
+        }
+        for (String term : doc.terms) {
+            Map<Integer, int[]> termPostings = postings.get(term);
+            termPostings.remove(eventId);
+            if (termPostings.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+        totalNameLength -= doc.nameLength;
+        totalDescriptionLength -= doc.descriptionLength;
+    }
+
+    private static final class Document {
+        private final int nameLength;
+        private final int descriptionLength;
+        private final Set<String> terms;
+
+        private Document(int nameLength, int descriptionLength, Set<String> terms) {
+            this.nameLength = nameLength;
+            this.descriptionLength = descriptionLength;
+            this.terms = terms;
+        }
+    }
+
+    /**
+     * One ranked match.
+     */
+    public static final class Hit {
+        private final int eventId;
+        private final double score;
+
+        public Hit(int eventId, double score) {
+            this.eventId = eventId;
+            this.score = score;
+        }
+
+        public int getEventId() {
+            return eventId;
+        }
+
+        public double getScore() {
+            return score;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.map.search;
+
+import com.map.catalog.EventCatalogListener;
+import com.map.catalog.EventCatalogSnapshot;
+import com.map.dto.EventQueryDTO;
+import com.map.entity.Event;
+import com.map.mapper.CategoryMapper;
+import com.map.mapper.EventMapper;
+import com.map.vo.SuggestionVO;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import static com.map.constant.SearchConstant.SUGGEST_LIMIT;
+
+/**
+ * Typeahead over event names, locations and categories.
+ * The {@link SuggestTrie} is rebuilt after every catalog refresh, since trending scores (the ranking) move with
+ * every like and view, and swapped in with a single volatile write. Locations and categories are ranked by the
+ * best trending score among their events.
+ */
+@Component
+public class SuggestIndex implements EventCatalogListener {
+    private static final Logger logger = LoggerFactory.getLogger(SuggestIndex.class);
+
+    public static final String EVENT = "event";
+    public static final String LOCATION = "location";
+    public static final String CATEGORY = "category";
+
+    @Autowired
+    private EventMapper eventMapper;
+
+    @Autowired
+    private CategoryMapper categoryMapper;
+
+    private volatile SuggestTrie trie = SuggestTrie.empty();
+
+    @Override
+    public void onRefresh(EventCatalogSnapshot previous, EventCatalogSnapshot current) {
+        long start = System.nanoTime();
+        SuggestTrie.Builder builder = SuggestTrie.builder(SUGGEST_LIMIT);
+
+        Map<String, Double> locationScores = new HashMap<>();
+        for (Event event : current.events()) {
+            double score = score(event);
+            builder.add(SuggestionVO.builder()
+                .text(event.getName()).type(EVENT).eventId(event.getEventId()).score(score).build());
+            if (event.getLocation() != null) {
+                locationScores.merge(event.getLocation().toLowerCase(Locale.ROOT), score, Math::max);
+            }
+        }
+        for (String location : eventMapper.getAllLocations()) {
+            if (location != null) {
+                builder.add(SuggestionVO.builder().text(location).type(LOCATION)
+                    .score(locationScores.getOrDefault(location.toLowerCase(Locale.ROOT), 0.0)).build());
+            }
+        }
+        for (String category : categoryMapper.fetchAllCategories()) {
+            double best = current.select(EventQueryDTO.builder().category(category).build(), null).stream()
+                .mapToDouble(SuggestIndex::score).max().orElse(0.0);
+            builder.add(SuggestionVO.builder().text(category).type(CATEGORY).score(best).build());
+        }
+
+        trie = builder.build();
+        logger.info("Suggest trie v{} built in {} ms", current.getVersion(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Top completions for a prefix.
+     * @param prefix
+     * @param limit at most SUGGEST_LIMIT
+     * @return completions ranked by trending score, empty until the first catalog load
+     */
+    public List<SuggestionVO> suggest(String prefix, int limit) {
+        return trie.complete(prefix, Math.min(limit, SUGGEST_LIMIT));
+    }
+
+    private static double score(Event event) {
+        return event.getTrendingScore() == null ? 0.0 : event.getTrendingScore();
+    }
+}
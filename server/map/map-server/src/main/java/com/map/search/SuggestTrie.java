@@ -0,0 +1,181 @@
+package com.map.search;
+
+import com.map.vo.SuggestionVO;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static com.map.constant.SearchConstant.MAX_SUGGEST_PREFIX;
+
+/**
+ * Immutable prefix trie for typeahead. Every node stores its best completions, already ranked, so a lookup
+ * costs one step per prefix character and never walks the subtree. Each suggestion is reachable from the start
+ * of its text and from the start of every later word, so "conc" finds "Spring Concert". Children are kept as
+ * sorted char arrays and searched by bisection.
+ */
+public final class SuggestTrie {
+
+    private static final Comparator<SuggestionVO> RANKING = Comparator
+        .comparingDouble((SuggestionVO s) -> s.getScore() == null ? 0.0 : s.getScore()).reversed()
+        .thenComparing(SuggestionVO::getText, String.CASE_INSENSITIVE_ORDER)
+        .thenComparing(SuggestionVO::getType);
+
+    private static final SuggestTrie EMPTY = new Builder(0).build();
+
+    private final Node root;
+
+    private SuggestTrie(Node root) {
+        this.root = root;
+    }
+
+    /**
+     * Trie used before the first build.
+     * @return a trie without suggestions
+     */
+    public static SuggestTrie empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Start building a trie.
+     * @param perNode number of completions to keep at every node
+     * @return a builder
+     */
+    public static Builder builder(int perNode) {
+        return new Builder(perNode);
+    }
+
+    /**
+     * Best completions of a prefix.
+     * @param prefix typed text, matched case-insensitively against word starts
+     * @param limit maximum number of completions
+     * @return completions ranked by trending score, highest first
+     */
+    public List<SuggestionVO> complete(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        Node node = root;
+        int depth = Math.min(key.length(), MAX_SUGGEST_PREFIX);
+        for (int i = 0; i < depth && node != null; i++) {
+            node = node.child(key.charAt(i));
+        }
+        if (node == null) {
+            return List.of();
+        }
+        List<SuggestionVO> completions = new ArrayList<>(Math.min(limit, node.top.length));
+        for (SuggestionVO suggestion : node.top) {
+            if (completions.size() == limit) {
+                break;
+            }
+            if (key.length() <= MAX_SUGGEST_PREFIX || matchesWordStart(suggestion.getText(), key)) {
+                completions.add(suggestion);
+            }
+        }
+        return completions;
+    }
+
+    private static boolean matchesWordStart(String text, String key) {
+        String normalized = normalize(text);
+        return normalized.startsWith(key) || normalized.contains(" " + key);
+    }
+
+    static String normalize(String text) {
+        return text == null ? "" : text.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Node {
+        private static final Node[] NO_CHILDREN = new Node[0];
+
+        private final char[] keys;
+        private final Node[] children;
+        private final SuggestionVO[] top;
+
+        private Node(char[] keys, Node[] children, SuggestionVO[] top) {
+            this.keys = keys;
+            this.children = children;
+            this.top = top;
+        }
+
+        private Node child(char c) {
+            int i = Arrays.binarySearch(keys, c);
+            return i >= 0 ? children[i] : null;
+        }
+    }
+
+    /**
+     * Collects suggestions, then freezes them into a {@link SuggestTrie}.
+     */
+    public static final class Builder {
+        private final int perNode;
+        private final MutableNode root = new MutableNode();
+
+        private Builder(int perNode) {
+            this.perNode = perNode;
+        }
+
+        /**
+         * Index a suggestion under its text and under each later word of it.
+         * @param suggestion suggestion whose text is indexed; null or blank texts are ignored
+         * @return this builder
+         */
+        public Builder add(SuggestionVO suggestion) {
+            String key = normalize(suggestion.getText());
+            for (int start = 0; start < key.length(); start++) {
+                if (start == 0 || key.charAt(start - 1) == ' ') {
+                    insert(key, start, suggestion);
+                }
+            }
+            return this;
+        }
+
+        /**
+         * Rank completions bottom-up and produce the immutable trie.
+         * @return the trie
+         */
+        public SuggestTrie build() {
+            return new SuggestTrie(freeze(root));
+        }
+
+        private void insert(String key, int start, SuggestionVO suggestion) {
+            MutableNode node = root;
+            int end = Math.min(key.length(), start + MAX_SUGGEST_PREFIX);
+            for (int i = start; i < end; i++) {
+                node = node.children.computeIfAbsent(key.charAt(i), c -> new MutableNode());
+            }
+            node.terminal.add(suggestion);
+        }
+
+        private Node freeze(MutableNode node) {
+            char[] keys = new char[node.children.size()];
+            Node[] children = node.children.isEmpty() ? Node.NO_CHILDREN : new Node[keys.length];
+
+            // a suggestion can reach one node along several word starts, keep it once
+            Set<SuggestionVO> candidates = Collections.newSetFromMap(new IdentityHashMap<>());
+            candidates.addAll(node.terminal);
+            int i = 0;
+            for (Map.Entry<Character, MutableNode> entry : node.children.entrySet()) {
+                keys[i] = entry.getKey();
+                children[i] = freeze(entry.getValue());
+                candidates.addAll(Arrays.asList(children[i].top));
+                i++;
+            }
+            SuggestionVO[] top = candidates.stream().sorted(RANKING).limit(perNode).toArray(SuggestionVO[]::new);
+            return new Node(keys, children, top);
+        }
+    }
+
+    private static final class MutableNode {
+        // TreeMap keeps the frozen key arrays sorted for binary search
+        private final TreeMap<Character, MutableNode> children = new TreeMap<>();
+        private final List<SuggestionVO> terminal = new ArrayList<>(1);
+    }
+}
@@ -0,0 +1,94 @@
+package com.map.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Turns event text and search queries into index terms: lowercase, split on anything that is not a letter or
+ * digit, drop stop words, then strip common English suffixes. Documents and queries must go through the same
+ * analysis, so the stemmer only needs to be consistent, not linguistically exact.
+ */
+public final class TextAnalyzer {
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final Set<String> STOP_WORDS = Set.of(
+        "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "in", "is", "it", "of", "on", "or",
+        "our", "the", "this", "to", "we", "will", "with", "you", "your");
+
+    private TextAnalyzer() {
+    }
+
+    /**
+     * Lowercased tokens of the text, stop words removed, not stemmed.
+     * @param text may be null
+     * @return tokens in text order
+     */
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        for (String token : SEPARATORS.split(text.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty() && !STOP_WORDS.contains(token)) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Index terms of the text.
+     * @param text may be null
+     * @return stemmed tokens in text order, with repeats
+     */
+    public static List<String> analyze(String text) {
+        List<String> terms = tokenize(text);
+        terms.replaceAll(TextAnalyzer::stem);
+        return terms;
+    }
+
+    /**
+     * Light suffix stripping: plurals, then -ing/-ed, then a trailing e, so that
+     * dance, dances, danced and dancing all reduce to the same term.
+     * @param token lowercased token
+     * @return the stem
+     */
+    public static String stem(String token) {
+        if (token.length() <= 3) {
+            return token;
+        }
+        String stem = token;
+        if (stem.endsWith("sses")) {
+            stem = stem.substring(0, stem.length() - 2);
+        } else if (stem.endsWith("ies")) {
+            stem = stem.substring(0, stem.length() - 3) + "y";
+        } else if (stem.endsWith("s") && !stem.endsWith("ss") && !stem.endsWith("us") && !stem.endsWith("is")) {
+            stem = stem.substring(0, stem.length() - 1);
+        }
+
+        if (stem.endsWith("ing") && stem.length() >= 6) {
+            return undouble(stem.substring(0, stem.length() - 3));
+        }
+        if (stem.endsWith("ed") && stem.length() >= 5) {
+            return undouble(stem.substring(0, stem.length() - 2));
+        }
+        if (stem.endsWith("e") && stem.length() >= 5) {
+            return stem.substring(0, stem.length() - 1);
+        }
+        return stem;
+    }
+
+    // running -> runn -> run, but keep fall/pass/buzz
+    private static String undouble(String stem) {
+        int n = stem.length();
+        if (n >= 3 && stem.charAt(n - 1) == stem.charAt(n - 2) && "lsz".indexOf(stem.charAt(n - 1)) < 0
+            && Character.isLetter(stem.charAt(n - 1))) {
+            return stem.substring(0, n - 1);
+        }
+        return stem;
+    }
+}
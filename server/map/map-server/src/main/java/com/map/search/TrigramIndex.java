@@ -0,0 +1,287 @@
+package com.map.search;
+
+import com.map.entity.Event;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Typo-tolerant index over event name and location.
+ * Every token is split into padded trigrams ("  jazz " gives "  j", " ja", "jaz", "azz", "zz "). Events sharing
+ * trigrams with the query become candidates, which are then verified token by token with a bounded edit distance
+ * that counts swapped neighbouring letters as one edit. Candidates are visited from the highest trigram overlap
+ * down: each edit destroys at most four trigrams of a token, so an event missing m of the query's trigrams is at
+ * least ceil(m / 4) edits away, and the scan stops as soon as no remaining candidate can beat the current top k.
+ */
+public class TrigramIndex {
+
+    private static final Comparator<Match> RANKING = Comparator
+        .comparingInt(Match::getDistance)
+        .thenComparing(Comparator.comparingInt(Match::getOverlap).reversed())
+        .thenComparingInt(Match::getEventId);
+
+    // trigram -> ids of events with that trigram in name or location
+    private final Map<String, Set<Integer>> postings = new HashMap<>();
+    private final Map<Integer, Document> documents = new HashMap<>();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Apply a batch of changes under a single write lock.
+     * @param upserts events to add or re-index
+     * @param removals ids of events to drop
+     */
+    public void apply(Collection<Event> upserts, Collection<Integer> removals) {
+        lock.writeLock().lock();
+        try {
+            for (Integer eventId : removals) {
+                remove(eventId);
+            }
+            for (Event event : upserts) {
+                remove(event.getEventId());
+                add(event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Find the events whose name or location best matches the query despite typos.
+     * Every query token must be within {@link #maxEdits(int)} of some token of the event.
+     * @param query free text
+     * @param k maximum number of matches
+     * @return matches ordered by total edit distance, then trigram overlap, then event id
+     */
+    public List<Match> search(String query, int k) {
+        List<String> queryTokens = new ArrayList<>(new LinkedHashSet<>(TextAnalyzer.tokenize(query)));
+        if (queryTokens.isEmpty() || k <= 0) {
+            return List.of();
+        }
+        Set<String> queryGrams = new HashSet<>();
+        for (String token : queryTokens) {
+            queryGrams.addAll(trigrams(token));
+        }
+
+        lock.readLock().lock();
+        try {
+            Map<Integer, Integer> overlaps = new HashMap<>();
+            for (String gram : queryGrams) {
+                Set<Integer> eventIds = postings.get(gram);
+                if (eventIds != null) {
+                    for (Integer eventId : eventIds) {
+                        overlaps.merge(eventId, 1, Integer::sum);
+                    }
+                }
+            }
+            List<Map.Entry<Integer, Integer>> candidates = new ArrayList<>(overlaps.entrySet());
+            candidates.sort(Map.Entry.<Integer, Integer>comparingByValue().reversed()
+                .thenComparing(Map.Entry.comparingByKey()));
+
+            // worst of the current top k on top
+            PriorityQueue<Match> top = new PriorityQueue<>(k + 1, RANKING.reversed());
+            for (Map.Entry<Integer, Integer> candidate : candidates) {
+                int overlap = candidate.getValue();
+                if (top.size() == k) {
+                    int minDistance = (queryGrams.size() - overlap + 3) / 4;
+                    Match worst = top.peek();
+                    if (minDistance > worst.getDistance()
+                        || (minDistance == worst.getDistance() && overlap < worst.getOverlap())) {
+                        break;
+                    }
+                }
+                int distance = distance(queryTokens, documents.get(candidate.getKey()).tokens);
+                if (distance < 0) {
+                    continue;
+                }
+                top.offer(new Match(candidate.getKey(), distance, overlap));
+                if (top.size() > k) {
+                    top.poll();
+                }
+            }
+            List<Match> matches = new ArrayList<>(top);
+            matches.sort(RANKING);
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of indexed events.
+     * @return document count
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Typos tolerated in a query token of the given length.
+     * @param length token length
+     * @return 0 up to 2 characters, 1 up to 5, else 2
+     */
+    static int maxEdits(int length) {
+        if (length <= 2) {
+            return 0;
+        }
+        return length <= 5 ? 1 : 2;
+    }
+
+    /**
+     * Padded trigrams of one token.
+     * @param token lowercased token
+     * @return its length + 1 trigrams
+     */
+    static Set<String> trigrams(String token) {
+        String padded = "  " + token + " ";
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    /**
+     * Edit distance with insertions, deletions, substitutions and adjacent transpositions (optimal string
+     * alignment), abandoned as soon as it must exceed the bound.
+     * @param a
+     * @param b
+     * @param bound largest distance of interest
+     * @return the distance, or bound + 1 if it is larger than bound
+     */
+    static int boundedEditDistance(String a, String b, int bound) {
+        if (Math.abs(a.length() - b.length()) > bound) {
+            return bound + 1;
+        }
+        int[] twoBack = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    current[j] = Math.min(current[j], twoBack[j - 2] + 1);
+                }
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            // cells never decrease along a diagonal, so no later row can get back under the bound
+            if (rowMin > bound) {
+                return bound + 1;
+            }
+            int[] recycled = twoBack;
+            twoBack = previous;
+            previous = current;
+            current = recycled;
+        }
+        return Math.min(previous[b.length()], bound + 1);
+    }
+
+    // sum over query tokens of the distance to the closest event token, -1 if some token has no close match
+    private static int distance(List<String> queryTokens, String[] eventTokens) {
+        int total = 0;
+        for (String queryToken : queryTokens) {
+            int bound = maxEdits(queryToken.length());
+            int best = bound + 1;
+            for (String eventToken : eventTokens) {
+                best = Math.min(best, boundedEditDistance(queryToken, eventToken, Math.min(bound, best)));
+                if (best == 0) {
+                    break;
+                }
+            }
+            if (best > bound) {
+                return -1;
+            }
+            total += best;
+        }
+        return total;
+    }
+
+    private void add(Event event) {
+        Set<String> tokens = new LinkedHashSet<>(TextAnalyzer.tokenize(event.getName()));
+        tokens.addAll(TextAnalyzer.tokenize(event.getLocation()));
+        Set<String> grams = new HashSet<>();
+        for (String token : tokens) {
+            grams.addAll(trigrams(token));
+        }
+        for (String gram : grams) {
+            postings.computeIfAbsent(gram, g -> new HashSet<>()).add(event.getEventId());
+        }
+        documents.put(event.getEventId(), new Document(tokens.toArray(new String[0]), grams));
+    }
+
+    private void remove(Integer eventId) {
+        Document doc = documents.remove(eventId);
+        if (doc == null) {
+            return;
+        }
+        for (String gram : doc.grams) {
+            Set<Integer> eventIds = postings.get(gram);
+            eventIds.remove(eventId);
+            if (eventIds.isEmpty()) {
+                postings.remove(gram);
+            }
+        }
+    }
+
+    private static final class Document {
+        private final String[] tokens;
+        private final Set<String> grams;
+
+        private Document(String[] tokens, Set<String> grams) {
+            this.tokens = tokens;
+            this.grams = grams;
+        }
+    }
+
+    /**
+     * One fuzzy match.
+     */
+    public static final class Match {
+        private final int eventId;
+        private final int distance;
+        private final int overlap;
+
+        public Match(int eventId, int distance, int overlap) {
+            this.eventId = eventId;
+            this.distance = distance;
+            this.overlap = overlap;
+        }
+
+        public int getEventId() {
+            return eventId;
+        }
+
+        /**
+         * Total edits between the query tokens and their closest event tokens.
+         */
+        public int getDistance() {
+            return distance;
+        }
+
+        /**
+         * Number of query trigrams found in the event.
+         */
+        public int getOverlap() {
+            return overlap;
+        }
+    }
+}
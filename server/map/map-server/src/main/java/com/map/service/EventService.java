@@ -2,7 +2,12 @@ package com.map.service;
 
 import com.map.dto.EventQueryDTO;
 import com.map.dto.EventCategoryDTO;
+import com.map.dto.EventSummaryDTO;
 import com.map.entity.Event;
+import com.map.vo.ClusterVO;
+import com.map.vo.EventDistanceVO;
+import com.map.vo.SuggestionVO;
+import com.map.vo.ViewCounterMetricsVO;
 import java.util.List;
 
 public interface EventService {
@@ -14,6 +19,14 @@ public interface EventService {
    */
   List<Event> fetchEvents(EventQueryDTO queryDTO);
 
+  /**
+   * Fetch events by specifications, ordered by trending score (highest first) then event id.
+   * Honors the limit and keyset cursor (afterScore, afterId) of the query.
+   * @param queryDTO
+   * @return one page of events matching the specifications.
+   */
+  List<Event> fetchEventsByTrendingScore(EventQueryDTO queryDTO);
+
   /**
    * Search for a particular event by id.
    * @param eventId
@@ -21,18 +34,92 @@ public interface EventService {
    */
   Event getEventById(Integer eventId);
 
+  /**
+   * Same as fetchEvents, but returning list summaries without description and link.
+   * @param queryDTO
+   * @return summaries of the events matching the specifications.
+   */
+  List<EventSummaryDTO> fetchEventSummaries(EventQueryDTO queryDTO);
+
+  /**
+   * Same as fetchEventsByTrendingScore, but returning list summaries without description and link.
+   * @param queryDTO
+   * @return summaries of one page of events matching the specifications.
+   */
+  List<EventSummaryDTO> fetchEventSummariesByTrendingScore(EventQueryDTO queryDTO);
+
   /**
    * Search for event(s) by roughly matching the value with the event name/event description.
    * @param query
-   * @return list of matching events
+   * @return list of matching events, best match first when served from the search index
    */
   List<Event> getEventByMatching(String query);
 
   /**
-   * Update the view count for the selected event by eventId.
+   * Search for event(s) whose name or location matches the value despite typos.
+   * @param query
+   * @return list of matching events, closest match first
+   */
+  List<Event> getEventByFuzzyMatching(String query);
+
+  /**
+   * Fetch events within a radius of a point, combined with the usual category, location and time filters.
+   * @param queryDTO filters plus optional limit
+   * @param lat latitude of the center
+   * @param lng longitude of the center
+   * @param radiusMeters
+   * @return matching events with their distance, nearest first
+   */
+  List<EventDistanceVO> fetchNearbyEvents(EventQueryDTO queryDTO, double lat, double lng, double radiusMeters);
+
+  /**
+   * Pre-aggregated marker clusters covering a map viewport.
+   * @param minLat
+   * @param maxLat
+   * @param minLng
+   * @param maxLng
+   * @param zoom map zoom level
+   * @return clusters with centroid, count and top event
+   */
+  List<ClusterVO> fetchViewportClusters(double minLat, double maxLat, double minLng, double maxLng, int zoom);
+
+  /**
+   * Typeahead completions among event names, locations and categories.
+   * @param prefix
+   * @param limit
+   * @return completions ranked by trending score
+   */
+  List<SuggestionVO> suggest(String prefix, int limit);
+
+  /**
+   * Page through events roughly matching the value, in event id order.
+   * @param query
+   * @param afterId event id of the last match already returned, null for the first page
+   * @param limit page size
+   * @return one page of matching events
+   */
+  List<Event> getEventByMatching(String query, Integer afterId, Integer limit);
+
+  /**
+   * Count a view of the selected event by eventId if the viewer is new to it; the write to the database is
+   * deferred and batched.
    * @param eventId
+   * @param viewerId user id, or a stable key of an anonymous viewer
+   */
+  void updateViewCount(Integer eventId, String viewerId);
+
+  /**
+   * Estimated distinct viewers of the selected event.
+   * @param eventId
+   * @return
+   */
+  long getUniqueViewers(Integer eventId);
+
+  /**
+   * Metrics of the buffered view counter.
+   * @return flush lag, batch sizes and dropped views
    */
-  void updateViewCount(Integer eventId);
+  ViewCounterMetricsVO getViewCounterMetrics();
 
   /**
    * Update the trending score for the event by eventId
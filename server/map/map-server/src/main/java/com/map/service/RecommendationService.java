@@ -5,6 +5,7 @@ import java.util.List;
 import java.util.Map;
 import org.springframework.stereotype.Service;
 import com.map.dto.EventQueryDTO;
+import com.map.vo.PageVO;
 
 public interface RecommendationService {
 
@@ -17,4 +18,18 @@ public interface RecommendationService {
   * @throws Exception
   */
  List<Event> fetchRecommendations(String userId, EventQueryDTO queryDTO) throws Exception;
+
+ /**
+  * Get one page of recommendations; unlike fetchRecommendations this pages past the fixed limit.
+  * The random boost is seeded per user and day so that consecutive pages come from the same ranking.
+  * @param userId
+  * @param queryDTO optional filter
+  * @param afterRank rank of the last event already returned, null for the first page
+  * @param afterId id of the last event already returned, null for the first page
+  * @param limit page size
+  * @return the page and the cursor of the next one
+  * @throws Exception
+  */
+ PageVO<Event> fetchRecommendationPage(
+     String userId, EventQueryDTO queryDTO, Integer afterRank, Integer afterId, int limit) throws Exception;
 }
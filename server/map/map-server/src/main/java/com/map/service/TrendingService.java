@@ -4,42 +4,49 @@ import java.util.List;
 import org.springframework.stereotype.Service;
 import com.map.entity.Event;
 import com.map.dto.EventQueryDTO;
+import com.map.dto.EventSummaryDTO;
+import com.map.enumeration.HotWindow;
+import com.map.vo.HotEventsVO;
+import com.map.vo.TrendingRecalculationVO;
 
 /**
- * Service responsible for calculating and retrieving trending events based on liked/viewed counts.
+ * Service responsible for persisting and retrieving trending events; scores come from the streaming trending engine.
  */
 public interface TrendingService {
 
     /**
-     * Recalculate trending scores for all events and persist updates in the database.
-    * Logic: trendingScore = (likedCount + viewedCount) / maxPopularity
+     * Reconcile the stored trending scores of all events with the streaming trending engine, writing only the
+    * scores that changed.
     *
-    * Steps:
-    * - Retrieve all events from the database
-    * - Find max (likedCount + viewedCount)
-    * - Normalize each event's popularity
-    * - Save updated trendingScore back to the database
-    *
-    * TODO:
-    * - Replace in-memory data with MySQL-backed EventRepository once DB is connected.
-    * - Swap MockDataLoader.getEvents() with eventRepository.findAll().
-    * - Persist updates with eventRepository.save(event).
+    * @return events scanned and updated, statements sent and duration
     */
-    void recalculateTrendingScores();
+    TrendingRecalculationVO recalculateTrendingScores();
 
     /**
      * Return a list of events sorted by trending score in descending order.
     *
-    * Steps:
-    * - Query events from the database
-    * - Sort by trendingScore DESC
-    * - Return top N (optional)
+    * Ordering and the page limit are pushed down to the event query, so only one page is ever loaded.
+    * Without an explicit limit the top RECOMMENDATION_LIMIT events are returned.
     *
-    * TODO:
-    * - Replace mock data with eventRepository.findAll() when using a real database.
-    * - Optionally add pagination or limit top N results.
-    * @param queryDTO
+    * @param queryDTO filter plus optional limit and (afterScore, afterId) cursor
     * @return List of top trending events
     */
     List<Event> fetchTrendingEvents(EventQueryDTO queryDTO);
+
+    /**
+     * Same as fetchTrendingEvents, but returning list summaries without description and link.
+    *
+    * @param queryDTO filter plus optional limit and (afterScore, afterId) cursor
+    * @return summaries of the top trending events
+    */
+    List<EventSummaryDTO> fetchTrendingEventSummaries(EventQueryDTO queryDTO);
+
+    /**
+     * Events with the most views and likes over a recent window, estimated from fixed-size sketches.
+    *
+    * @param window look-back window
+    * @param limit maximum number of events
+    * @return estimated counts with their error bounds
+    */
+    HotEventsVO fetchHotEvents(HotWindow window, int limit);
 }
@@ -1,16 +1,20 @@
 package com.map.service;
 
 import com.map.vo.UserProfileVO;
+import com.map.dto.InteractionDTO;
 import com.map.dto.UserLikeDTO;
+import com.map.vo.InteractionResultVO;
+import com.map.vo.LikeStateVO;
 import java.util.List;
+import java.util.Map;
 
 public interface UserService {
 
   /**
-   * Fetch the user profile by id.
+   * Fetch the user profile by id, creating the user on its first visit.
    * @param userId
-   * @return user profile if found, else error message.
-   * @throws Exception for invalid user id or no user found.
+   * @return user profile, empty for a new user.
+   * @throws Exception for invalid user id.
    */
   UserProfileVO getUserProfile(String userId) throws Exception;
 
@@ -22,20 +26,38 @@ public interface UserService {
   List<UserLikeDTO> getUserLikeEntries(String userId);
 
   /**
-   * Like an event if it hasn't been liked; else do nothing.
+   * Fetch the user's category preferences --- the time-decayed weight of the user's likes per category.
+   * @param userId
+   * @return weight by category name, only for categories the user has liked events in
+   */
+  Map<String, Double> getCategoryPreferences(String userId);
+
+  /**
+   * Like an event if it hasn't been liked; else only refresh the like timestamp.
    * @param userId
    * @param eventId
+   * @return the like state and like count after the click
    * @throws Exception for user/event not found.
    */
-  void likeEvent(String userId, Integer eventId) throws Exception;
+  LikeStateVO likeEvent(String userId, Integer eventId) throws Exception;
 
   /**
    * Remove like for an event if it has been liked; else do nothing.
    * @param userId
    * @param eventId
+   * @return the like state and like count after the click
    * @throws Exception for user/event not found.
    */
-  void delikeEvent(String userId, Integer eventId) throws Exception;
+  LikeStateVO delikeEvent(String userId, Integer eventId) throws Exception;
+
+  /**
+   * Apply an ordered batch of likes, unlikes, bookmarks, unbookmarks and views in one transaction.
+   * @param userId
+   * @param interactions in the order the user made them
+   * @return one outcome per interaction, in request order
+   * @throws IllegalArgumentException for user not found.
+   */
+  List<InteractionResultVO> applyInteractions(String userId, List<InteractionDTO> interactions);
 
   /**
    * Bookmark an event if it hasn't been bookmarked; else do nothing.
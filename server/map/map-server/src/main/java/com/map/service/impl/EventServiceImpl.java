@@ -1,18 +1,42 @@
 package com.map.service.impl;
 
+import com.map.catalog.EventCatalog;
+import com.map.catalog.EventCatalogSnapshot;
+import com.map.catalog.TimeWindow;
+import com.map.catalog.TimeWindowResolver;
+import com.map.counter.ViewCounter;
 import com.map.dto.EventQueryDTO;
+import com.map.dto.EventSummaryDTO;
 import com.map.entity.Event;
+import com.map.enumeration.EventReadMode;
+import com.map.enumeration.EventSearchMode;
+import com.map.geo.ClusterIndex;
 import com.map.mapper.EventMapper;
+import com.map.search.EventSearchIndex;
+import com.map.search.SuggestIndex;
+import com.map.trending.HotEventTracker;
+import com.map.trending.TrendingEngine;
+import com.map.trending.UniqueViewerTracker;
+import com.map.utils.GeoUtils;
+import com.map.vo.ClusterVO;
+import com.map.vo.EventDistanceVO;
+import com.map.vo.SuggestionVO;
+import com.map.vo.ViewCounterMetricsVO;
 import com.map.service.EventService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 import com.map.dto.EventCategoryDTO;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 
+import static com.map.constant.SearchConstant.SEARCH_LIMIT;
+
 @Service
 public class EventServiceImpl implements EventService {
     private static final Logger logger = LoggerFactory.getLogger(EventServiceImpl.class);
@@ -20,14 +44,169 @@ public class EventServiceImpl implements EventService {
     @Autowired
     private EventMapper eventMapper;
 
+    @Autowired
+    private EventCatalog eventCatalog;
+
+    @Autowired
+    private TimeWindowResolver timeWindowResolver;
+
+    @Autowired
+    private EventSearchIndex eventSearchIndex;
+
+    @Autowired
+    private SuggestIndex suggestIndex;
+
+    @Autowired
+    private ClusterIndex clusterIndex;
+
+    @Autowired
+    private ViewCounter viewCounter;
+
+    @Autowired
+    private TrendingEngine trendingEngine;
+
+    @Autowired
+    private HotEventTracker hotEventTracker;
+
+    @Autowired
+    private UniqueViewerTracker uniqueViewerTracker;
+
+    /**
+     * MYBATIS (default) queries Postgres, CATALOG answers from the in-memory event catalog.
+     */
+    @Value("${app.catalog.mode:MYBATIS}")
+    private EventReadMode readMode;
+
+    /**
+     * INDEX (default) ranks search results from the in-memory inverted index once it is built, LIKE scans Postgres.
+     */
+    @Value("${app.search.mode:INDEX}")
+    private EventSearchMode searchMode;
+
     /**
      * Fetch events by specifications.
+     * The time filter is resolved to a start-time window here, then answered from the in-memory catalog in
+     * CATALOG mode once it has loaded, otherwise from the database.
      * @param queryDTO
      * @return
      */
     @Override
     public List<Event> fetchEvents(EventQueryDTO queryDTO) {
-        return eventMapper.selectEvents(queryDTO);
+        TimeWindow window = timeWindowResolver.resolve(queryDTO);
+        if (readMode == EventReadMode.CATALOG && eventCatalog.isLoaded()) {
+            return eventCatalog.snapshot().select(queryDTO, window);
+        }
+        return eventMapper.selectEvents(withWindow(queryDTO, window));
+    }
+
+    /**
+     * Fetch events by specifications, ordered by trending score then event id, one page at a time.
+     * @param queryDTO
+     * @return
+     */
+    @Override
+    public List<Event> fetchEventsByTrendingScore(EventQueryDTO queryDTO) {
+        TimeWindow window = timeWindowResolver.resolve(queryDTO);
+        if (readMode == EventReadMode.CATALOG && eventCatalog.isLoaded()) {
+            return eventCatalog.snapshot().selectByTrendingScore(queryDTO, window);
+        }
+        return eventMapper.selectTrendingEvents(withWindow(queryDTO, window));
+    }
+
+    /**
+     * Same as fetchEvents, projected to summaries; the database path selects only the summary columns.
+     * @param queryDTO
+     * @return
+     */
+    @Override
+    public List<EventSummaryDTO> fetchEventSummaries(EventQueryDTO queryDTO) {
+        TimeWindow window = timeWindowResolver.resolve(queryDTO);
+        if (readMode == EventReadMode.CATALOG && eventCatalog.isLoaded()) {
+            return eventCatalog.snapshot().select(queryDTO, window).stream().map(EventSummaryDTO::of).toList();
+        }
+        return eventMapper.selectEventSummaries(withWindow(queryDTO, window));
+    }
+
+    /**
+     * Same as fetchEventsByTrendingScore, projected to summaries.
+     * @param queryDTO
+     * @return
+     */
+    @Override
+    public List<EventSummaryDTO> fetchEventSummariesByTrendingScore(EventQueryDTO queryDTO) {
+        TimeWindow window = timeWindowResolver.resolve(queryDTO);
+        if (readMode == EventReadMode.CATALOG && eventCatalog.isLoaded()) {
+            return eventCatalog.snapshot().selectByTrendingScore(queryDTO, window).stream()
+                .map(EventSummaryDTO::of).toList();
+        }
+        return eventMapper.selectTrendingEventSummaries(withWindow(queryDTO, window));
+    }
+
+    /**
+     * Fetch events within a radius of a point, nearest first.
+     * Answered from the catalog's spatial grid once it has loaded, whatever the read mode; until then the
+     * database narrows to the radius' bounding box and distances are computed here.
+     * @param queryDTO
+     * @param lat
+     * @param lng
+     * @param radiusMeters
+     * @return
+     */
+    @Override
+    public List<EventDistanceVO> fetchNearbyEvents(
+        EventQueryDTO queryDTO, double lat, double lng, double radiusMeters) {
+        TimeWindow window = timeWindowResolver.resolve(queryDTO);
+        if (eventCatalog.isLoaded()) {
+            return eventCatalog.snapshot().nearby(queryDTO, window, lat, lng, radiusMeters);
+        }
+
+        double dLat = GeoUtils.latitudeDegrees(radiusMeters);
+        double dLng = GeoUtils.longitudeDegrees(radiusMeters, lat);
+        EventQueryDTO boxQuery = withWindow(queryDTO, window).toBuilder()
+            .minLat(lat - dLat).maxLat(lat + dLat).minLng(lng - dLng).maxLng(lng + dLng)
+            .limit(null)
+            .build();
+        List<EventDistanceVO> result = new ArrayList<>();
+        for (Event event : eventMapper.selectEvents(boxQuery)) {
+            double distance = GeoUtils.haversineMeters(lat, lng, event.getLatitude(), event.getLongitude());
+            if (distance <= radiusMeters) {
+                result.add(new EventDistanceVO(event, distance));
+            }
+        }
+        result.sort(Comparator.comparingDouble(EventDistanceVO::getDistanceMeters)
+            .thenComparing(d -> d.getEvent().getEventId()));
+        if (queryDTO.getLimit() != null && result.size() > queryDTO.getLimit()) {
+            return new ArrayList<>(result.subList(0, queryDTO.getLimit()));
+        }
+        return result;
+    }
+
+    /**
+     * Marker clusters covering a map viewport, read from the pyramid precomputed at the last catalog refresh.
+     * @param minLat
+     * @param maxLat
+     * @param minLng
+     * @param maxLng
+     * @param zoom
+     * @return
+     */
+    @Override
+    public List<ClusterVO> fetchViewportClusters(
+        double minLat, double maxLat, double minLng, double maxLng, int zoom) {
+        return clusterIndex.viewport(minLat, maxLat, minLng, maxLng, zoom);
+    }
+
+    /**
+     * Copy of the query carrying the resolved window as plain from/to bounds for the mapper.
+     */
+    private EventQueryDTO withWindow(EventQueryDTO queryDTO, TimeWindow window) {
+        if (window == null) {
+            return queryDTO;
+        }
+        return queryDTO.toBuilder()
+            .from(window.getFrom())
+            .to(window.getTo())
+            .build();
     }
 
     /**
@@ -42,20 +221,105 @@ public class EventServiceImpl implements EventService {
 
     /**
      * Search for event(s) by roughly matching the value with the event name/event description.
+     * In INDEX mode the top SEARCH_LIMIT matches come ranked by relevance from the inverted index;
+     * in LIKE mode, or before the index is first built, this is a substring scan in the database.
      * @param query
      * @return
      */
     @Override
     public List<Event> getEventByMatching(String query){
+        if (searchMode == EventSearchMode.INDEX && eventSearchIndex.isReady()) {
+            return resolve(eventSearchIndex.search(query, SEARCH_LIMIT));
+        }
         return eventMapper.selectEventByValue(query);
     }
 
     /**
-     * Update the view count for the selected event by eventId.
+     * Typo-tolerant search over event names and locations, closest match first.
+     * Served from the trigram index; before it is first built this falls back to the substring scan.
+     * @param query
+     * @return
+     */
+    @Override
+    public List<Event> getEventByFuzzyMatching(String query){
+        if (eventSearchIndex.isReady()) {
+            return resolve(eventSearchIndex.fuzzySearch(query, SEARCH_LIMIT));
+        }
+        return eventMapper.selectEventByValue(query);
+    }
+
+    /**
+     * Typeahead completions among event names, locations and categories, answered from the suggest trie.
+     * @param prefix
+     * @param limit
+     * @return
+     */
+    @Override
+    public List<SuggestionVO> suggest(String prefix, int limit){
+        return suggestIndex.suggest(prefix, limit);
+    }
+
+    /**
+     * Look up ranked event ids in the current catalog snapshot, keeping their order.
+     */
+    private List<Event> resolve(List<Integer> eventIds) {
+        EventCatalogSnapshot snapshot = eventCatalog.snapshot();
+        List<Event> events = new ArrayList<>(eventIds.size());
+        for (Integer eventId : eventIds) {
+            Event event = snapshot.getEvent(eventId);
+            // the indexes catch up with a new snapshot just after it is published
+            if (event != null) {
+                events.add(event);
+            }
+        }
+        return events;
+    }
+
+    /**
+     * Page through events roughly matching the value, in event id order.
+     * @param query
+     * @param afterId
+     * @param limit
+     * @return
+     */
+    @Override
+    public List<Event> getEventByMatching(String query, Integer afterId, Integer limit){
+        return eventMapper.selectEventByValuePage(query, afterId, limit);
+    }
+
+    /**
+     * Count a view of the selected event by eventId.
+     * Only a viewer the event has not seen before adds to its view count and trending score; the view count is
+     * buffered in memory and written with the next batched flush of the view counter. Every view counts towards
+     * the hot event estimates, which measure activity rather than audience.
      * @param eventId
+     * @param viewerId user id, or a stable key of an anonymous viewer
      */
-    public void updateViewCount(Integer eventId){
-        eventMapper.updateViewCount(eventId);
+    public void updateViewCount(Integer eventId, String viewerId){
+        int newViewers = uniqueViewerTracker.record(eventId, viewerId);
+        if (newViewers > 0) {
+            viewCounter.add(eventId, newViewers);
+            trendingEngine.recordViews(eventId, newViewers);
+        }
+        hotEventTracker.recordView(eventId);
+    }
+
+    /**
+     * Estimated distinct viewers of the selected event, merged over all server nodes.
+     * @param eventId
+     * @return
+     */
+    public long getUniqueViewers(Integer eventId){
+        return uniqueViewerTracker.uniqueViewers(eventId);
+    }
+
+    /**
+     * Flush lag, batch sizes and dropped views of the view counter.
+     * @return
+     */
+    @Override
+    public ViewCounterMetricsVO getViewCounterMetrics(){
+        return viewCounter.metrics();
     }
 
     /**
@@ -66,6 +330,7 @@ public class EventServiceImpl implements EventService {
     @Override
     public void updateTrendingScore(Integer eventId, Double trendingScore) {
         eventMapper.updateTrendingScore(eventId, trendingScore);
+        eventCatalog.markDirty();
     }
 
     /**
@@ -2,28 +2,38 @@ package com.map.service.impl;
 
 import static com.map.constant.RecommendationConstant.RECOMMENDATION_LIMIT;
 
+import com.map.cache.ColdStartRankings;
+import com.map.cache.PersonalMatchIndex;
+import com.map.cache.RecommendationCache;
 import com.map.dto.EventQueryDTO;
 import com.map.dto.EventCategoryDTO;
 import com.map.entity.Event;
 import com.map.service.EventService;
 import com.map.service.UserService;
 import com.map.service.RecommendationService;
+import com.map.utils.ColdStartPool;
+import com.map.utils.CursorUtils;
+import com.map.utils.PersonalMatchKernel;
 import com.map.utils.RecommendationUtils;
+import com.map.vo.PageVO;
 import com.map.vo.UserProfileVO;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashSet; // Add this import
 import java.util.List;
 import java.util.Map;
-import java.util.Set;     // Add this import
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.Collectors;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import com.map.dto.UserLikeDTO;
-import java.util.HashMap;
 
 @Service
 public class RecommendationServiceImpl implements RecommendationService {
@@ -35,9 +45,36 @@ public class RecommendationServiceImpl implements RecommendationService {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private RecommendationCache recommendationCache;
+
+    @Autowired
+    private ColdStartRankings coldStartRankings;
+
+    @Autowired
+    private PersonalMatchIndex personalMatchIndex;
+
+    @Autowired
+    private ForkJoinPool scoringPool;
+
+    /**
+     * Candidate sets at least this large are scored on the scoring pool instead of the request thread.
+     */
+    @Value("${app.recommendations.parallel-threshold:50000}")
+    private int parallelThreshold = 50_000;
+
+    /**
+     * Largest personal match score buffer a request thread keeps for its next request.
+     */
+    @Value("${app.recommendations.score-buffer-max:16384}")
+    private int scoreBufferMax = 16_384;
+
+    private final ThreadLocal<double[]> scoreBuffer = ThreadLocal.withInitial(() -> new double[0]);
+
     /**
      * Get the list of recommendations (up to limit) 
     * only events now onward will be recommended!!!
+    * Served from the recommendation cache, which may return the previous ranking while it recomputes.
     * @param userId
     * @param queryDTO optional filter
     * @return
@@ -45,12 +82,59 @@ public class RecommendationServiceImpl implements RecommendationService {
     */
     @Override
 public List<Event> fetchRecommendations(String userId, EventQueryDTO queryDTO) throws Exception {
-    // Fetch events and the target user profile
-    List<Event> events = new ArrayList<>(eventService.fetchEvents(queryDTO).stream()
-        .filter(e -> e.getStartTime().isAfter(LocalDateTime.now()))
-        .collect(Collectors.toList()));
+    EventQueryDTO filter = withoutPaging(queryDTO);
+    return recommendationCache.get(userId, filter,
+        () -> rankRecommendations(userId, filter, RECOMMENDATION_LIMIT, null));
+}
 
-    logger.debug("Fetched {} events for recommendation filtering", events.size());
+    /**
+     * Get one page of recommendations, ranked past the fixed limit.
+    * @param userId
+    * @param queryDTO optional filter
+    * @param afterRank rank of the last event already returned, null for the first page
+    * @param afterId id of the last event already returned, null for the first page
+    * @param limit page size
+    * @return
+    * @throws Exception
+    */
+    @Override
+public PageVO<Event> fetchRecommendationPage(
+    String userId, EventQueryDTO queryDTO, Integer afterRank, Integer afterId, int limit) throws Exception {
+    int start = afterRank == null ? 0 : afterRank + 1;
+    // one extra to know whether another page follows
+    Random random = new Random(Objects.hash(userId, LocalDate.now()));
+    List<Event> ranked = rankRecommendations(userId, queryDTO, start + limit + 1, random);
+
+    // if the ranking shifted since the previous page (catalog refresh), resume right after the last seen event
+    if (afterId != null && (start - 1 >= ranked.size() || !afterId.equals(ranked.get(start - 1).getEventId()))) {
+        for (int i = 0; i < ranked.size(); i++) {
+            if (afterId.equals(ranked.get(i).getEventId())) {
+                start = i + 1;
+                break;
+            }
+        }
+    }
+
+    int end = Math.min(ranked.size(), start + limit);
+    List<Event> items = start < end ? new ArrayList<>(ranked.subList(start, end)) : new ArrayList<>();
+    String nextCursor = end < ranked.size() && !items.isEmpty()
+        ? CursorUtils.encode(String.valueOf(end - 1), items.get(items.size() - 1).getEventId())
+        : null;
+    return new PageVO<>(items, nextCursor);
+}
+
+    /**
+     * Rank recommendations for the user down to the given depth.
+    * @param userId
+    * @param queryDTO optional filter; any pagination fields are ignored
+    * @param depth number of ranked events to return
+    * @param random source for the random boost, null to use Math.random
+    * @return
+    */
+private List<Event> rankRecommendations(String userId, EventQueryDTO queryDTO, int depth, Random random) {
+    queryDTO = withoutPaging(queryDTO);
+
+    // Fetch the target user profile
     UserProfileVO user;
     try {
         user = userService.getUserProfile(userId);
@@ -65,49 +149,79 @@ public List<Event> fetchRecommendations(String userId, EventQueryDTO queryDTO) t
         return Collections.emptyList(); // return empty list for now
     }
 
-    // Fetch user like entries (event id + timestamp) to be used in personal score calc
+    // Fetch user like entries (event id + timestamp) to tell new users apart
     List<UserLikeDTO> userLikeEntries = userService.getUserLikeEntries(userId);
 
     // Cold Start Handling (for new users with no likes)
     if (userLikeEntries == null || userLikeEntries.isEmpty()) {
         logger.info("Cold start: no like history for userId {}", userId);
-        return RecommendationUtils.getColdStartRecommendations(events);
+        return coldStartRecommendations(queryDTO, depth, random);
     }
 
-    // Get all event IDs we need categories for (current events + liked events)
-    List<Integer> currentEventIds = new ArrayList<>(events.stream()
-        .map(Event::getEventId)
-        .collect(Collectors.toList()));
-    
-    List<Integer> likedEventIds = new ArrayList<>(userLikeEntries.stream()
-        .map(UserLikeDTO::getEventId)
-        .collect(Collectors.toList()));
-    
-    // Combine the lists to get all needed event IDs
-    Set<Integer> allNeededEventIds = new HashSet<>();
-    allNeededEventIds.addAll(currentEventIds);
-    allNeededEventIds.addAll(likedEventIds);
-    
-    // Fetch categories for ALL needed events
-    List<EventCategoryDTO> pairs = eventService.getCategoriesForEvents(
-        new ArrayList<>(allNeededEventIds)
-    );
-
-    // Build the map of event IDs to their categories
-    Map<Integer, List<String>> eventCategoryMap = new HashMap<>();
-    for (EventCategoryDTO pair : pairs) {
-        eventCategoryMap.computeIfAbsent(pair.getEventId(), k -> new ArrayList<>())
-            .add(pair.getCategoryName());
+    // Fetch events to score
+    List<Event> events = upcomingEvents(queryDTO);
+    logger.debug("Fetched {} events for recommendation filtering", events.size());
+
+    // Decayed category weights of the user's likes, maintained on every like and unlike
+    Map<String, Double> categoryPreferences = userService.getCategoryPreferences(userId);
+
+    // Categories of the catalog, indexed once per snapshot; only before the first load are they fetched here
+    PersonalMatchKernel kernel = personalMatchIndex.kernel();
+    if (kernel == null) {
+        List<Integer> currentEventIds = new ArrayList<>(events.stream()
+            .map(Event::getEventId)
+            .collect(Collectors.toList()));
+        List<EventCategoryDTO> pairs = eventService.getCategoriesForEvents(currentEventIds);
+        kernel = PersonalMatchKernel.build(pairs);
     }
 
     logger.info("Generating personalized recommendations for userId {}", userId);
-    
-    // Compute personal match scores
-    Map<Integer, Double> personalMatchScores =
-        RecommendationUtils.computePersonalMatchScores(userLikeEntries, events, eventCategoryMap);
 
-    return RecommendationUtils.scoreAndSortEvents(events, personalMatchScores, 0.7, 0.2, 0.1);
+    // Compute personal match scores into this thread's buffer, consumed before the method returns; a buffer
+    // beyond the cap is not kept, so pooled threads hold at most scoreBufferMax doubles each
+    double[] buffer = scoreBuffer.get();
+    double[] personalMatchScores = kernel.scores(categoryPreferences, events, buffer);
+    if (personalMatchScores != buffer && personalMatchScores.length <= scoreBufferMax) {
+        scoreBuffer.set(personalMatchScores);
+    }
+
+    return RecommendationUtils.scoreAndSortEvents(
+        events, personalMatchScores, 0.7, 0.2, 0.1, depth, random, scoringPoolFor(events));
 }
+
+    // cold start from the candidates shared by all users of the filter; before they are published, or past their
+    // depth, the whole filter is ranked, with the same per-event boosts of the seed so every page agrees
+    private List<Event> coldStartRecommendations(EventQueryDTO queryDTO, int depth, Random random) {
+        long seed = random == null ? ThreadLocalRandom.current().nextLong() : random.nextLong();
+        ColdStartPool pool = coldStartRankings.pool(queryDTO);
+        if (pool == null || !pool.covers(depth)) {
+            List<Event> events = upcomingEvents(queryDTO);
+            pool = ColdStartPool.build(events, depth, events.size());
+        }
+        return pool.sample(depth, seed, LocalDateTime.now());
+    }
+
+    // events of the filter from now onward
+    private List<Event> upcomingEvents(EventQueryDTO queryDTO) {
+        LocalDateTime now = LocalDateTime.now();
+        return new ArrayList<>(eventService.fetchEvents(queryDTO).stream()
+            .filter(e -> e.getStartTime().isAfter(now))
+            .collect(Collectors.toList()));
+    }
+
+    // the filter part of the query
+    private static EventQueryDTO withoutPaging(EventQueryDTO queryDTO) {
+        return queryDTO.toBuilder().limit(null).afterId(null).afterStartTime(null).afterScore(null).build();
+    }
+
+    // the scoring pool for large candidate sets, null to score on the request thread
+    private ForkJoinPool scoringPoolFor(List<Event> events) {
+        if (scoringPool == null || scoringPool.getParallelism() < 2 || events.size() < parallelThreshold) {
+            return null;
+        }
+        return scoringPool;
+    }
+
     // /**
     //  * For new user with no like history, give cold start recommendations (trending + random)
     // *
@@ -1,87 +1,179 @@
 package com.map.service.impl;
 
+import com.map.catalog.EventCatalog;
+import com.map.catalog.EventCatalogSnapshot;
 import com.map.dto.EventQueryDTO;
+import com.map.dto.EventSummaryDTO;
+import com.map.dto.TrendingScoreDTO;
 import com.map.entity.Event;
+import com.map.enumeration.HotWindow;
+import com.map.mapper.EventMapper;
 import com.map.service.EventService;
-import java.util.Comparator;
+import com.map.trending.HotEventTracker;
+import com.map.trending.TrendingEngine;
+import com.map.trending.TrendingLeaderboards;
+import com.map.vo.HotEventVO;
+import com.map.vo.HotEventsVO;
+import com.map.vo.TrendingRecalculationVO;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.OptionalDouble;
+import java.util.Map;
+import org.apache.ibatis.cursor.Cursor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import com.map.service.TrendingService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import static com.map.constant.RecommendationConstant.RECOMMENDATION_LIMIT;
+import static com.map.constant.TrendingConstant.RECALCULATION_BATCH_SIZE;
+import static com.map.constant.TrendingConstant.SCORE_EPSILON;
 
 /**
- * Service responsible for calculating and retrieving trending events based on liked/viewed counts.
+ * Service responsible for persisting and retrieving trending events; scores come from the streaming trending engine.
  */
 @Service
 public class TrendingServiceImpl implements TrendingService {
     private static final Logger logger = LoggerFactory.getLogger(TrendingServiceImpl.class);
     @Autowired
     private EventService eventService;
+    @Autowired
+    private TrendingEngine trendingEngine;
+    @Autowired
+    private EventMapper eventMapper;
+    @Autowired
+    private EventCatalog eventCatalog;
+    @Autowired
+    private TrendingLeaderboards trendingLeaderboards;
+    @Autowired
+    private HotEventTracker hotEventTracker;
     // private List<Event> allEvents = eventService.fetchEvents(EventQueryDTO.builder().build());
 
     /**
-     * Recalculate trending scores for all events and persist updates in the database.
-    * Logic: trendingScore = (likedCount + viewedCount) / maxPopularity
+     * Reconcile the stored trending scores of all events with the streaming trending engine.
+    * The engine keeps scores fresh as likes and views arrive and writes the ones that moved every minute; this
+    * hourly pass also resets events whose stored score predates a restart, or that the engine never saw.
     *
-    * Steps:
-    * - Retrieve all events from the database
-    * - Find max (likedCount + viewedCount)
-    * - Normalize each event's popularity
-    * - Save updated trendingScore back to the database
+    * Only event ids and stored scores are read, streamed through a cursor instead of loading every event, and
+    * only the scores that differ are written, RECALCULATION_BATCH_SIZE per array-parameter UPDATE.
     *
-    * TODO:
-    * - Replace in-memory data with MySQL-backed EventRepository once DB is connected.
-    * - Swap MockDataLoader.getEvents() with eventRepository.findAll().
-    * - Persist updates with eventRepository.save(event).
+    * @return events scanned and updated, statements sent and duration
     */
     // Runs automatically every hour (cron: second=0, minute=0, every hour).
     // This means the POST /trending/recalculate endpoint still exists for manual admin
     // use, but the frontend should NEVER call it — users just call GET /trending.
     @Scheduled(cron = "0 0 * * * *")
-    public void recalculateTrendingScores() {
-        logger.info("Scheduled: recalculating trending scores");
-        List<Event> allEvents = eventService.fetchEvents(EventQueryDTO.builder().build());
+    @Transactional
+    public TrendingRecalculationVO recalculateTrendingScores() {
+        long started = System.nanoTime();
+        Map<Integer, Double> scores = trendingEngine.currentScores();
 
-        OptionalDouble maxPopularityOpt = allEvents.stream()
-            .mapToDouble(e -> e.getLikedCount() + e.getViewedCount())
-            .max();
+        int scanned = 0;
+        int updated = 0;
+        int statements = 0;
+        List<Integer> eventIds = new ArrayList<>();
+        List<Double> changedScores = new ArrayList<>();
+        try (Cursor<TrendingScoreDTO> stored = eventMapper.selectTrendingScores()) {
+            for (TrendingScoreDTO row : stored) {
+                scanned++;
+                double trendingScore = scores.getOrDefault(row.getEventId(), 0.0);
+                if (row.getTrendingScore() == null || Math.abs(row.getTrendingScore() - trendingScore) > SCORE_EPSILON) {
+                    eventIds.add(row.getEventId());
+                    changedScores.add(trendingScore);
+                }
+                if (eventIds.size() == RECALCULATION_BATCH_SIZE) {
+                    updated += writeScores(eventIds, changedScores);
+                    statements++;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (!eventIds.isEmpty()) {
+            updated += writeScores(eventIds, changedScores);
+            statements++;
+        }
+        if (updated > 0) {
+            eventCatalog.markDirty();
+        }
 
-        if (maxPopularityOpt.isEmpty()) return;
+        TrendingRecalculationVO report = TrendingRecalculationVO.builder()
+            .scannedEvents(scanned)
+            .updatedEvents(updated)
+            .statements(statements)
+            .durationMs((System.nanoTime() - started) / 1_000_000)
+            .build();
+        logger.info("Recalculated trending scores: {} events scanned, {} updated in {} statements, {} ms",
+            scanned, updated, statements, report.getDurationMs());
+        return report;
+    }
 
-        double maxPopularity = maxPopularityOpt.getAsDouble();
-        double safeMax = maxPopularity > 0 ? maxPopularity : 1;
-        for (Event event : allEvents) {
-            double rawScore = (double) event.getLikedCount() + event.getViewedCount();
-            double trendingScore = rawScore / safeMax;
-            eventService.updateTrendingScore(event.getEventId(), trendingScore); // persist to DB
+    private int writeScores(List<Integer> eventIds, List<Double> scores) {
+        int updated = eventMapper.updateTrendingScores(eventIds.toArray(new Integer[0]), scores.toArray(new Double[0]));
+        for (int i = 0; i < eventIds.size(); i++) {
+            trendingLeaderboards.update(eventIds.get(i), scores.get(i));
         }
+        eventIds.clear();
+        scores.clear();
+        return updated;
     }
 
     /**
      * Return a list of events sorted by trending score in descending order.
     *
-    * Steps:
-    * - Query events from the database
-    * - Sort by trendingScore DESC
-    * - Return top N (optional)
-    *
-    * TODO:
-    * - Replace mock data with eventRepository.findAll() when using a real database.
-    * - Optionally add pagination or limit top N results.
+    * Category and location filters are answered by walking the in-memory leaderboards; with a time or box filter,
+    * or before the first catalog load, ordering and the page limit are pushed down to the event query instead.
+    * Without an explicit limit the top RECOMMENDATION_LIMIT events are returned.
     *
+    * @param queryDTO filter plus optional limit and (afterScore, afterId) cursor
     * @return List of top trending events
     */
     public List<Event> fetchTrendingEvents(EventQueryDTO queryDTO) {
-        List<Event> allEvents = eventService.fetchEvents(queryDTO);
-        return allEvents.stream()
-            .sorted(Comparator.comparingDouble(Event::getTrendingScore).reversed())
-            .limit(RECOMMENDATION_LIMIT)
-            .toList();
+        if (queryDTO.getLimit() == null) {
+            queryDTO = queryDTO.toBuilder().limit(RECOMMENDATION_LIMIT).build();
+        }
+        List<Event> ranked = trendingLeaderboards.top(queryDTO);
+        if (ranked != null) {
+            return ranked;
+        }
+        return eventService.fetchEventsByTrendingScore(queryDTO);
+    }
+
+    /**
+     * Same as fetchTrendingEvents, but returning list summaries without description and link.
+    *
+    * @param queryDTO filter plus optional limit and (afterScore, afterId) cursor
+    * @return summaries of the top trending events
+    */
+    public List<EventSummaryDTO> fetchTrendingEventSummaries(EventQueryDTO queryDTO) {
+        if (queryDTO.getLimit() == null) {
+            queryDTO = queryDTO.toBuilder().limit(RECOMMENDATION_LIMIT).build();
+        }
+        List<Event> ranked = trendingLeaderboards.top(queryDTO);
+        if (ranked != null) {
+            return ranked.stream().map(EventSummaryDTO::of).toList();
+        }
+        return eventService.fetchEventSummariesByTrendingScore(queryDTO);
+    }
+
+    /**
+     * Events with the most views and likes over a recent window, named from the event catalog.
+    *
+    * @param window look-back window
+    * @param limit maximum number of events
+    * @return estimated counts with their error bounds
+    */
+    public HotEventsVO fetchHotEvents(HotWindow window, int limit) {
+        HotEventsVO hot = hotEventTracker.hot(window, limit);
+        EventCatalogSnapshot snapshot = eventCatalog.snapshot();
+        for (HotEventVO event : hot.getEvents()) {
+            Event known = snapshot.getEvent(event.getEventId());
+            event.setName(known == null ? null : known.getName());
+        }
+        return hot;
     }
 }
@@ -1,11 +1,36 @@
 package com.map.service.impl;
 
+import com.map.cache.RecommendationCache;
+import com.map.cache.UserDirectory;
+import com.map.cache.UserInteractionCache;
+import com.map.cache.UserInteractions;
+import com.map.catalog.EventCatalog;
+import com.map.counter.ViewCounter;
+import com.map.dto.CategoryPreferenceDTO;
+import com.map.dto.InteractionDTO;
+import com.map.enumeration.InteractionStatus;
+import com.map.enumeration.InteractionType;
 import com.map.mapper.UserMapper;
 import com.map.mapper.EventMapper;
 import com.map.service.UserService;
+import com.map.trending.HotEventTracker;
+import com.map.trending.TrendingEngine;
+import com.map.trending.UniqueViewerTracker;
+import com.map.vo.InteractionResultVO;
+import com.map.vo.LikeStateVO;
 import com.map.vo.UserProfileVO;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import org.mybatis.spring.SqlSessionTemplate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -22,11 +47,39 @@ public class UserServiceImpl implements UserService {
     @Autowired
     private EventMapper eventMapper;
 
+    @Autowired
+    private EventCatalog eventCatalog;
+
+    @Autowired
+    private ViewCounter viewCounter;
+
+    @Autowired
+    private TrendingEngine trendingEngine;
+
+    @Autowired
+    private HotEventTracker hotEventTracker;
+
+    @Autowired
+    private UniqueViewerTracker uniqueViewerTracker;
+
+    @Autowired
+    private UserInteractionCache userInteractionCache;
+
+    @Autowired
+    private UserDirectory userDirectory;
+
+    @Autowired
+    private RecommendationCache recommendationCache;
+
+    @Autowired
+    @Qualifier("batchSqlSessionTemplate")
+    private SqlSessionTemplate batchSqlSessionTemplate;
+
     /**
-     * Fetch the user profile by id.
+     * Fetch the user profile by id, creating the user on its first visit.
      * @param userId
-     * @return user profile if found, else error message.
-     * @throws Exception for invalid user id or no user found.
+     * @return user profile, empty for a new user.
+     * @throws Exception for invalid user id.
      */
     @Override
     public UserProfileVO getUserProfile(String userId) throws Exception{
@@ -34,22 +87,23 @@ public class UserServiceImpl implements UserService {
             throw new IllegalArgumentException("User ID cannot be null");
         }
 
-        if (!userMapper.checkUserExists(userId)) {
-          userMapper.createUser(userId);
-          throw new Exception("User not found: " + userId);
+        // a cached user is known to exist, only a miss needs the existence check
+        UserInteractions interactions = userInteractionCache.getIfPresent(userId);
+        if (interactions == null && !userDirectory.exists(userId)) {
+            // idempotent, so concurrent first visits of the same user are harmless
+            userMapper.createUser(userId);
+            userDirectory.add(userId);
         }
 
         try {
-            // Get user's liked events
-            List<Integer> likes = userMapper.getUserLikes(userId);
-            
-            // Get user's bookmarked events
-            List<Integer> bookmarks = userMapper.getUserBookmarks(userId);
+            if (interactions == null) {
+                interactions = userInteractionCache.get(userId);
+            }
 
             // Build and return the UserProfileVO
             return UserProfileVO.builder()
-                    .likes(likes)
-                    .bookmarks(bookmarks)
+                    .likes(interactions.likes())
+                    .bookmarks(interactions.bookmarks())
                     .build();
         } catch (Exception e) {
             throw new RuntimeException("Failed to retrieve user profile", e);
@@ -57,60 +111,217 @@ public class UserServiceImpl implements UserService {
     }
 
     /**
-     * Fetch the user like entries --- event ids and timestamps.
+     * Fetch the user like entries --- event ids and timestamps, from the interaction cache.
      * @param userId
      * @return
      */
     @Override
     public List<UserLikeDTO> getUserLikeEntries(String userId) {
-      return userMapper.getUserLikesWithTimestamps(userId);
+      return userInteractionCache.get(userId).likeEntries();
     }
 
     /**
-     * Like an event if it hasn't been liked; else do nothing.
+     * Fetch the user's category preferences, kept up to date by every like and unlike, so reading them costs
+     * the same however many likes the user has.
      * @param userId
-     * @param eventId
-     * @throws Exception for user/event not found.
+     * @return
      */
-    @Transactional
-    public void likeEvent(String userId, Integer eventId) throws Exception{
-        if(!userMapper.checkUserExists(userId)){
-            throw new IllegalArgumentException("User not found: " + userId);
+    @Override
+    public Map<String, Double> getCategoryPreferences(String userId) {
+        Map<String, Double> preferences = new HashMap<>();
+        for (CategoryPreferenceDTO preference : userMapper.selectCategoryPreferences(userId)) {
+            preferences.put(preference.getCategoryName(), preference.getWeight());
         }
+        return preferences;
+    }
 
-        if(!eventMapper.checkIfEventExists(eventId)){
-            throw new IllegalArgumentException("Event not found: " + eventId);
+    /**
+     * Like an event if it hasn't been liked; else only refresh the like timestamp.
+     * The like row, the event's like count and the user's category preferences change together in a single
+     * statement, so there is no read-then-write window and no multi-statement transaction.
+     * @param userId
+     * @param eventId
+     * @return the like state and like count after the click
+     * @throws Exception for user/event not found.
+     */
+    public LikeStateVO likeEvent(String userId, Integer eventId) throws Exception{
+        LikeStateVO state;
+        try {
+            state = userMapper.likeEvent(userId, eventId);
+        } catch (DataIntegrityViolationException e) {
+            // a foreign key of user_likes failed, find out which one only on this error path
+            throw notFound(userId, eventId);
         }
-
-        // check if the user has already liked the event
-        if(!userMapper.checkIfUserLiked(userId, eventId)){
-            eventMapper.incrementLikedCount(eventId);
+        // also on a repeated like, which moves the like time
+        userInteractionCache.update(userId, u -> u.withLike(eventId, LocalDateTime.now()));
+        recommendationCache.invalidate(userId);
+        if (Boolean.TRUE.equals(state.getChanged())) {
+            trendingEngine.recordLike(eventId);
+            hotEventTracker.recordLike(eventId);
+            eventCatalog.markDirty();
         }
-        // if already liked, then update the timestamp
-        userMapper.likeEvent(userId, eventId);
+        return state;
     }
 
     /**
      * Remove like for an event if it has been liked; else do nothing.
      * @param userId
      * @param eventId
+     * @return the like state and like count after the click
      * @throws Exception for user/event not found.
      */
+    public LikeStateVO delikeEvent(String userId, Integer eventId){
+        LikeStateVO state = userMapper.delikeEvent(userId, eventId);
+        if (state == null) {
+            throw notFound(userId, eventId);
+        }
+        if (Boolean.TRUE.equals(state.getChanged())) {
+            userInteractionCache.update(userId, u -> u.withoutLike(eventId));
+            recommendationCache.invalidate(userId);
+            trendingEngine.recordUnlike(eventId);
+            eventCatalog.markDirty();
+        }
+        return state;
+    }
+
+    private IllegalArgumentException notFound(String userId, Integer eventId) {
+        if (!userDirectory.exists(userId)) {
+            return new IllegalArgumentException("User not found: " + userId);
+        }
+        return new IllegalArgumentException("Event not found: " + eventId);
+    }
+
+    /**
+     * Apply an ordered batch of interactions in one transaction.
+     * The current like and bookmark state of the touched events is read once from the database, locking the
+     * existing like rows, the interactions are replayed against it in memory to get each outcome, and only the
+     * net change per event is written, queued as JDBC batches. Views are counted like single views are, once per
+     * distinct viewer, and net like changes and views feed the trending engine.
+     * @param userId
+     * @param interactions
+     * @return one outcome per interaction, in request order
+     */
+    @Override
     @Transactional
-    public void delikeEvent(String userId, Integer eventId){
-        if(!userMapper.checkUserExists(userId)){
+    public List<InteractionResultVO> applyInteractions(String userId, List<InteractionDTO> interactions) {
+        // MyBatis cannot switch executor type inside a transaction, so reads go through the batch session too
+        UserMapper users = batchSqlSessionTemplate.getMapper(UserMapper.class);
+        EventMapper events = batchSqlSessionTemplate.getMapper(EventMapper.class);
+        if (!userDirectory.exists(userId, users)) {
             throw new IllegalArgumentException("User not found: " + userId);
         }
 
-        if(!eventMapper.checkIfEventExists(eventId)){
-            throw new IllegalArgumentException("Event not found: " + eventId);
+        // sorted, so concurrent batches lock and write the like rows of the same events in the same order
+        List<Integer> eventIds = interactions.stream()
+            .map(InteractionDTO::getEventId).filter(Objects::nonNull).distinct().sorted().toList();
+        Set<Integer> existing = new HashSet<>();
+        // read here rather than from userInteractionCache, which may lag behind another instance's writes
+        Set<Integer> likedBefore = new HashSet<>();
+        Set<Integer> bookmarkedBefore = new HashSet<>();
+        if (!eventIds.isEmpty()) {
+            existing.addAll(events.selectExistingEventIds(eventIds));
+            likedBefore.addAll(users.selectLikedEventIdsForUpdate(userId, eventIds));
+            bookmarkedBefore.addAll(users.selectBookmarkedEventIds(userId, eventIds));
+        }
+
+        Set<Integer> liked = new HashSet<>(likedBefore);
+        Set<Integer> bookmarked = new HashSet<>(bookmarkedBefore);
+        Set<Integer> likeClicked = new HashSet<>();
+        List<Integer> views = new ArrayList<>();
+        List<InteractionResultVO> results = new ArrayList<>(interactions.size());
+        for (int i = 0; i < interactions.size(); i++) {
+            InteractionDTO interaction = interactions.get(i);
+            InteractionType type = interaction.getType() == null ? null : InteractionType.fromParam(interaction.getType());
+            Integer eventId = interaction.getEventId();
+            if (type == null) {
+                results.add(outcome(i, interaction, InteractionStatus.REJECTED, "Invalid interaction type."));
+                continue;
+            }
+            if (eventId == null || !existing.contains(eventId)) {
+                results.add(outcome(i, interaction, InteractionStatus.REJECTED, "Event not found: " + eventId));
+                continue;
+            }
+            boolean changed = switch (type) {
+                case LIKE -> {
+                    likeClicked.add(eventId);
+                    yield liked.add(eventId);
+                }
+                case UNLIKE -> liked.remove(eventId);
+                case BOOKMARK -> bookmarked.add(eventId);
+                case UNBOOKMARK -> bookmarked.remove(eventId);
+                case VIEW -> views.add(eventId);
+            };
+            results.add(outcome(i, interaction,
+                changed ? InteractionStatus.APPLIED : InteractionStatus.UNCHANGED, null));
+        }
+
+        List<Integer> newLikes = new ArrayList<>();
+        List<Integer> removedLikes = new ArrayList<>();
+        for (Integer eventId : eventIds) {
+            boolean wasLiked = likedBefore.contains(eventId);
+            boolean isLiked = liked.contains(eventId);
+            // liked_count moves inside these statements, by what they actually inserted or deleted, so a like or
+            // unlike committed by another request meanwhile is not counted twice
+            if (isLiked && likeClicked.contains(eventId)) {
+                // a repeated like only refreshes the timestamp, as for a single like
+                users.upsertLike(userId, eventId);
+            } else if (wasLiked && !isLiked) {
+                users.deleteLike(userId, eventId);
+            }
+            if (wasLiked != isLiked) {
+                (isLiked ? newLikes : removedLikes).add(eventId);
+            }
+
+            boolean wasBookmarked = bookmarkedBefore.contains(eventId);
+            boolean isBookmarked = bookmarked.contains(eventId);
+            if (!wasBookmarked && isBookmarked) {
+                users.bookmarkEvent(userId, eventId);
+            } else if (wasBookmarked && !isBookmarked) {
+                users.debookmarkEvent(userId, eventId);
+            }
+        }
+        batchSqlSessionTemplate.flushStatements();
+
+        LocalDateTime now = LocalDateTime.now();
+        userInteractionCache.updateAfterCommit(userId, u -> {
+            for (Integer eventId : eventIds) {
+                u = liked.contains(eventId)
+                    ? (likeClicked.contains(eventId) ? u.withLike(eventId, now) : u)
+                    : u.withoutLike(eventId);
+                u = bookmarked.contains(eventId) ? u.withBookmark(eventId) : u.withoutBookmark(eventId);
+            }
+            return u;
+        });
+        if (!likeClicked.isEmpty() || !removedLikes.isEmpty()) {
+            recommendationCache.invalidateAfterCommit(userId);
         }
 
-        // check if the user has already liked the event
-        if(userMapper.checkIfUserLiked(userId, eventId)){
-            eventMapper.decrementLikedCount(eventId);
-            userMapper.delikeEvent(userId, eventId);
+        for (Integer eventId : views) {
+            int newViewers = uniqueViewerTracker.record(eventId, userId);
+            if (newViewers > 0) {
+                viewCounter.add(eventId, newViewers);
+                trendingEngine.recordViews(eventId, newViewers);
+            }
+            hotEventTracker.recordView(eventId);
         }
+        newLikes.forEach(trendingEngine::recordLike);
+        newLikes.forEach(hotEventTracker::recordLike);
+        removedLikes.forEach(trendingEngine::recordUnlike);
+        if (!newLikes.isEmpty() || !removedLikes.isEmpty()) {
+            eventCatalog.markDirty();
+        }
+        return results;
+    }
+
+    private InteractionResultVO outcome(
+        int index, InteractionDTO interaction, InteractionStatus status, String message) {
+        return InteractionResultVO.builder()
+            .index(index)
+            .type(interaction.getType())
+            .eventId(interaction.getEventId())
+            .status(status.name())
+            .message(message)
+            .build();
     }
 
     /**
@@ -120,7 +331,7 @@ public class UserServiceImpl implements UserService {
      * @throws Exception for user/event not found.
      */
     public void bookmarkEvent(String userId, Integer eventId) throws Exception{
-        if(!userMapper.checkUserExists(userId)){
+        if(!userDirectory.exists(userId)){
             throw new IllegalArgumentException("User not found: " + userId);
         }
         if(!eventMapper.checkIfEventExists(eventId)){
@@ -128,6 +339,7 @@ public class UserServiceImpl implements UserService {
         }
 
         userMapper.bookmarkEvent(userId, eventId);
+        userInteractionCache.update(userId, u -> u.withBookmark(eventId));
     }
 
     /**
@@ -137,7 +349,7 @@ public class UserServiceImpl implements UserService {
      * @throws Exception for user/event not found.
      */
     public void debookmarkEvent(String userId, Integer eventId) throws Exception{
-        if(!userMapper.checkUserExists(userId)){
+        if(!userDirectory.exists(userId)){
             throw new IllegalArgumentException("User not found: " + userId);
         }
         if(!eventMapper.checkIfEventExists(eventId)){
@@ -145,5 +357,6 @@ public class UserServiceImpl implements UserService {
         }
 
         userMapper.debookmarkEvent(userId, eventId);
+        userInteractionCache.update(userId, u -> u.withoutBookmark(eventId));
     }
 }
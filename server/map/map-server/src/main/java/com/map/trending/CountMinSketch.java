@@ -0,0 +1,71 @@
+package com.map.trending;
+
+import java.util.Arrays;
+
+/**
+ * Count-Min Sketch over long keys.
+ * {@link #estimate(long)} never undercounts, and overcounts by at most epsilon times the total added with
+ * probability at least 1 - delta, in depth * width counters whatever the number of distinct keys.
+ * Not thread-safe; callers guard each sketch with a lock.
+ */
+final class CountMinSketch {
+
+    private final int width;
+    private final int depth;
+    private final long[] counters;
+    private long total;
+
+    /**
+     * @param epsilon relative error bound, e.g. 0.005
+     * @param delta probability that the bound is exceeded, e.g. 0.01
+     */
+    CountMinSketch(double epsilon, double delta) {
+        this.width = Math.max(1, (int) Math.ceil(Math.E / epsilon));
+        this.depth = Math.max(1, (int) Math.ceil(Math.log(1.0 / delta)));
+        this.counters = new long[width * depth];
+    }
+
+    void add(long key, long count) {
+        long hash1 = mix(key);
+        long hash2 = mix(hash1 ^ 0x9e3779b97f4a7c15L) | 1L;
+        for (int row = 0; row < depth; row++) {
+            counters[row * width + (int) Math.floorMod(hash1 + row * hash2, (long) width)] += count;
+        }
+        total += count;
+    }
+
+    long estimate(long key) {
+        long hash1 = mix(key);
+        long hash2 = mix(hash1 ^ 0x9e3779b97f4a7c15L) | 1L;
+        long min = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            min = Math.min(min, counters[row * width + (int) Math.floorMod(hash1 + row * hash2, (long) width)]);
+        }
+        return min;
+    }
+
+    long total() {
+        return total;
+    }
+
+    /**
+     * The error bound actually achieved by the rounded-up width.
+     */
+    double epsilon() {
+        return Math.E / width;
+    }
+
+    void clear() {
+        Arrays.fill(counters, 0L);
+        total = 0L;
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,61 @@
+package com.map.trending;
+
+import java.util.Arrays;
+
+/**
+ * Ring buffer of per-minute activity of one event over a sliding window.
+ * Each slot remembers the minute it counts for, so a slot left over from an earlier lap of the ring is
+ * recognized as stale and restarted instead of being cleared by a background sweep.
+ */
+final class EventActivity {
+
+    private final long[] minutes;
+    private final double[] weights;
+
+    EventActivity(int windowMinutes) {
+        this.minutes = new long[windowMinutes];
+        this.weights = new double[windowMinutes];
+        Arrays.fill(minutes, Long.MIN_VALUE);
+    }
+
+    /**
+     * Add activity to the bucket of a minute, O(1).
+     */
+    synchronized void add(long minute, double weight) {
+        int slot = (int) Math.floorMod(minute, (long) minutes.length);
+        if (minutes[slot] != minute) {
+            minutes[slot] = minute;
+            weights[slot] = 0.0;
+        }
+        weights[slot] += weight;
+    }
+
+    /**
+     * Sum of the buckets still inside the window, each weighted by the decay factor of its age.
+     * @param nowMinute current minute
+     * @param decayByAge decay factor per bucket age in minutes, one entry per window minute
+     * @return decayed activity, never negative
+     */
+    synchronized double decayed(long nowMinute, double[] decayByAge) {
+        double sum = 0.0;
+        for (int i = 0; i < minutes.length; i++) {
+            long age = nowMinute - minutes[i];
+            if (age >= 0 && age < minutes.length) {
+                sum += weights[i] * decayByAge[(int) age];
+            }
+        }
+        return Math.max(0.0, sum);
+    }
+
+    /**
+     * Whether every bucket has left the window.
+     */
+    synchronized boolean isExpired(long nowMinute) {
+        for (long minute : minutes) {
+            if (minute != Long.MIN_VALUE && nowMinute - minute < minutes.length) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
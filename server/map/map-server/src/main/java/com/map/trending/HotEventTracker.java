@@ -0,0 +1,183 @@
+package com.map.trending;
+
+import com.map.enumeration.HotWindow;
+import com.map.vo.HotEventVO;
+import com.map.vo.HotEventsVO;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Events getting the most views and likes right now, in memory that does not grow with the catalog.
+ * Each minute of the last hour has its own slice: a Count-Min Sketch estimating views and likes per event, and a
+ * Space-Saving summary of the events with the most interactions. A window query adds up the estimates of its
+ * slices for the events monitored in any of them. Slices are reused round-robin, so there is nothing to sweep.
+ */
+@Component
+public class HotEventTracker {
+
+    private static final int VIEW = 0;
+    private static final int LIKE = 1;
+
+    private final int sliceCount = HotWindow.ONE_HOUR.getMinutes();
+
+    @Value("${app.trending.hot.epsilon:0.005}")
+    private double epsilon = 0.005;
+
+    @Value("${app.trending.hot.delta:0.01}")
+    private double delta = 0.01;
+
+    /**
+     * Events monitored per minute; any event with more than 1/capacity of a window's interactions is reported.
+     */
+    @Value("${app.trending.hot.capacity:64}")
+    private int capacity = 64;
+
+    private final Clock clock;
+    private Slice[] slices;
+
+    public HotEventTracker() {
+        this(Clock.systemDefaultZone());
+    }
+
+    public HotEventTracker(Clock clock) {
+        this.clock = clock;
+    }
+
+    @PostConstruct
+    public void init() {
+        slices = new Slice[sliceCount];
+        for (int i = 0; i < sliceCount; i++) {
+            slices[i] = new Slice(new CountMinSketch(epsilon, delta), new SpaceSaving(capacity));
+        }
+    }
+
+    public void recordView(Integer eventId) {
+        record(eventId, VIEW);
+    }
+
+    /**
+     * Count a like that was added; unlikes are not subtracted, a sketch only counts up.
+     * @param eventId
+     */
+    public void recordLike(Integer eventId) {
+        record(eventId, LIKE);
+    }
+
+    private void record(int eventId, int signal) {
+        long minute = clock.millis() / 60_000L;
+        Slice slice = slices[(int) Math.floorMod(minute, (long) sliceCount)];
+        synchronized (slice) {
+            slice.rollTo(minute);
+            slice.sketch.add(key(eventId, signal), 1L);
+            if (signal == VIEW) {
+                slice.views++;
+            } else {
+                slice.likes++;
+            }
+            slice.heavyHitters.add(eventId, 1L);
+        }
+    }
+
+    /**
+     * Events with the most estimated interactions over a window ending now.
+     * @param window
+     * @param limit maximum number of events
+     * @return estimates with their error bounds; event names are left to the caller
+     */
+    public HotEventsVO hot(HotWindow window, int limit) {
+        long nowMinute = clock.millis() / 60_000L;
+        long firstMinute = nowMinute - window.getMinutes() + 1;
+        List<Slice> inWindow = new ArrayList<>(window.getMinutes());
+        for (long minute = firstMinute; minute <= nowMinute; minute++) {
+            inWindow.add(slices[(int) Math.floorMod(minute, (long) sliceCount)]);
+        }
+
+        long totalViews = 0L;
+        long totalLikes = 0L;
+        Set<Integer> candidates = new HashSet<>();
+        for (int i = 0; i < inWindow.size(); i++) {
+            Slice slice = inWindow.get(i);
+            synchronized (slice) {
+                if (slice.minute == firstMinute + i) {
+                    totalViews += slice.views;
+                    totalLikes += slice.likes;
+                    candidates.addAll(slice.heavyHitters.keys());
+                }
+            }
+        }
+
+        // summing per-minute minimums never undercounts and is at least as tight as the minimum of the sums
+        Map<Integer, long[]> estimates = new HashMap<>(candidates.size() * 2);
+        for (int i = 0; i < inWindow.size(); i++) {
+            Slice slice = inWindow.get(i);
+            synchronized (slice) {
+                if (slice.minute != firstMinute + i) {
+                    continue;
+                }
+                for (Integer eventId : candidates) {
+                    long[] estimate = estimates.computeIfAbsent(eventId, k -> new long[2]);
+                    estimate[VIEW] += slice.sketch.estimate(key(eventId, VIEW));
+                    estimate[LIKE] += slice.sketch.estimate(key(eventId, LIKE));
+                }
+            }
+        }
+
+        List<HotEventVO> events = new ArrayList<>(estimates.size());
+        estimates.forEach((eventId, estimate) -> {
+            if (estimate[VIEW] + estimate[LIKE] > 0) {
+                events.add(HotEventVO.builder().eventId(eventId).views(estimate[VIEW]).likes(estimate[LIKE]).build());
+            }
+        });
+        events.sort(Comparator.comparingLong((HotEventVO e) -> e.getViews() + e.getLikes()).reversed()
+            .thenComparing(HotEventVO::getEventId));
+
+        // views and likes share the sketch, so both overcount by at most epsilon times all interactions
+        return HotEventsVO.builder()
+            .window(window.getParam())
+            .totalViews(totalViews)
+            .totalLikes(totalLikes)
+            .errorBound((long) Math.ceil(slices[0].sketch.epsilon() * (totalViews + totalLikes)))
+            .confidence(1.0 - delta)
+            .candidateCapacity(capacity)
+            .events(new ArrayList<>(events.subList(0, Math.min(limit, events.size()))))
+            .build();
+    }
+
+    // views and likes of an event share one sketch under distinct keys
+    private static long key(int eventId, int signal) {
+        return ((long) eventId << 1) | signal;
+    }
+
+    private static final class Slice {
+        private final CountMinSketch sketch;
+        private final SpaceSaving heavyHitters;
+        private long views;
+        private long likes;
+        private long minute = Long.MIN_VALUE;
+
+        private Slice(CountMinSketch sketch, SpaceSaving heavyHitters) {
+            this.sketch = sketch;
+            this.heavyHitters = heavyHitters;
+        }
+
+        // start over when the ring comes back to this slice in a later hour
+        private void rollTo(long nowMinute) {
+            if (minute != nowMinute) {
+                minute = nowMinute;
+                sketch.clear();
+                heavyHitters.clear();
+                views = 0L;
+                likes = 0L;
+            }
+        }
+    }
+}
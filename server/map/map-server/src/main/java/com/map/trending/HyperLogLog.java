@@ -0,0 +1,144 @@
+package com.map.trending;
+
+/**
+ * HyperLogLog distinct counter over strings, 2^precision one-byte registers.
+ * The estimate has a relative standard error of about 1.04 / sqrt(2^precision), e.g. 2.3% in 2 KB at precision
+ * 11. Sketches of the same precision merge by taking the larger register, so per-node sketches of one event
+ * combine into the count of viewers seen by any node. The estimate is kept up to date on every register change,
+ * so reading it is O(1). Not thread-safe; callers guard each sketch with a lock.
+ */
+public final class HyperLogLog {
+
+    private final int precision;
+    private final byte[] registers;
+
+    // sum of 2^-register over all registers, and the number of zero registers
+    private double inverseSum;
+    private int zeros;
+
+    public HyperLogLog(int precision) {
+        this(precision, new byte[1 << precision]);
+    }
+
+    private HyperLogLog(int precision, byte[] registers) {
+        this.precision = precision;
+        this.registers = registers;
+        recount();
+    }
+
+    /**
+     * Rebuild a sketch from {@link #toBytes()}.
+     * @param registers one byte per register, a power of two in length
+     * @return the sketch
+     */
+    public static HyperLogLog fromBytes(byte[] registers) {
+        if (registers.length == 0 || Integer.bitCount(registers.length) != 1) {
+            throw new IllegalArgumentException("Invalid HyperLogLog registers: " + registers.length);
+        }
+        return new HyperLogLog(Integer.numberOfTrailingZeros(registers.length), registers.clone());
+    }
+
+    /**
+     * Add an element.
+     * @param value
+     * @return true if a register changed, false if the element certainly did not change the estimate
+     */
+    public boolean add(String value) {
+        long hash = hash(value);
+        int index = (int) (hash >>> (64 - precision));
+        // rank of the first set bit among the remaining bits, capped past the end
+        int rank = Math.min(Long.numberOfLeadingZeros(hash << precision), 64 - precision) + 1;
+        return raise(index, rank);
+    }
+
+    /**
+     * Fold another sketch of the same precision into this one.
+     * @param other
+     */
+    public void merge(HyperLogLog other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException("Cannot merge HyperLogLog of precision " + other.precision
+                + " into " + precision);
+        }
+        for (int i = 0; i < registers.length; i++) {
+            raise(i, other.registers[i]);
+        }
+    }
+
+    /**
+     * Estimated number of distinct elements added, with the small-range correction of the original paper.
+     * @return
+     */
+    public long estimate() {
+        int m = registers.length;
+        double raw = alpha(m) * m * (double) m / inverseSum;
+        if (raw <= 2.5 * m && zeros > 0) {
+            return Math.round(m * Math.log((double) m / zeros));
+        }
+        return Math.round(raw);
+    }
+
+    public int getPrecision() {
+        return precision;
+    }
+
+    /**
+     * Copy of the registers, for storage or for merging on another node.
+     * @return
+     */
+    public byte[] toBytes() {
+        return registers.clone();
+    }
+
+    private boolean raise(int index, int rank) {
+        int current = registers[index];
+        if (rank <= current) {
+            return false;
+        }
+        inverseSum += Math.scalb(1.0, -rank) - Math.scalb(1.0, -current);
+        if (current == 0) {
+            zeros--;
+        }
+        registers[index] = (byte) rank;
+        return true;
+    }
+
+    private void recount() {
+        inverseSum = 0.0;
+        zeros = 0;
+        for (byte register : registers) {
+            inverseSum += Math.scalb(1.0, -register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+    }
+
+    private static double alpha(int m) {
+        if (m == 16) {
+            return 0.673;
+        }
+        if (m == 32) {
+            return 0.697;
+        }
+        if (m == 64) {
+            return 0.709;
+        }
+        return 0.7213 / (1.0 + 1.079 / m);
+    }
+
+    // 64-bit FNV-1a over the chars, then a finalizer so similar ids spread over all bits
+    private static long hash(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
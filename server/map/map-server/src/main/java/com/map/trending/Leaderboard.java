@@ -0,0 +1,115 @@
+package com.map.trending;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.IntPredicate;
+
+/**
+ * Events of one scope ranked by trending score, highest first, ties by event id, the order of
+ * EventMapper#selectTrendingEvents.
+ * A concurrent skip list holds the ranking and a hash index the current entry of every member, so a score change
+ * costs O(log n) and reading the top k costs O(log n + k), both without blocking readers.
+ */
+final class Leaderboard {
+
+    private static final Comparator<Entry> ORDER = Comparator
+        .comparingDouble((Entry e) -> e.score).reversed()
+        .thenComparingInt(e -> e.eventId);
+
+    private final ConcurrentSkipListSet<Entry> ranking = new ConcurrentSkipListSet<>(ORDER);
+    private final ConcurrentHashMap<Integer, Entry> current = new ConcurrentHashMap<>();
+
+    /**
+     * Add a member, only while the board is being built.
+     */
+    void add(int eventId, double score) {
+        Entry entry = new Entry(eventId, score, Double.NaN);
+        current.put(eventId, entry);
+        ranking.add(entry);
+    }
+
+    /**
+     * Move a member to its new score; events that are not members are ignored.
+     * The new entry is linked, then made current, then the old one is unlinked. A concurrent reader can meet either
+     * entry at any of these steps, so it takes both the current entry and the one it replaces or is replaced by:
+     * an event that moves at most once during a read is never missed, though it may be met at both scores.
+     */
+    synchronized void update(int eventId, double score) {
+        Entry old = current.get(eventId);
+        if (old == null || old.score == score) {
+            return;
+        }
+        Entry entry = new Entry(eventId, score, old.score);
+        ranking.add(entry);
+        current.put(eventId, entry);
+        ranking.remove(old);
+    }
+
+    boolean contains(int eventId) {
+        return current.containsKey(eventId);
+    }
+
+    /**
+     * Current score of a member.
+     * @return the score, or null if the event is not a member
+     */
+    Double score(int eventId) {
+        Entry entry = current.get(eventId);
+        return entry == null ? null : entry.score;
+    }
+
+    int size() {
+        return current.size();
+    }
+
+    /**
+     * Members in ranking order, starting after a keyset cursor.
+     * @param afterScore score of the last member already returned, null for the first page
+     * @param afterId event id of the last member already returned
+     * @param limit maximum number of ids
+     * @param filter further condition on the event id, e.g. membership of another board
+     * @return event ids, best first
+     */
+    List<Integer> top(Double afterScore, Integer afterId, int limit, IntPredicate filter) {
+        NavigableSet<Entry> from = afterScore == null || afterId == null
+            ? ranking
+            : ranking.tailSet(new Entry(afterId, afterScore, Double.NaN), false);
+        // a member moving while we iterate may be met at both scores, and is kept at the first
+        Set<Integer> ids = new LinkedHashSet<>();
+        for (Entry entry : from) {
+            if (ids.size() >= limit) {
+                break;
+            }
+            if (isLive(entry) && filter.test(entry.eventId)) {
+                ids.add(entry.eventId);
+            }
+        }
+        return new ArrayList<>(ids);
+    }
+
+    // the current entry, the one about to become current, or the one it just replaced
+    private boolean isLive(Entry entry) {
+        Entry live = current.get(entry.eventId);
+        return live != null
+            && (live == entry || entry.previousScore == live.score || live.previousScore == entry.score);
+    }
+
+    private static final class Entry {
+        private final int eventId;
+        private final double score;
+        // score of the entry this one replaced, NaN for none; a score rather than the entry, so no chain is kept
+        private final double previousScore;
+
+        private Entry(int eventId, double score, double previousScore) {
+            this.eventId = eventId;
+            this.score = score;
+            this.previousScore = previousScore;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.map.trending;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Space-Saving heavy hitters: a fixed number of monitored keys, where a new key takes over the counter of the
+ * least counted one. Every key seen more than total / capacity times is monitored.
+ * Not thread-safe; callers guard each instance with a lock.
+ */
+final class SpaceSaving {
+
+    private final int capacity;
+    private final Map<Integer, long[]> counts;
+
+    SpaceSaving(int capacity) {
+        this.capacity = capacity;
+        this.counts = new HashMap<>(capacity * 2);
+    }
+
+    void add(int key, long count) {
+        long[] counter = counts.get(key);
+        if (counter != null) {
+            counter[0] += count;
+            return;
+        }
+        if (counts.size() < capacity) {
+            counts.put(key, new long[] {count});
+            return;
+        }
+        // evict the minimum; a linear scan is cheap at the small capacities used here
+        Integer minKey = null;
+        long[] min = null;
+        for (Map.Entry<Integer, long[]> entry : counts.entrySet()) {
+            if (min == null || entry.getValue()[0] < min[0]) {
+                minKey = entry.getKey();
+                min = entry.getValue();
+            }
+        }
+        counts.remove(minKey);
+        min[0] += count;
+        counts.put(key, min);
+    }
+
+    Set<Integer> keys() {
+        return counts.keySet();
+    }
+
+    void clear() {
+        counts.clear();
+    }
+}
@@ -0,0 +1,198 @@
+package com.map.trending;
+
+import com.map.catalog.EventCatalog;
+import com.map.dto.TrendingScoreDTO;
+import com.map.dto.UserLikeDTO;
+import com.map.mapper.EventMapper;
+import com.map.mapper.UserMapper;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import static com.map.constant.TrendingConstant.LIKE_WEIGHT;
+import static com.map.constant.TrendingConstant.SCORE_EPSILON;
+import static com.map.constant.TrendingConstant.VIEW_WEIGHT;
+
+/**
+ * Streaming trending scores.
+ * Likes and views are recorded as they happen into per-event ring buffers of minute buckets, O(1) each.
+ * An event's raw score is its activity over the sliding window with every minute decayed by its age
+ * (half-life configurable), and the trending score is that raw score divided by the highest one, so scores stay
+ * in [0, 1] like before. Scores are written back to events.trending_score periodically, only where they moved,
+ * and passed on to the trending leaderboards.
+ * On startup the window is seeded with the likes stored in user_likes; views from before a restart are lost.
+ */
+@Component
+public class TrendingEngine {
+    private static final Logger logger = LoggerFactory.getLogger(TrendingEngine.class);
+
+    @Autowired
+    private EventMapper eventMapper;
+
+    @Autowired
+    private UserMapper userMapper;
+
+    @Autowired
+    private EventCatalog eventCatalog;
+
+    @Autowired
+    private TrendingLeaderboards trendingLeaderboards;
+
+    @Value("${app.trending.window-minutes:360}")
+    private int windowMinutes = 360;
+
+    @Value("${app.trending.half-life-minutes:60}")
+    private double halfLifeMinutes = 60;
+
+    private final Clock clock;
+    private final long startedAtMillis;
+
+    private final ConcurrentHashMap<Integer, EventActivity> activity = new ConcurrentHashMap<>();
+
+    // decay factor by bucket age in minutes
+    private double[] decayByAge;
+
+    // last score written per event; only touched by persist, which is synchronized
+    private final Map<Integer, Double> persisted = new HashMap<>();
+    private boolean warmed = false;
+
+    public TrendingEngine() {
+        this(Clock.systemDefaultZone());
+    }
+
+    public TrendingEngine(Clock clock) {
+        this.clock = clock;
+        this.startedAtMillis = clock.millis();
+    }
+
+    @PostConstruct
+    public void init() {
+        decayByAge = new double[windowMinutes];
+        for (int age = 0; age < windowMinutes; age++) {
+            decayByAge[age] = Math.pow(0.5, age / halfLifeMinutes);
+        }
+    }
+
+    public void recordView(Integer eventId) {
+        record(eventId, VIEW_WEIGHT, clock.millis());
+    }
+
+    public void recordViews(Integer eventId, int views) {
+        record(eventId, VIEW_WEIGHT * views, clock.millis());
+    }
+
+    public void recordLike(Integer eventId) {
+        record(eventId, LIKE_WEIGHT, clock.millis());
+    }
+
+    public void recordUnlike(Integer eventId) {
+        record(eventId, -LIKE_WEIGHT, clock.millis());
+    }
+
+    private void record(Integer eventId, double weight, long atMillis) {
+        activity.computeIfAbsent(eventId, k -> new EventActivity(windowMinutes)).add(atMillis / 60_000L, weight);
+    }
+
+    /**
+     * Current trending scores of all events with activity in the window; events not listed score 0.
+     * @return event id to score in [0, 1]
+     */
+    public Map<Integer, Double> currentScores() {
+        long nowMinute = clock.millis() / 60_000L;
+        Map<Integer, Double> raw = new HashMap<>();
+        double max = 0.0;
+        for (Map.Entry<Integer, EventActivity> entry : activity.entrySet()) {
+            if (entry.getValue().isExpired(nowMinute)) {
+                activity.remove(entry.getKey(), entry.getValue());
+                continue;
+            }
+            double score = entry.getValue().decayed(nowMinute, decayByAge);
+            if (score > 0.0) {
+                raw.put(entry.getKey(), score);
+                max = Math.max(max, score);
+            }
+        }
+        double safeMax = max;
+        raw.replaceAll((eventId, score) -> score / safeMax);
+        return raw;
+    }
+
+    /**
+     * Write scores that moved since the last write, including events that dropped out of the window.
+     * On failure nothing is marked written, so the next run retries.
+     */
+    @Scheduled(fixedDelayString = "${app.trending.persist-interval-ms:60000}")
+    public synchronized void persist() {
+        if (!warmed) {
+            warm();
+        }
+        Map<Integer, Double> scores = currentScores();
+        List<TrendingScoreDTO> changed = new ArrayList<>();
+        for (Map.Entry<Integer, Double> entry : scores.entrySet()) {
+            Double previous = persisted.get(entry.getKey());
+            if (previous == null || Math.abs(previous - entry.getValue()) > SCORE_EPSILON) {
+                changed.add(new TrendingScoreDTO(entry.getKey(), entry.getValue()));
+            }
+        }
+        for (Map.Entry<Integer, Double> entry : persisted.entrySet()) {
+            if (!scores.containsKey(entry.getKey()) && entry.getValue() != 0.0) {
+                changed.add(new TrendingScoreDTO(entry.getKey(), 0.0));
+            }
+        }
+        if (changed.isEmpty()) {
+            return;
+        }
+        changed.sort((a, b) -> Integer.compare(a.getEventId(), b.getEventId()));
+
+        try {
+            eventMapper.updateTrendingScores(
+                changed.stream().map(TrendingScoreDTO::getEventId).toArray(Integer[]::new),
+                changed.stream().map(TrendingScoreDTO::getTrendingScore).toArray(Double[]::new));
+        } catch (Exception e) {
+            logger.warn("Writing {} trending scores failed, retrying next run: {}", changed.size(), e.getMessage());
+            return;
+        }
+        for (TrendingScoreDTO score : changed) {
+            trendingLeaderboards.update(score.getEventId(), score.getTrendingScore());
+            if (score.getTrendingScore() == 0.0) {
+                persisted.remove(score.getEventId());
+            } else {
+                persisted.put(score.getEventId(), score.getTrendingScore());
+            }
+        }
+        eventCatalog.markDirty();
+        logger.debug("Wrote {} trending scores", changed.size());
+    }
+
+    // seed the window with stored likes from before startup; later ones were recorded live
+    private void warm() {
+        try {
+            long from = startedAtMillis - windowMinutes * 60_000L;
+            List<UserLikeDTO> likes = userMapper.selectLikesBetween(toDateTime(from), toDateTime(startedAtMillis));
+            for (UserLikeDTO like : likes) {
+                long atMillis = like.getTimestamp().atZone(clock.getZone()).toInstant().toEpochMilli();
+                record(like.getEventId(), LIKE_WEIGHT, atMillis);
+            }
+            warmed = true;
+            logger.info("Trending engine seeded with {} likes", likes.size());
+        } catch (Exception e) {
+            logger.warn("Seeding the trending engine failed, retrying next run: {}", e.getMessage());
+        }
+    }
+
+    private LocalDateTime toDateTime(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), clock.getZone());
+    }
+}
@@ -0,0 +1,160 @@
+package com.map.trending;
+
+import com.map.catalog.EventCatalogListener;
+import com.map.catalog.EventCatalogSnapshot;
+import com.map.dto.EventQueryDTO;
+import com.map.entity.Event;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.IntPredicate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Trending leaderboards for the whole catalog, every category and every location, so the trending list is a
+ * lookup instead of a query plus a full sort.
+ * Membership comes from the event catalog and is rebuilt with each snapshot; scores move in O(log n) whenever
+ * the trending engine or the hourly recalculation writes them. A score written between a snapshot load and its
+ * publication is picked up by the next refresh, which that write has already requested.
+ */
+@Component
+public class TrendingLeaderboards implements EventCatalogListener {
+    private static final Logger logger = LoggerFactory.getLogger(TrendingLeaderboards.class);
+
+    private static final IntPredicate ANY = eventId -> true;
+
+    private volatile Boards boards;
+
+    @Override
+    public void onRefresh(EventCatalogSnapshot previous, EventCatalogSnapshot current) {
+        long start = System.nanoTime();
+        Boards next = new Boards(current);
+        for (Integer eventId : current.categorizedEventIds()) {
+            next.join(next.global, eventId);
+        }
+        current.eventIdsByCategory().forEach((category, eventIds) -> next.joinAll(next.byCategory, category, eventIds));
+        current.eventIdsByLocation().forEach((location, eventIds) -> next.joinAll(next.byLocation, location, eventIds));
+        boards = next;
+        logger.info("Trending leaderboards v{} built in {} ms: {} categories, {} locations", current.getVersion(),
+            (System.nanoTime() - start) / 1_000_000, next.byCategory.size(), next.byLocation.size());
+    }
+
+    public boolean isReady() {
+        return boards != null;
+    }
+
+    /**
+     * Move an event to a newly written score on every board it belongs to.
+     * @param eventId
+     * @param trendingScore the score as just written to events.trending_score
+     */
+    public void update(Integer eventId, double trendingScore) {
+        Boards current = boards;
+        if (current == null) {
+            return;
+        }
+        double stored = stored(trendingScore);
+        for (Leaderboard board : current.memberships.getOrDefault(eventId, List.of())) {
+            board.update(eventId, stored);
+        }
+    }
+
+    /**
+     * Answer EventMapper#selectTrendingEvents from the leaderboards, including its keyset pagination.
+     * @param queryDTO category/near filter plus optional limit and (afterScore, afterId) cursor
+     * @return matching events ranked by trending score, or null if the query filters on time or a bounding box,
+     *     which the boards do not cover, or before the first catalog load
+     */
+    public List<Event> top(EventQueryDTO queryDTO) {
+        Boards current = boards;
+        if (current == null || !coveredBy(queryDTO)) {
+            return null;
+        }
+        String category = key(queryDTO.getCategory(), "All Categories");
+        String location = key(queryDTO.getNear(), "All Locations");
+        Leaderboard byCategory = category == null ? null : current.byCategory.get(category);
+        Leaderboard byLocation = location == null ? null : current.byLocation.get(location);
+        if ((category != null && byCategory == null) || (location != null && byLocation == null)) {
+            return new ArrayList<>();
+        }
+
+        // walk the smaller board and probe the other one
+        Leaderboard driver = current.global;
+        IntPredicate filter = ANY;
+        if (byCategory != null && byLocation != null) {
+            boolean categorySmaller = byCategory.size() <= byLocation.size();
+            driver = categorySmaller ? byCategory : byLocation;
+            filter = (categorySmaller ? byLocation : byCategory)::contains;
+        } else if (byCategory != null) {
+            driver = byCategory;
+        } else if (byLocation != null) {
+            driver = byLocation;
+        }
+
+        int limit = queryDTO.getLimit() == null ? Integer.MAX_VALUE : queryDTO.getLimit();
+        List<Integer> eventIds = driver.top(queryDTO.getAfterScore(), queryDTO.getAfterId(), limit, filter);
+        List<Event> events = new ArrayList<>(eventIds.size());
+        for (Integer eventId : eventIds) {
+            Event event = current.snapshot.getEvent(eventId);
+            Double score = driver.score(eventId);
+            // snapshot events are shared and may carry an older score, return copies with the ranked one
+            events.add(event.toBuilder().trendingScore(score == null ? event.getTrendingScore() : score).build());
+        }
+        return events;
+    }
+
+    private static boolean coveredBy(EventQueryDTO queryDTO) {
+        return key(queryDTO.getTime(), "Any Time") == null && queryDTO.getFrom() == null && queryDTO.getTo() == null
+            && queryDTO.getMinLat() == null && queryDTO.getMaxLat() == null
+            && queryDTO.getMinLng() == null && queryDTO.getMaxLng() == null;
+    }
+
+    private static boolean hasValue(String filter) {
+        return filter != null && !filter.isEmpty();
+    }
+
+    // lower-cased filter value, null when the filter is unset or the wildcard
+    private static String key(String filter, String wildcard) {
+        if (!hasValue(filter) || filter.equals(wildcard)) {
+            return null;
+        }
+        return filter.toLowerCase(Locale.ROOT);
+    }
+
+    // events.trending_score is REAL; rank by the value a database read would return, so cursors agree
+    private static double stored(double score) {
+        return (float) score;
+    }
+
+    private static final class Boards {
+        private final EventCatalogSnapshot snapshot;
+        private final Leaderboard global = new Leaderboard();
+        private final Map<String, Leaderboard> byCategory = new HashMap<>();
+        private final Map<String, Leaderboard> byLocation = new HashMap<>();
+        private final Map<Integer, List<Leaderboard>> memberships = new HashMap<>();
+
+        private Boards(EventCatalogSnapshot snapshot) {
+            this.snapshot = snapshot;
+        }
+
+        private void joinAll(Map<String, Leaderboard> scope, String key, List<Integer> eventIds) {
+            Leaderboard board = scope.computeIfAbsent(key, k -> new Leaderboard());
+            for (Integer eventId : eventIds) {
+                join(board, eventId);
+            }
+        }
+
+        private void join(Leaderboard board, Integer eventId) {
+            if (board.contains(eventId)) {
+                return;
+            }
+            Double score = snapshot.getEvent(eventId).getTrendingScore();
+            board.add(eventId, score == null ? 0.0 : stored(score));
+            memberships.computeIfAbsent(eventId, k -> new ArrayList<>(3)).add(board);
+        }
+    }
+}
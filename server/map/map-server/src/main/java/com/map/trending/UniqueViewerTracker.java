@@ -0,0 +1,255 @@
+package com.map.trending;
+
+import com.map.catalog.EventCatalog;
+import com.map.catalog.EventCatalogListener;
+import com.map.catalog.EventCatalogSnapshot;
+import com.map.dto.ViewerSketchDTO;
+import com.map.entity.Event;
+import com.map.mapper.EventMapper;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Distinct viewers per event, so reloading a page or replaying the view endpoint does not inflate view counts.
+ * Every event has a HyperLogLog sketch of its viewer ids, a fixed 2^precision bytes whatever the traffic, instead
+ * of a (viewer, event) row per impression. A view counts only when it raises the event's estimate.
+ * Each node periodically writes its sketches under its own node id; the first run loads this node's rows back,
+ * and reading the unique viewers of an event merges the rows of all nodes.
+ * Only events of the catalog that have not ended get a sketch. Each catalog refresh drops the sketches of events
+ * that ended or left it, and the next flush deletes the stored rows of ended events.
+ */
+@Component
+public class UniqueViewerTracker implements EventCatalogListener {
+    private static final Logger logger = LoggerFactory.getLogger(UniqueViewerTracker.class);
+
+    @Autowired
+    private EventMapper eventMapper;
+
+    @Autowired
+    private EventCatalog eventCatalog;
+
+    @Value("${app.node-id:${HOSTNAME:local}}")
+    private String nodeId = "local";
+
+    /**
+     * 2^precision registers per event; 11 gives 2 KB and a standard error of about 2.3%.
+     */
+    @Value("${app.views.unique.precision:11}")
+    private int precision = 11;
+
+    /**
+     * Events with a sketch; views of further events are all counted, as before deduplication.
+     * Keeps arbitrary ids sent to the endpoint from growing memory without bound.
+     */
+    @Value("${app.views.unique.max-events:20000}")
+    private int maxEvents = 20_000;
+
+    /**
+     * Sketches per INSERT statement.
+     */
+    @Value("${app.views.unique.flush-batch-size:500}")
+    private int flushBatchSize = 500;
+
+    private final ConcurrentHashMap<Integer, Viewers> sketches = new ConcurrentHashMap<>();
+    private volatile boolean loaded = false;
+    // set when a refresh dropped sketches, so the next flush deletes the stored rows of ended events
+    private volatile boolean purgeDue = false;
+
+    /**
+     * Add a viewer of an event.
+     * @param eventId
+     * @param viewerId user id, or any stable key of an anonymous viewer
+     * @return number of new unique viewers to count, usually 0 or 1; 0 for an event the catalog does not have
+     *     or that has ended
+     */
+    public int record(Integer eventId, String viewerId) {
+        Viewers viewers = sketches.get(eventId);
+        if (viewers == null) {
+            EventCatalogSnapshot snapshot = eventCatalog.snapshot();
+            if (!eventCatalog.isLoaded()) {
+                // nothing to check against yet, count without deduplication
+                return 1;
+            }
+            if (!isLive(snapshot.getEvent(eventId), LocalDateTime.now())) {
+                return 0;
+            }
+            if (sketches.size() >= maxEvents) {
+                return 1;
+            }
+            viewers = sketches.computeIfAbsent(eventId, k -> new Viewers(new HyperLogLog(precision)));
+        }
+        synchronized (viewers) {
+            if (!viewers.sketch.add(viewerId)) {
+                return 0;
+            }
+            viewers.dirty = true;
+            return viewers.countUpTo(viewers.sketch.estimate());
+        }
+    }
+
+    /**
+     * Estimated distinct viewers of an event over all nodes.
+     * @param eventId
+     * @return
+     */
+    public long uniqueViewers(Integer eventId) {
+        HyperLogLog merged = new HyperLogLog(precision);
+        Viewers viewers = sketches.get(eventId);
+        if (viewers != null) {
+            synchronized (viewers) {
+                merged.merge(viewers.sketch);
+            }
+        }
+        // this node's stored row is a subset of its live sketch, merging it again changes nothing
+        for (byte[] registers : eventMapper.selectViewerSketchesOfEvent(eventId)) {
+            merged.merge(HyperLogLog.fromBytes(registers));
+        }
+        return merged.estimate();
+    }
+
+    /**
+     * Drop the sketches of events that ended or left the catalog.
+     */
+    @Override
+    public void onRefresh(EventCatalogSnapshot previous, EventCatalogSnapshot current) {
+        LocalDateTime now = LocalDateTime.now();
+        int before = sketches.size();
+        sketches.keySet().removeIf(eventId -> !isLive(current.getEvent(eventId), now));
+        int dropped = before - sketches.size();
+        if (dropped > 0) {
+            purgeDue = true;
+            logger.info("Dropped viewer sketches of {} ended events", dropped);
+        }
+    }
+
+    /**
+     * Write the sketches that gained viewers since the last flush; the first run loads this node's sketches.
+     * Nothing is written until that load succeeds, as the rows written replace the stored ones.
+     */
+    @Scheduled(fixedDelayString = "${app.views.unique.flush-interval-ms:60000}")
+    public synchronized void flush() {
+        if (!loaded && !load()) {
+            return;
+        }
+        if (purgeDue) {
+            purgeDue = false;
+            try {
+                eventMapper.deleteEndedViewerSketches(LocalDateTime.now());
+            } catch (Exception e) {
+                purgeDue = true;
+                logger.warn("Deleting viewer sketches of ended events failed, retrying next run: {}", e.getMessage());
+            }
+        }
+        List<ViewerSketchDTO> changed = new ArrayList<>();
+        for (Map.Entry<Integer, Viewers> entry : sketches.entrySet()) {
+            Viewers viewers = entry.getValue();
+            synchronized (viewers) {
+                if (viewers.dirty) {
+                    viewers.dirty = false;
+                    changed.add(new ViewerSketchDTO(entry.getKey(), viewers.sketch.toBytes()));
+                }
+            }
+        }
+        if (changed.isEmpty()) {
+            return;
+        }
+        changed.sort((a, b) -> Integer.compare(a.getEventId(), b.getEventId()));
+
+        int written = 0;
+        try {
+            while (written < changed.size()) {
+                int end = Math.min(changed.size(), written + flushBatchSize);
+                eventMapper.upsertViewerSketches(nodeId, changed.subList(written, end));
+                written = end;
+            }
+        } catch (Exception e) {
+            for (ViewerSketchDTO sketch : changed.subList(written, changed.size())) {
+                Viewers viewers = sketches.get(sketch.getEventId());
+                if (viewers == null) {
+                    // dropped by a catalog refresh meanwhile
+                    continue;
+                }
+                synchronized (viewers) {
+                    viewers.dirty = true;
+                }
+            }
+            logger.warn("Writing {} viewer sketches failed, retrying next run: {}",
+                changed.size() - written, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    // viewers seen before a restart are not counted again; false if the stored sketches could not be read
+    private boolean load() {
+        List<ViewerSketchDTO> stored;
+        try {
+            stored = eventMapper.selectViewerSketches(nodeId);
+        } catch (Exception e) {
+            logger.warn("Loading viewer sketches failed, retrying next run: {}", e.getMessage());
+            return false;
+        }
+        EventCatalogSnapshot snapshot = eventCatalog.snapshot();
+        LocalDateTime now = LocalDateTime.now();
+        for (ViewerSketchDTO row : stored) {
+            if (eventCatalog.isLoaded() && !isLive(snapshot.getEvent(row.getEventId()), now)) {
+                purgeDue = true;
+                continue;
+            }
+            HyperLogLog sketch = HyperLogLog.fromBytes(row.getRegisters());
+            if (sketch.getPrecision() != precision) {
+                continue;
+            }
+            Viewers viewers = sketches.computeIfAbsent(row.getEventId(), k -> new Viewers(new HyperLogLog(precision)));
+            synchronized (viewers) {
+                viewers.sketch.merge(sketch);
+                viewers.counted = Math.max(viewers.counted, viewers.sketch.estimate());
+            }
+        }
+        loaded = true;
+        logger.info("Loaded {} viewer sketches of node {}", stored.size(), nodeId);
+        return true;
+    }
+
+    // an event of the catalog that has not ended; events without an end time end when they start
+    private static boolean isLive(Event event, LocalDateTime now) {
+        if (event == null) {
+            return false;
+        }
+        LocalDateTime end = event.getEndTime() != null ? event.getEndTime() : event.getStartTime();
+        return end == null || end.isAfter(now);
+    }
+
+    private static final class Viewers {
+        private final HyperLogLog sketch;
+        // unique viewers already counted, the estimate never counts down
+        private long counted;
+        private boolean dirty;
+
+        private Viewers(HyperLogLog sketch) {
+            this.sketch = sketch;
+        }
+
+        private int countUpTo(long estimate) {
+            if (estimate <= counted) {
+                return 0;
+            }
+            int added = (int) (estimate - counted);
+            counted = estimate;
+            return added;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.map.cache;
+
+import com.map.catalog.EventCatalog;
+import com.map.catalog.EventCatalogSnapshot;
+import com.map.dto.EventQueryDTO;
+import com.map.entity.Event;
+import com.map.service.EventService;
+import com.map.utils.ColdStartPool;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ColdStartRankingsTest {
+
+    private static final EventQueryDTO ALL = EventQueryDTO.builder().build();
+    private static final EventQueryDTO MUSIC = EventQueryDTO.builder().category("Music").build();
+
+    @Mock
+    private EventService eventService;
+
+    @Mock
+    private EventCatalog eventCatalog;
+
+    private final List<Runnable> builds = new ArrayList<>();
+
+    private ColdStartRankings rankings;
+
+    @BeforeEach
+    void setUp() {
+        rankings = new ColdStartRankings();
+        ReflectionTestUtils.setField(rankings, "eventService", eventService);
+        ReflectionTestUtils.setField(rankings, "eventCatalog", eventCatalog);
+        ReflectionTestUtils.setField(rankings, "buildExecutor", (Executor) builds::add);
+        when(eventCatalog.snapshot()).thenReturn(EventCatalogSnapshot.empty());
+        when(eventService.fetchEvents(any())).thenReturn(List.of(
+            Event.builder().eventId(1).startTime(LocalDateTime.now().plusDays(1)).likedCount(3).viewedCount(0).build()));
+    }
+
+    @Test
+    void pool_newFilterQueuesABuildInsteadOfBuildingOnTheRequest() {
+        assertNull(rankings.pool(MUSIC));
+        assertNull(rankings.pool(MUSIC));
+        assertEquals(1, builds.size());
+        verify(eventService, never()).fetchEvents(any());
+
+        builds.get(0).run();
+
+        assertNotNull(rankings.pool(MUSIC));
+    }
+
+    @Test
+    void rebuild_buildsTheUnfilteredPoolAndOnlyOutdatedOnes() {
+        rankings.rebuild();
+        ColdStartPool first = rankings.pool(ALL);
+        assertNotNull(first);
+
+        // same catalog snapshot, nothing to do
+        rankings.rebuild();
+        assertSame(first, rankings.pool(ALL));
+
+        when(eventCatalog.snapshot()).thenReturn(EventCatalogSnapshot.build(7, List.of(), List.of()));
+        rankings.rebuild();
+        verify(eventService, times(2)).fetchEvents(ALL);
+    }
+
+    @Test
+    void rebuild_dropsFiltersNotAskedForInAWhile() {
+        rankings.pool(MUSIC);
+        ReflectionTestUtils.setField(rankings, "idleAfterMillis", -1L);
+
+        rankings.rebuild();
+
+        // only the unfiltered pool stays
+        assertEquals(1, rankings.size());
+    }
+}
@@ -0,0 +1,196 @@
+package com.map.cache;
+
+import com.map.catalog.EventCatalog;
+import com.map.catalog.EventCatalogSnapshot;
+import com.map.dto.EventQueryDTO;
+import com.map.entity.Event;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertIterableEquals;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RecommendationCacheTest {
+
+    private static final EventQueryDTO MUSIC = EventQueryDTO.builder().category("Music").build();
+
+    @Mock
+    private EventCatalog eventCatalog;
+
+    private final List<Runnable> refreshes = new ArrayList<>();
+
+    private RecommendationCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new RecommendationCache();
+        ReflectionTestUtils.setField(cache, "eventCatalog", eventCatalog);
+        ReflectionTestUtils.setField(cache, "refreshExecutor", (Executor) refreshes::add);
+        when(eventCatalog.snapshot()).thenReturn(EventCatalogSnapshot.empty());
+    }
+
+    @Test
+    void get_computesOncePerUserAndFilter() {
+        Loader loader = new Loader();
+
+        assertIterableEquals(List.of(1), ids(cache.get("u1", MUSIC, loader)));
+        assertIterableEquals(List.of(1), ids(cache.get("u1", EventQueryDTO.builder().category("Music").build(), loader)));
+        assertIterableEquals(List.of(2), ids(cache.get("u1", EventQueryDTO.builder().build(), loader)));
+        assertIterableEquals(List.of(3), ids(cache.get("u2", MUSIC, loader)));
+
+        assertEquals(3, loader.calls);
+        assertEquals(0, refreshes.size());
+    }
+
+    @Test
+    void get_servesStaleEntryOfInvalidatedUserWhileOneRefreshRuns() {
+        Loader loader = new Loader();
+        cache.get("u1", MUSIC, loader);
+        cache.invalidate("u1");
+
+        assertIterableEquals(List.of(1), ids(cache.get("u1", MUSIC, loader)));
+        assertIterableEquals(List.of(1), ids(cache.get("u1", MUSIC, loader)));
+        assertEquals(1, refreshes.size());
+
+        refreshes.get(0).run();
+
+        assertIterableEquals(List.of(2), ids(cache.get("u1", MUSIC, loader)));
+        assertEquals(2, loader.calls);
+        assertEquals(1, refreshes.size());
+    }
+
+    @Test
+    void get_refreshesAfterCatalogChangeOnlyOnceTheEntryIsOld() {
+        Loader loader = new Loader();
+        cache.get("u1", MUSIC, loader);
+        EventCatalogSnapshot next = EventCatalogSnapshot.build(7, List.of(), List.of());
+        when(eventCatalog.snapshot()).thenReturn(next);
+
+        // a new snapshot alone, as after every view counter flush, is not worth a recompute
+        assertIterableEquals(List.of(1), ids(cache.get("u1", MUSIC, loader)));
+        assertEquals(0, refreshes.size());
+
+        ReflectionTestUtils.setField(cache, "refreshAfterMillis", -1L);
+        assertIterableEquals(List.of(1), ids(cache.get("u1", MUSIC, loader)));
+        refreshes.get(0).run();
+
+        assertIterableEquals(List.of(2), ids(cache.get("u1", MUSIC, loader)));
+        assertEquals(1, refreshes.size());
+    }
+
+    @Test
+    void get_computesAMissingEntryOnceForConcurrentCallers() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        Supplier<List<Event>> slowLoader = () -> {
+            calls.incrementAndGet();
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return List.of(Event.builder().eventId(1).build());
+        };
+        ExecutorService callers = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<List<Event>>> results = new ArrayList<>();
+            results.add(callers.submit(() -> cache.get("u1", MUSIC, slowLoader)));
+            started.await();
+            for (int i = 0; i < 3; i++) {
+                results.add(callers.submit(() -> cache.get("u1", MUSIC, slowLoader)));
+            }
+            // let the joining callers reach the pending computation
+            Thread.sleep(100);
+            release.countDown();
+
+            for (Future<List<Event>> result : results) {
+                assertIterableEquals(List.of(1), ids(result.get(5, TimeUnit.SECONDS)));
+            }
+            assertEquals(1, calls.get());
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    void get_asksForTheRefreshAgainAfterTheExecutorRejectedIt() {
+        List<Runnable> accepted = new ArrayList<>();
+        boolean[] full = {true};
+        ReflectionTestUtils.setField(cache, "refreshExecutor", (Executor) task -> {
+            if (full[0]) {
+                throw new RejectedExecutionException("queue full");
+            }
+            accepted.add(task);
+        });
+        Loader loader = new Loader();
+        cache.get("u1", MUSIC, loader);
+        cache.invalidate("u1");
+
+        assertIterableEquals(List.of(1), ids(cache.get("u1", MUSIC, loader)));
+        full[0] = false;
+        assertIterableEquals(List.of(1), ids(cache.get("u1", MUSIC, loader)));
+        assertEquals(1, accepted.size());
+        accepted.get(0).run();
+
+        assertIterableEquals(List.of(2), ids(cache.get("u1", MUSIC, loader)));
+    }
+
+    @Test
+    void get_recomputesEntryStaleForTooLongOnTheCallingThread() {
+        ReflectionTestUtils.setField(cache, "maxStaleMillis", -1L);
+        Loader loader = new Loader();
+        cache.get("u1", MUSIC, loader);
+
+        assertIterableEquals(List.of(2), ids(cache.get("u1", MUSIC, loader)));
+        assertEquals(0, refreshes.size());
+    }
+
+    @Test
+    void get_evictsLeastRecentlyUsedBeyondMaxEntries() {
+        ReflectionTestUtils.setField(cache, "maxEntries", 2);
+        Loader loader = new Loader();
+        cache.get("u1", MUSIC, loader);
+        cache.get("u2", MUSIC, loader);
+        cache.get("u1", MUSIC, loader);
+        cache.get("u3", MUSIC, loader);
+
+        assertEquals(2, cache.size());
+        // u2 was evicted, u1 was not
+        assertIterableEquals(List.of(4), ids(cache.get("u2", MUSIC, loader)));
+        assertEquals(4, loader.calls);
+    }
+
+    private static List<Integer> ids(List<Event> events) {
+        return events.stream().map(Event::getEventId).toList();
+    }
+
+    // returns a single event numbered by the call
+    private static final class Loader implements Supplier<List<Event>> {
+        private int calls;
+
+        @Override
+        public List<Event> get() {
+            calls++;
+            return List.of(Event.builder().eventId(calls).build());
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.map.cache;
+
+import com.map.mapper.UserMapper;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserDirectoryTest {
+
+    @Mock
+    private UserMapper userMapper;
+
+    @InjectMocks
+    private UserDirectory userDirectory;
+
+    @Test
+    void exists_answersKnownUsersWithoutQueries() {
+        when(userMapper.selectAllUserIds()).thenReturn(List.of("alice", "bob"));
+        userDirectory.refresh();
+
+        assertTrue(userDirectory.exists("alice"));
+        assertTrue(userDirectory.exists("bob"));
+        verify(userMapper, never()).checkUserExists(any());
+    }
+
+    @Test
+    void exists_beforeFirstLoadAsksTheDatabase() {
+        when(userMapper.checkUserExists("alice")).thenReturn(true);
+        when(userMapper.checkUserExists("mallory")).thenReturn(false);
+
+        assertTrue(userDirectory.exists("alice"));
+        assertFalse(userDirectory.exists("mallory"));
+    }
+
+    @Test
+    void exists_missAsksTheDatabaseAndRemembersUsersCreatedElsewhere() {
+        when(userMapper.selectAllUserIds()).thenReturn(List.of("alice"));
+        userDirectory.refresh();
+        // created by another instance since the load
+        when(userMapper.checkUserExists("dave")).thenReturn(true);
+        when(userMapper.checkUserExists("mallory")).thenReturn(false);
+
+        assertTrue(userDirectory.exists("dave"));
+        assertTrue(userDirectory.exists("dave"));
+        assertFalse(userDirectory.exists("mallory"));
+        assertFalse(userDirectory.exists("mallory"));
+        verify(userMapper).checkUserExists("dave");
+        verify(userMapper, times(2)).checkUserExists("mallory");
+    }
+
+    @Test
+    void add_makesNewUsersKnownImmediately() {
+        when(userMapper.selectAllUserIds()).thenReturn(List.of("alice"));
+        userDirectory.refresh();
+
+        userDirectory.add("carol");
+
+        assertTrue(userDirectory.exists("carol"));
+    }
+
+    @Test
+    void bloomFilter_hasNoFalseNegativesAndFewFalsePositives() {
+        BloomFilter bloom = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            bloom.add("user-" + i);
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(bloom.mightContain("user-" + i));
+            if (bloom.mightContain("other-" + i)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+    }
+}
@@ -0,0 +1,99 @@
+package com.map.cache;
+
+import com.map.dto.UserLikeDTO;
+import com.map.mapper.UserMapper;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertIterableEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserInteractionCacheTest {
+
+    private static final LocalDateTime APRIL_20 = LocalDateTime.of(2026, 4, 20, 10, 0);
+
+    @Mock
+    private UserMapper userMapper;
+
+    @InjectMocks
+    private UserInteractionCache cache;
+
+    @Test
+    void get_loadsOnceThenServesFromMemory() {
+        when(userMapper.getUserLikesWithTimestamps("u1")).thenReturn(
+            List.of(new UserLikeDTO(9, APRIL_20), new UserLikeDTO(4, APRIL_20.plusDays(1))));
+        when(userMapper.getUserBookmarks("u1")).thenReturn(List.of(7));
+
+        UserInteractions first = cache.get("u1");
+        UserInteractions second = cache.get("u1");
+
+        assertIterableEquals(List.of(4, 9), second.likes());
+        assertEquals(APRIL_20.plusDays(1), first.likeEntries().get(0).getTimestamp());
+        assertTrue(second.isBookmarked(7));
+        verify(userMapper, times(1)).getUserLikesWithTimestamps("u1");
+    }
+
+    @Test
+    void update_writesThroughToCachedUsersOnly() {
+        when(userMapper.getUserLikesWithTimestamps("u1")).thenReturn(List.of());
+        when(userMapper.getUserBookmarks("u1")).thenReturn(List.of());
+        cache.get("u1");
+
+        cache.update("u1", u -> u.withLike(5, APRIL_20).withBookmark(6));
+        cache.update("u2", u -> u.withLike(5, APRIL_20));
+
+        UserInteractions cached = cache.getIfPresent("u1");
+        assertTrue(cached.isLiked(5));
+        assertTrue(cached.isBookmarked(6));
+        assertNull(cache.getIfPresent("u2"));
+
+        cache.update("u1", u -> u.withoutLike(5));
+        assertFalse(cache.getIfPresent("u1").isLiked(5));
+    }
+
+    @Test
+    void get_doesNotCacheALoadThatRacedWithAWrite() {
+        when(userMapper.getUserLikesWithTimestamps("u1")).thenAnswer(invocation -> {
+            // a like commits while this load is in flight
+            cache.update("u1", u -> u.withLike(5, APRIL_20));
+            return List.of();
+        });
+        when(userMapper.getUserBookmarks("u1")).thenReturn(List.of());
+
+        assertNotNull(cache.get("u1"));
+        assertNull(cache.getIfPresent("u1"));
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedBeyondMaxUsersAndIdleUsers() {
+        ReflectionTestUtils.setField(cache, "maxUsers", 2);
+        when(userMapper.getUserLikesWithTimestamps(anyString())).thenReturn(List.of());
+        when(userMapper.getUserBookmarks(anyString())).thenReturn(List.of());
+        cache.get("u1");
+        cache.get("u2");
+        cache.getIfPresent("u1");
+        cache.get("u3");
+
+        assertNull(cache.getIfPresent("u2"));
+        assertEquals(2, cache.size());
+
+        ReflectionTestUtils.setField(cache, "idleMillis", -1L);
+        cache.evictIdle();
+        assertEquals(0, cache.size());
+    }
+}
@@ -0,0 +1,178 @@
+package com.map.catalog;
+
+import com.map.dto.EventCategoryDTO;
+import com.map.dto.EventQueryDTO;
+import com.map.entity.Event;
+import com.map.vo.EventDistanceVO;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertIterableEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class EventCatalogSnapshotTest {
+
+    // a Wednesday
+    private static final LocalDate TODAY = LocalDate.of(2026, 4, 29);
+
+    private final TimeWindowResolver resolver = new TimeWindowResolver(
+        Clock.fixed(TODAY.atTime(8, 0).atZone(ZoneId.systemDefault()).toInstant(), ZoneId.systemDefault()));
+
+    private final EventCatalogSnapshot snapshot = EventCatalogSnapshot.build(1L,
+        List.of(
+            event(4, "Main Green", TODAY.plusDays(8).atTime(12, 0)),
+            event(1, "Main Green", TODAY.atTime(18, 0)),
+            event(2, "Sayles Hall", TODAY.plusDays(1).atTime(9, 0)),
+            event(3, "main green", TODAY.plusDays(1).atTime(20, 0)),
+            event(5, "Sayles Hall", TODAY.atTime(10, 0))
+        ),
+        List.of(
+            category(1, "Music"),
+            category(2, "Music"),
+            category(2, "Talk"),
+            category(3, "Talk"),
+            category(4, "Music")
+            // event 5 has no category, like selectEvents' inner join it never matches
+        ));
+
+    @Test
+    void select_noFilters_returnsCategorizedEventsByStartTime() {
+        List<Event> events = select(EventQueryDTO.builder().build());
+
+        assertIterableEquals(List.of(1, 2, 3, 4), ids(events));
+    }
+
+    @Test
+    void select_categoryAndLocationAreCaseInsensitive() {
+        List<Event> events = select(EventQueryDTO.builder().category("music").near("MAIN GREEN").build());
+
+        assertIterableEquals(List.of(1, 4), ids(events));
+    }
+
+    @Test
+    void select_timeWindowIsInclusiveLikeBetween() {
+        List<Event> today = select(EventQueryDTO.builder().time("Today").build());
+        List<Event> nextWeek = select(EventQueryDTO.builder().time("Next Week").category("Music").build());
+
+        assertIterableEquals(List.of(1), ids(today));
+        assertIterableEquals(List.of(4), ids(nextWeek));
+    }
+
+    @Test
+    void select_arbitraryRangeNarrowsNamedWindow() {
+        List<Event> range = select(EventQueryDTO.builder()
+            .from(TODAY.plusDays(1).atTime(8, 0)).to(TODAY.plusDays(1).atTime(20, 0)).build());
+        List<Event> narrowed = select(EventQueryDTO.builder()
+            .time("This Week").from(TODAY.plusDays(1).atTime(12, 0)).build());
+
+        assertIterableEquals(List.of(2, 3), ids(range));
+        assertIterableEquals(List.of(3), ids(narrowed));
+    }
+
+    @Test
+    void select_unknownCategoryOrWildcards() {
+        assertEquals(0, select(EventQueryDTO.builder().category("Sports").build()).size());
+        assertEquals(4, select(EventQueryDTO.builder()
+            .category("All Categories").time("Any Time").near("All Locations").build()).size());
+    }
+
+    @Test
+    void select_keysetPagesThroughStartTimeOrder() {
+        List<Event> first = select(EventQueryDTO.builder().limit(2).build());
+        Event last = first.get(first.size() - 1);
+        List<Event> second = select(EventQueryDTO.builder()
+            .limit(2).afterStartTime(last.getStartTime()).afterId(last.getEventId()).build());
+
+        assertIterableEquals(List.of(1, 2), ids(first));
+        assertIterableEquals(List.of(3, 4), ids(second));
+    }
+
+    @Test
+    void selectByTrendingScore_ordersByScoreAndPagesPastCursor() {
+        EventCatalogSnapshot scored = EventCatalogSnapshot.build(2L,
+            List.of(
+                scoredEvent(1, 0.2),
+                scoredEvent(2, 0.9),
+                scoredEvent(3, 0.2)),
+            List.of(category(1, "Music"), category(2, "Music"), category(3, "Music")));
+
+        List<Event> first = scored.selectByTrendingScore(EventQueryDTO.builder().limit(2).build(), null);
+        List<Event> second = scored.selectByTrendingScore(
+            EventQueryDTO.builder().limit(2).afterScore(0.2).afterId(1).build(), null);
+
+        assertIterableEquals(List.of(2, 1), ids(first));
+        assertIterableEquals(List.of(3), ids(second));
+    }
+
+    @Test
+    void nearby_returnsEventsWithinRadiusNearestFirst() {
+        // Main Green, ~90 m east of it, ~1.1 km north, and one without coordinates
+        EventCatalogSnapshot located = EventCatalogSnapshot.build(3L,
+            List.of(
+                locatedEvent(1, 41.8268, -71.4025, TODAY.atTime(18, 0)),
+                locatedEvent(2, 41.8268, -71.4014, TODAY.plusDays(2).atTime(18, 0)),
+                locatedEvent(3, 41.8368, -71.4025, TODAY.atTime(19, 0)),
+                event(4, "Main Green", TODAY.atTime(20, 0))),
+            List.of(category(1, "Music"), category(2, "Talk"), category(3, "Music"), category(4, "Music")));
+
+        List<EventDistanceVO> near = located.nearby(EventQueryDTO.builder().build(), null, 41.8268, -71.4024, 500);
+        List<EventDistanceVO> wide = located.nearby(
+            EventQueryDTO.builder().category("Music").build(), resolver.resolve("Today"), 41.8268, -71.4024, 2000);
+
+        assertIterableEquals(List.of(1, 2), near.stream().map(d -> d.getEvent().getEventId()).toList());
+        assertEquals(8.3, near.get(0).getDistanceMeters(), 0.5);
+        assertIterableEquals(List.of(1, 3), wide.stream().map(d -> d.getEvent().getEventId()).toList());
+    }
+
+    @Test
+    void getEvent_looksUpById() {
+        assertEquals("Sayles Hall", snapshot.getEvent(5).getLocation());
+        assertNull(snapshot.getEvent(99));
+    }
+
+    private List<Event> select(EventQueryDTO queryDTO) {
+        return snapshot.select(queryDTO, resolver.resolve(queryDTO));
+    }
+
+    private List<Integer> ids(List<Event> events) {
+        return events.stream().map(Event::getEventId).toList();
+    }
+
+    private Event event(int eventId, String location, LocalDateTime startTime) {
+        return Event.builder()
+            .eventId(eventId)
+            .name("Event " + eventId)
+            .startTime(startTime)
+            .endTime(startTime.plusHours(1))
+            .location(location)
+            .likedCount(0)
+            .viewedCount(0)
+            .trendingScore(0.0)
+            .build();
+    }
+
+    private Event locatedEvent(int eventId, double latitude, double longitude, LocalDateTime startTime) {
+        Event event = event(eventId, "Main Green", startTime);
+        event.setLatitude(latitude);
+        event.setLongitude(longitude);
+        return event;
+    }
+
+    private Event scoredEvent(int eventId, double trendingScore) {
+        Event event = event(eventId, "Main Green", TODAY.atTime(18, 0));
+        event.setTrendingScore(trendingScore);
+        return event;
+    }
+
+    private EventCategoryDTO category(int eventId, String categoryName) {
+        EventCategoryDTO dto = new EventCategoryDTO();
+        dto.setEventId(eventId);
+        dto.setCategoryName(categoryName);
+        return dto;
+    }
+}
@@ -0,0 +1,42 @@
+package com.map.catalog;
+
+import com.map.entity.Event;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertIterableEquals;
+
+class StartTimeIndexTest {
+
+    private static final LocalDateTime NOON = LocalDateTime.of(2026, 5, 1, 12, 0);
+
+    @Test
+    void build_ordersByStartTimeThenEventIdWithMissingStartTimesLast() {
+        Event[] events = {
+            event(7, NOON.plusHours(1)),
+            event(3, null),
+            event(9, NOON),
+            event(-4, NOON.plusHours(1)),
+            event(2, NOON),
+            event(1, null),
+        };
+
+        StartTimeIndex index = StartTimeIndex.build(events);
+
+        List<Integer> ids = new ArrayList<>();
+        for (int slot = 0; slot < index.size(); slot++) {
+            ids.add(events[index.positionAt(slot)].getEventId());
+        }
+        assertIterableEquals(List.of(2, 9, -4, 7, 1, 3), ids);
+        TimeWindow window = new TimeWindow(NOON.plusMinutes(30), NOON.plusHours(2));
+        assertEquals(2, index.lowerBound(window));
+        assertEquals(4, index.upperBound(window));
+    }
+
+    private static Event event(int eventId, LocalDateTime startTime) {
+        return Event.builder().eventId(eventId).startTime(startTime).build();
+    }
+}
@@ -1,8 +1,11 @@
 package com.map.controller;
 
+import com.map.dto.EventSummaryDTO;
 import com.map.entity.Event;
 import com.map.service.EventService;
 import com.map.service.RecommendationService;
+import com.map.utils.CursorUtils;
+import com.map.vo.SuggestionVO;
 import java.time.LocalDateTime;
 import java.util.List;
 import org.junit.jupiter.api.Test;
@@ -55,6 +58,65 @@ class EndpointIntegrationTest {
         ));
     }
 
+    @Test
+    void eventsFilter_summaryViewLeavesOutDescription() throws Exception {
+        when(eventService.fetchEventSummaries(argThat(dto -> "Music".equals(dto.getCategory()))))
+            .thenReturn(List.of(EventSummaryDTO.of(event(101, "Jazz Night", "Main Green"))));
+
+        mockMvc.perform(get("/events/filter").param("category", "Music").param("view", "summary"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.data[0].eventId").value(101))
+            .andExpect(jsonPath("$.data[0].name").value("Jazz Night"))
+            .andExpect(jsonPath("$.data[0].description").doesNotExist());
+
+        mockMvc.perform(get("/events/filter").param("view", "compact"))
+            .andExpect(jsonPath("$.code").value(0))
+            .andExpect(jsonPath("$.msg").value("Invalid view."));
+    }
+
+    @Test
+    void eventsFilter_rejectsInvertedTimeRange() throws Exception {
+        mockMvc.perform(get("/events/filter")
+                .param("from", "2026-05-02T00:00:00")
+                .param("to", "2026-05-01T00:00:00"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.code").value(0))
+            .andExpect(jsonPath("$.msg").value("Invalid time range."));
+    }
+
+    @Test
+    void eventsFilter_withLimit_returnsPageAndContinuesFromCursor() throws Exception {
+        when(eventService.fetchEvents(argThat(dto -> dto.getLimit() == 3 && dto.getAfterId() == null)))
+            .thenReturn(List.of(event(101, "A", "Main Green"), event(102, "B", "Main Green"), event(103, "C", "Main Green")));
+
+        String cursor = CursorUtils.encode("2026-05-01T19:00", 102);
+        mockMvc.perform(get("/events/filter").param("limit", "2"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.code").value(1))
+            .andExpect(jsonPath("$.data.items.length()").value(2))
+            .andExpect(jsonPath("$.data.items[1].eventId").value(102))
+            .andExpect(jsonPath("$.data.nextCursor").value(cursor));
+
+        mockMvc.perform(get("/events/filter").param("limit", "2").param("after", cursor))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.data.items.length()").value(0))
+            .andExpect(jsonPath("$.data.nextCursor").doesNotExist());
+
+        verify(eventService).fetchEvents(argThat(dto -> dto.getAfterId() != null
+            && dto.getAfterId() == 102
+            && LocalDateTime.of(2026, 5, 1, 19, 0).equals(dto.getAfterStartTime())));
+    }
+
+    @Test
+    void eventsFilter_rejectsBadPageSizeAndCursor() throws Exception {
+        mockMvc.perform(get("/events/filter").param("limit", "0"))
+            .andExpect(jsonPath("$.code").value(0))
+            .andExpect(jsonPath("$.msg").value("Invalid page size."));
+        mockMvc.perform(get("/events/filter").param("limit", "10").param("after", "not-a-cursor"))
+            .andExpect(jsonPath("$.code").value(0))
+            .andExpect(jsonPath("$.msg").value("Invalid cursor."));
+    }
+
     @Test
     void recommendationsEndpoint_returnsRecommendationResults() throws Exception {
         when(recommendationService.fetchRecommendations(
@@ -92,6 +154,42 @@ class EndpointIntegrationTest {
         verify(eventService).getEventByMatching("concert");
     }
 
+    @Test
+    void eventsQuery_fuzzyUsesTypoTolerantSearch() throws Exception {
+        when(eventService.getEventByFuzzyMatching("consert")).thenReturn(List.of(
+            event(301, "Spring Concert", "Sayles Hall")
+        ));
+
+        mockMvc.perform(get("/events").param("query", "consert").param("fuzzy", "true"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.data[0].eventId").value(301));
+
+        verify(eventService).getEventByFuzzyMatching("consert");
+    }
+
+    @Test
+    void eventsSuggest_returnsCompletions() throws Exception {
+        when(eventService.suggest("jaz", 5)).thenReturn(List.of(
+            SuggestionVO.builder().text("Jazz Night").type("event").eventId(101).score(0.8).build()
+        ));
+
+        mockMvc.perform(get("/events/suggest").param("prefix", "jaz").param("limit", "5"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.data[0].text").value("Jazz Night"))
+            .andExpect(jsonPath("$.data[0].eventId").value(101));
+    }
+
+    @Test
+    void eventsNearby_rejectsOversizedRadius() throws Exception {
+        mockMvc.perform(get("/events/nearby")
+                .param("lat", "41.8268")
+                .param("lng", "-71.4025")
+                .param("radiusMeters", "1000000"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.code").value(0))
+            .andExpect(jsonPath("$.msg").value("Invalid radius."));
+    }
+
     private Event event(int eventId, String name, String location) {
         LocalDateTime startTime = LocalDateTime.of(2026, 5, 1, 19, 0);
         return Event.builder()
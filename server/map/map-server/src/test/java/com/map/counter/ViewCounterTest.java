@@ -0,0 +1,126 @@
+package com.map.counter;
+
+import com.map.catalog.EventCatalog;
+import com.map.dto.ViewDeltaDTO;
+import com.map.mapper.EventMapper;
+import com.map.vo.ViewCounterMetricsVO;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ViewCounterTest {
+
+    @Mock
+    private EventMapper eventMapper;
+
+    @Mock
+    private EventCatalog eventCatalog;
+
+    @InjectMocks
+    private ViewCounter viewCounter;
+
+    @Test
+    void flush_writesAggregatedDeltasInEventIdOrder() {
+        List<List<ViewDeltaDTO>> batches = capture();
+        viewCounter.increment(7);
+        viewCounter.increment(3);
+        viewCounter.increment(7);
+
+        assertTrue(viewCounter.flush());
+
+        assertEquals(List.of(new ViewDeltaDTO(3, 1L), new ViewDeltaDTO(7, 2L)), batches.get(0));
+        verify(eventCatalog).markDirty();
+        ViewCounterMetricsVO metrics = viewCounter.metrics();
+        assertEquals(2, metrics.getLastBatchSize());
+        assertEquals(3L, metrics.getFlushedViews());
+        assertEquals(0L, metrics.getPendingViews());
+    }
+
+    @Test
+    void flush_withNothingPendingSkipsTheDatabase() {
+        assertTrue(viewCounter.flush());
+
+        verify(eventMapper, never()).incrementViewCounts(any());
+        verify(eventCatalog, never()).markDirty();
+    }
+
+    @Test
+    void flush_splitsLargeBatches() {
+        List<List<ViewDeltaDTO>> batches = capture();
+        ReflectionTestUtils.setField(viewCounter, "flushBatchSize", 2);
+        for (int eventId = 1; eventId <= 5; eventId++) {
+            viewCounter.increment(eventId);
+        }
+
+        viewCounter.flush();
+
+        assertEquals(List.of(2, 2, 1), batches.stream().map(List::size).toList());
+    }
+
+    @Test
+    void flush_failureKeepsDeltasForTheNextAttempt() {
+        when(eventMapper.incrementViewCounts(any()))
+            .thenThrow(new DataAccessResourceFailureException("down"))
+            .thenReturn(1);
+        viewCounter.increment(4);
+        viewCounter.increment(4);
+
+        assertFalse(viewCounter.flush());
+        assertEquals(2L, viewCounter.metrics().getPendingViews());
+        assertEquals(1L, viewCounter.metrics().getFailedFlushes());
+
+        assertTrue(viewCounter.flush());
+        assertEquals(2L, viewCounter.metrics().getFlushedViews());
+    }
+
+    @Test
+    void increment_dropsViewsOfNewEventsOverTheCap() {
+        ReflectionTestUtils.setField(viewCounter, "maxPendingEvents", 2);
+        viewCounter.increment(1);
+        viewCounter.increment(2);
+        viewCounter.increment(3);
+        viewCounter.increment(1);
+
+        ViewCounterMetricsVO metrics = viewCounter.metrics();
+        assertEquals(2, metrics.getPendingEvents());
+        assertEquals(3L, metrics.getPendingViews());
+        assertEquals(1L, metrics.getDroppedViews());
+    }
+
+    @Test
+    void flushOnShutdown_countsUnwrittenViewsAsDropped() {
+        when(eventMapper.incrementViewCounts(any())).thenThrow(new DataAccessResourceFailureException("down"));
+        viewCounter.increment(9);
+
+        viewCounter.flushOnShutdown();
+
+        assertEquals(1L, viewCounter.metrics().getDroppedViews());
+        assertEquals(0L, viewCounter.metrics().getPendingViews());
+    }
+
+    // copies each batch, the counter hands out views over its own list
+    private List<List<ViewDeltaDTO>> capture() {
+        List<List<ViewDeltaDTO>> batches = new ArrayList<>();
+        when(eventMapper.incrementViewCounts(any())).thenAnswer(invocation -> {
+            List<ViewDeltaDTO> batch = invocation.getArgument(0);
+            batches.add(new ArrayList<>(batch));
+            return batch.size();
+        });
+        return batches;
+    }
+}
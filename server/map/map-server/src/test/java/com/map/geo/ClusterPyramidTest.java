@@ -0,0 +1,66 @@
+package com.map.geo;
+
+import com.map.entity.Event;
+import com.map.vo.ClusterVO;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ClusterPyramidTest {
+
+    // three events around Main Green within ~100 m, one ~1.5 km away downtown
+    private final ClusterPyramid pyramid = ClusterPyramid.build(List.of(
+        event(1, 41.8268, -71.4025, 0.2),
+        event(2, 41.8270, -71.4020, 0.9),
+        event(3, 41.8265, -71.4030, 0.1),
+        event(4, 41.8240, -71.4128, 0.5),
+        Event.builder().eventId(5).trendingScore(1.0).build()
+    ));
+
+    @Test
+    void query_zoomedOutMergesEverythingIntoOneCluster() {
+        List<ClusterVO> clusters = pyramid.query(41.0, 42.0, -72.0, -71.0, 10);
+
+        assertEquals(1, clusters.size());
+        assertEquals(4, clusters.get(0).getCount());
+        assertEquals(2, clusters.get(0).getTopEvent().getEventId());
+        assertEquals((41.8268 + 41.8270 + 41.8265 + 41.8240) / 4, clusters.get(0).getLatitude(), 1e-9);
+    }
+
+    @Test
+    void query_midZoomSeparatesDistantGroups() {
+        List<ClusterVO> clusters = pyramid.query(41.80, 41.85, -71.45, -71.35, 14);
+
+        assertEquals(2, clusters.size());
+        assertEquals(3, clusters.get(0).getCount());
+        assertEquals(2, clusters.get(0).getTopEvent().getEventId());
+        assertEquals(4, clusters.get(1).getTopEvent().getEventId());
+    }
+
+    @Test
+    void query_onlyReturnsClustersInViewport() {
+        List<ClusterVO> clusters = pyramid.query(41.8230, 41.8250, -71.4140, -71.4110, 18);
+
+        assertEquals(1, clusters.size());
+        assertEquals(4, clusters.get(0).getTopEvent().getEventId());
+        assertTrue(ClusterPyramid.empty().query(41.0, 42.0, -72.0, -71.0, 10).isEmpty());
+    }
+
+    @Test
+    void query_clampsZoomToPrecomputedLevels() {
+        assertEquals(pyramid.query(-90, 90, -180, 180, 0).size(), pyramid.query(-90, 90, -180, 180, -3).size());
+        assertEquals(4, pyramid.query(-90, 90, -180, 180, 40).size());
+    }
+
+    private Event event(int eventId, double latitude, double longitude, double trendingScore) {
+        return Event.builder()
+            .eventId(eventId)
+            .name("Event " + eventId)
+            .latitude(latitude)
+            .longitude(longitude)
+            .trendingScore(trendingScore)
+            .build();
+    }
+}
@@ -0,0 +1,82 @@
+package com.map.search;
+
+import com.map.entity.Event;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertIterableEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InvertedIndexTest {
+
+    @Test
+    void search_ranksNameMatchesAboveDescriptionMatches() {
+        InvertedIndex index = new InvertedIndex();
+        index.apply(List.of(
+            event(1, "Campus Fair", "Food trucks and a jazz band on the green"),
+            event(2, "Jazz Night", "An evening of live music"),
+            event(3, "Hack Night", "Build something over pizza")
+        ), List.of());
+
+        assertIterableEquals(List.of(2, 1), ids(index.search("jazz", 10)));
+    }
+
+    @Test
+    void search_stemsAndExpandsLastTokenAsPrefix() {
+        InvertedIndex index = new InvertedIndex();
+        index.apply(List.of(
+            event(1, "Salsa Dancing Lessons", null),
+            event(2, "Spring Concert", "Orchestra and choir"),
+            event(3, "Poetry Reading", null)
+        ), List.of());
+
+        assertIterableEquals(List.of(1), ids(index.search("dance", 10)));
+        assertIterableEquals(List.of(2), ids(index.search("conc", 10)));
+        assertIterableEquals(List.of(), ids(index.search("the", 10)));
+    }
+
+    @Test
+    void apply_reindexesAndRemovesIncrementally() {
+        InvertedIndex index = new InvertedIndex();
+        index.apply(List.of(event(1, "Jazz Night", null), event(2, "Jazz Brunch", null)), List.of());
+
+        index.apply(List.of(event(1, "Open Mic", null)), List.of(2));
+
+        assertEquals(1, index.size());
+        assertTrue(index.search("jazz", 10).isEmpty());
+        assertIterableEquals(List.of(1), ids(index.search("mic", 10)));
+    }
+
+    @Test
+    void search_returnsOnlyTopK() {
+        InvertedIndex index = new InvertedIndex();
+        index.apply(List.of(
+            event(1, "Talk", "talk"),
+            event(2, "Talk", "talk talk talk"),
+            event(3, "Talk", null),
+            event(4, "Workshop", "a short talk")
+        ), List.of());
+
+        List<InvertedIndex.Hit> hits = index.search("talk", 2);
+
+        assertEquals(2, hits.size());
+        assertTrue(hits.get(0).getScore() >= hits.get(1).getScore());
+    }
+
+    @Test
+    void stem_reducesCommonSuffixes() {
+        assertEquals(TextAnalyzer.stem("dance"), TextAnalyzer.stem("dancing"));
+        assertEquals(TextAnalyzer.stem("dance"), TextAnalyzer.stem("danced"));
+        assertEquals("run", TextAnalyzer.stem("running"));
+        assertEquals("party", TextAnalyzer.stem("parties"));
+    }
+
+    private List<Integer> ids(List<InvertedIndex.Hit> hits) {
+        return hits.stream().map(InvertedIndex.Hit::getEventId).toList();
+    }
+
+    private Event event(int eventId, String name, String description) {
+        return Event.builder().eventId(eventId).name(name).description(description).build();
+    }
+}
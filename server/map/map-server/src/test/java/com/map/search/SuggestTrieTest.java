@@ -0,0 +1,52 @@
+package com.map.search;
+
+import com.map.vo.SuggestionVO;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertIterableEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SuggestTrieTest {
+
+    private final SuggestTrie trie = SuggestTrie.builder(3)
+        .add(suggestion("Spring Concert", SuggestIndex.EVENT, 0.4))
+        .add(suggestion("Concert Band Rehearsal", SuggestIndex.EVENT, 0.9))
+        .add(suggestion("Sayles Hall", SuggestIndex.LOCATION, 0.7))
+        .add(suggestion("Science Fair", SuggestIndex.EVENT, 0.1))
+        .add(suggestion("Sports", SuggestIndex.CATEGORY, 0.5))
+        .build();
+
+    @Test
+    void complete_matchesWordStartsRankedByTrendingScore() {
+        assertIterableEquals(List.of("Concert Band Rehearsal", "Spring Concert"), texts(trie.complete("conc", 10)));
+        assertIterableEquals(List.of("Sayles Hall", "Sports", "Spring Concert"), texts(trie.complete("S", 10)));
+    }
+
+    @Test
+    void complete_keepsOnlyTopNPerNodeAndHonorsLimit() {
+        assertEquals(3, trie.complete("s", 10).size());
+        assertIterableEquals(List.of("Sayles Hall"), texts(trie.complete("s", 1)));
+    }
+
+    @Test
+    void complete_unknownOrBlankPrefix() {
+        assertTrue(trie.complete("xyz", 10).isEmpty());
+        assertTrue(trie.complete("  ", 10).isEmpty());
+        assertTrue(SuggestTrie.empty().complete("s", 10).isEmpty());
+    }
+
+    @Test
+    void complete_collapsesWhitespaceAndCase() {
+        assertIterableEquals(List.of("Spring Concert"), texts(trie.complete("SPRING   con", 10)));
+    }
+
+    private List<String> texts(List<SuggestionVO> suggestions) {
+        return suggestions.stream().map(SuggestionVO::getText).toList();
+    }
+
+    private SuggestionVO suggestion(String text, String type, double score) {
+        return SuggestionVO.builder().text(text).type(type).score(score).build();
+    }
+}
@@ -0,0 +1,72 @@
+package com.map.search;
+
+import com.map.entity.Event;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertIterableEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TrigramIndexTest {
+
+    private final TrigramIndex index = new TrigramIndex();
+
+    {
+        index.apply(List.of(
+            event(1, "Spring Concert", "Sayles Hall"),
+            event(2, "Jazz Night", "Main Green"),
+            event(3, "Concert Band Rehearsal", "Grant Recital Hall"),
+            event(4, "Poetry Reading", "Rockefeller Library")
+        ), List.of());
+    }
+
+    @Test
+    void search_toleratesTyposInNamesAndLocations() {
+        assertIterableEquals(List.of(2), ids(index.search("jaz nigth", 10)));
+        assertIterableEquals(List.of(4), ids(index.search("rockefeler", 10)));
+        assertIterableEquals(List.of(1), ids(index.search("sayels", 10)));
+    }
+
+    @Test
+    void search_ranksExactMatchesBeforeTypos() {
+        List<TrigramIndex.Match> matches = index.search("concert", 10);
+
+        assertIterableEquals(List.of(1, 3), ids(matches));
+        assertEquals(0, matches.get(0).getDistance());
+
+        List<TrigramIndex.Match> typo = index.search("consert hall", 10);
+        assertIterableEquals(List.of(1, 3), ids(typo));
+        assertEquals(1, typo.get(0).getDistance());
+    }
+
+    @Test
+    void search_stopsAtTopK() {
+        assertIterableEquals(List.of(1), ids(index.search("concert", 1)));
+        assertTrue(index.search("xylophone", 10).isEmpty());
+    }
+
+    @Test
+    void apply_removesOldTrigrams() {
+        index.apply(List.of(event(2, "Open Mic", "Main Green")), List.of(4));
+
+        assertTrue(index.search("jazz", 10).isEmpty());
+        assertTrue(index.search("rockefeller", 10).isEmpty());
+        assertIterableEquals(List.of(2), ids(index.search("opne mic", 10)));
+    }
+
+    @Test
+    void boundedEditDistance_countsSwapsOnceAndGivesUpPastTheBound() {
+        assertEquals(1, TrigramIndex.boundedEditDistance("consert", "concert", 2));
+        assertEquals(1, TrigramIndex.boundedEditDistance("nigth", "night", 2));
+        assertEquals(3, TrigramIndex.boundedEditDistance("library", "concert", 2));
+    }
+
+    private List<Integer> ids(List<TrigramIndex.Match> matches) {
+        return matches.stream().map(TrigramIndex.Match::getEventId).toList();
+    }
+
+    private Event event(int eventId, String name, String location) {
+        return Event.builder().eventId(eventId).name(name).location(location).build();
+    }
+}
@@ -1,10 +1,23 @@
 package com.map.service;
 
+import com.map.catalog.EventCatalog;
+import com.map.catalog.EventCatalogSnapshot;
+import com.map.catalog.TimeWindowResolver;
+import com.map.counter.ViewCounter;
 import com.map.dto.EventCategoryDTO;
 import com.map.dto.EventQueryDTO;
+import com.map.dto.EventSummaryDTO;
 import com.map.entity.Event;
+import com.map.enumeration.EventReadMode;
+import com.map.enumeration.EventSearchMode;
 import com.map.mapper.EventMapper;
+import com.map.search.EventSearchIndex;
 import com.map.service.impl.EventServiceImpl;
+import com.map.trending.HotEventTracker;
+import com.map.trending.TrendingEngine;
+import com.map.trending.UniqueViewerTracker;
+import com.map.vo.EventDistanceVO;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import org.junit.jupiter.api.Test;
@@ -13,11 +26,18 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertIterableEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -27,6 +47,27 @@ class EventServiceTest {
     @Mock
     private EventMapper eventMapper;
 
+    @Mock
+    private EventCatalog eventCatalog;
+
+    @Mock
+    private EventSearchIndex eventSearchIndex;
+
+    @Mock
+    private ViewCounter viewCounter;
+
+    @Mock
+    private TrendingEngine trendingEngine;
+
+    @Mock
+    private HotEventTracker hotEventTracker;
+
+    @Mock
+    private UniqueViewerTracker uniqueViewerTracker;
+
+    @Spy
+    private TimeWindowResolver timeWindowResolver = new TimeWindowResolver();
+
     @InjectMocks
     private EventServiceImpl eventService;
 
@@ -60,6 +101,65 @@ class EventServiceTest {
         verify(eventMapper).selectEvents(queryDTO);
     }
 
+    @Test
+    void fetchEvents_namedTimeWindow_passesResolvedBoundsToMapper() {
+        EventQueryDTO queryDTO = EventQueryDTO.builder().time("Tomorrow").near("Main Green").build();
+        LocalDateTime tomorrow = LocalDate.now().plusDays(1).atStartOfDay();
+
+        eventService.fetchEvents(queryDTO);
+
+        verify(eventMapper).selectEvents(queryCaptor.capture());
+        EventQueryDTO bounded = queryCaptor.getValue();
+        assertEquals("Main Green", bounded.getNear());
+        assertEquals(tomorrow, bounded.getFrom());
+        assertEquals(tomorrow.plusDays(1), bounded.getTo());
+    }
+
+    @Test
+    void fetchEvents_catalogMode_answersFromSnapshotWithoutQuery() {
+        ReflectionTestUtils.setField(eventService, "readMode", EventReadMode.CATALOG);
+        EventCatalogSnapshot snapshot = EventCatalogSnapshot.build(1L,
+            List.of(event(1, "Campus Fair"), event(2, "Hack Night")),
+            List.of(category(1, "Music"), category(2, "Tech")));
+        when(eventCatalog.isLoaded()).thenReturn(true);
+        when(eventCatalog.snapshot()).thenReturn(snapshot);
+
+        List<Event> events = eventService.fetchEvents(EventQueryDTO.builder().category("Tech").build());
+
+        assertEquals(1, events.size());
+        assertEquals(2, events.get(0).getEventId());
+        verify(eventMapper, never()).selectEvents(any());
+    }
+
+    @Test
+    void fetchEvents_catalogModeBeforeFirstLoad_fallsBackToMapper() {
+        ReflectionTestUtils.setField(eventService, "readMode", EventReadMode.CATALOG);
+        EventQueryDTO queryDTO = EventQueryDTO.builder().build();
+        when(eventCatalog.isLoaded()).thenReturn(false);
+        when(eventMapper.selectEvents(queryDTO)).thenReturn(List.of(event(1, "Campus Fair")));
+
+        assertEquals(1, eventService.fetchEvents(queryDTO).size());
+    }
+
+    @Test
+    void fetchEventSummaries_usesSummaryStatementOrProjectsCatalog() {
+        EventQueryDTO queryDTO = EventQueryDTO.builder().category("Tech").build();
+        when(eventMapper.selectEventSummaries(queryDTO)).thenReturn(List.of(EventSummaryDTO.of(event(2, "Hack Night"))));
+
+        assertEquals(1, eventService.fetchEventSummaries(queryDTO).size());
+        verify(eventMapper, never()).selectEvents(any());
+
+        ReflectionTestUtils.setField(eventService, "readMode", EventReadMode.CATALOG);
+        when(eventCatalog.isLoaded()).thenReturn(true);
+        when(eventCatalog.snapshot()).thenReturn(EventCatalogSnapshot.build(1L,
+            List.of(event(1, "Campus Fair"), event(2, "Hack Night")),
+            List.of(category(1, "Music"), category(2, "Tech"))));
+
+        List<EventSummaryDTO> summaries = eventService.fetchEventSummaries(queryDTO);
+        assertEquals(1, summaries.size());
+        assertEquals("Hack Night", summaries.get(0).getName());
+    }
+
     @Test
     void getEventById_returnsMappedEvent() {
         Event expectedEvent = event(10, "Spring Concert");
@@ -84,10 +184,64 @@ class EventServiceTest {
     }
 
     @Test
-    void updateViewCount_delegatesToMapper() {
-        eventService.updateViewCount(12);
+    void getEventByMatching_indexMode_returnsRankedEventsFromSnapshot() {
+        ReflectionTestUtils.setField(eventService, "searchMode", EventSearchMode.INDEX);
+        EventCatalogSnapshot snapshot = EventCatalogSnapshot.build(1L,
+            List.of(event(1, "Campus Fair"), event(2, "Hack Night")),
+            List.of(category(1, "Music"), category(2, "Tech")));
+        when(eventSearchIndex.isReady()).thenReturn(true);
+        when(eventSearchIndex.search(eq("hack"), anyInt()))
+            .thenReturn(List.of(2, 99));
+        when(eventCatalog.snapshot()).thenReturn(snapshot);
+
+        List<Event> events = eventService.getEventByMatching("hack");
+
+        assertIterableEquals(List.of(2), events.stream().map(Event::getEventId).toList());
+        verify(eventMapper, never()).selectEventByValue(any());
+    }
+
+    @Test
+    void fetchNearbyEvents_beforeCatalogLoad_filtersMapperBoxByDistance() {
+        Event close = event(1, "Campus Fair");
+        close.setLatitude(41.8268);
+        close.setLongitude(-71.4025);
+        Event corner = event(2, "Hack Night");
+        // inside the bounding box of a 500 m radius, but ~650 m away diagonally
+        corner.setLatitude(41.8309);
+        corner.setLongitude(-71.3970);
+        when(eventCatalog.isLoaded()).thenReturn(false);
+        when(eventMapper.selectEvents(any())).thenReturn(List.of(corner, close));
+
+        List<EventDistanceVO> events =
+            eventService.fetchNearbyEvents(EventQueryDTO.builder().build(), 41.8268, -71.4025, 500);
+
+        assertEquals(1, events.size());
+        assertEquals(1, events.get(0).getEvent().getEventId());
+        verify(eventMapper).selectEvents(queryCaptor.capture());
+        assertNotNull(queryCaptor.getValue().getMinLat());
+    }
+
+    @Test
+    void updateViewCount_buffersInsteadOfWriting() {
+        when(uniqueViewerTracker.record(12, "user-1")).thenReturn(1);
+
+        eventService.updateViewCount(12, "user-1");
+
+        verify(viewCounter).add(12, 1L);
+        verify(trendingEngine).recordViews(12, 1);
+        verify(hotEventTracker).recordView(12);
+        verify(eventMapper, never()).incrementViewCounts(any());
+    }
+
+    @Test
+    void updateViewCount_repeatViewerOnlyCountsAsActivity() {
+        when(uniqueViewerTracker.record(12, "user-1")).thenReturn(0);
+
+        eventService.updateViewCount(12, "user-1");
 
-        verify(eventMapper).updateViewCount(12);
+        verify(viewCounter, never()).add(anyInt(), anyLong());
+        verify(trendingEngine, never()).recordViews(anyInt(), anyInt());
+        verify(hotEventTracker).recordView(12);
     }
 
     @Test
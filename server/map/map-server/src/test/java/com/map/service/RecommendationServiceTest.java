@@ -1,14 +1,25 @@
 package com.map.service;
 
+import com.map.cache.ColdStartRankings;
+import com.map.cache.PersonalMatchIndex;
+import com.map.cache.RecommendationCache;
 import com.map.dto.EventCategoryDTO;
 import com.map.dto.EventQueryDTO;
 import com.map.dto.UserLikeDTO;
 import com.map.entity.Event;
 import com.map.service.impl.RecommendationServiceImpl;
+import com.map.utils.ColdStartPool;
+import com.map.utils.CursorUtils;
+import com.map.utils.PersonalMatchKernel;
+import com.map.vo.PageVO;
 import com.map.vo.UserProfileVO;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
@@ -18,8 +29,10 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertIterableEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -33,12 +46,28 @@ class RecommendationServiceTest {
     @Mock
     private UserService userService;
 
+    @Mock
+    private RecommendationCache recommendationCache;
+
+    @Mock
+    private ColdStartRankings coldStartRankings;
+
+    @Mock
+    private PersonalMatchIndex personalMatchIndex;
+
     @InjectMocks
     private RecommendationServiceImpl recommendationService;
 
     @Captor
     private ArgumentCaptor<List<Integer>> eventIdsCaptor;
 
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void computeThroughCache() {
+        lenient().when(recommendationCache.get(any(), any(), any()))
+            .thenAnswer(invocation -> ((Supplier<List<Event>>) invocation.getArgument(2)).get());
+    }
+
     @Test
     void scoringMath_prefersEventsWithStrongerPersonalMatch() throws Exception {
         EventQueryDTO queryDTO = EventQueryDTO.builder().category("Music").build();
@@ -55,10 +84,10 @@ class RecommendationServiceTest {
         when(userService.getUserLikeEntries("user-1")).thenReturn(List.of(
             new UserLikeDTO(201, now.minusDays(2))
         ));
+        when(userService.getCategoryPreferences("user-1")).thenReturn(Map.of("Music", Math.exp(-0.05 * 2)));
         when(eventService.getCategoriesForEvents(any())).thenReturn(List.of(
             category(101, "Music"),
-            category(102, "Sports"),
-            category(201, "Music")
+            category(102, "Sports")
         ));
 
         List<Event> recommendations = recommendationService.fetchRecommendations("user-1", queryDTO);
@@ -67,7 +96,8 @@ class RecommendationServiceTest {
         assertIterableEquals(List.of(101, 102), recommendations.stream().map(Event::getEventId).toList());
 
         verify(eventService).getCategoriesForEvents(eventIdsCaptor.capture());
-        assertEquals(Set.of(101, 102, 201), Set.copyOf(eventIdsCaptor.getValue()));
+        // the liked events' categories are already folded into the preferences
+        assertEquals(Set.of(101, 102), Set.copyOf(eventIdsCaptor.getValue()));
     }
 
     @Test
@@ -87,11 +117,13 @@ class RecommendationServiceTest {
             new UserLikeDTO(201, now.minusDays(1)),
             new UserLikeDTO(202, now.minusDays(45))
         ));
+        when(userService.getCategoryPreferences("user-2")).thenReturn(Map.of(
+            "Music", Math.exp(-0.05 * 1),
+            "Talk", Math.exp(-0.05 * 45)
+        ));
         when(eventService.getCategoriesForEvents(any())).thenReturn(List.of(
             category(101, "Music"),
-            category(102, "Talk"),
-            category(201, "Music"),
-            category(202, "Talk")
+            category(102, "Talk")
         ));
 
         List<Event> recommendations = recommendationService.fetchRecommendations("user-2", queryDTO);
@@ -100,6 +132,34 @@ class RecommendationServiceTest {
         assertIterableEquals(List.of(101, 102), recommendations.stream().map(Event::getEventId).toList());
     }
 
+    @Test
+    void personalized_scoresWithTheCatalogKernelWithoutCategoryLookup() throws Exception {
+        EventQueryDTO queryDTO = EventQueryDTO.builder().build();
+        LocalDateTime now = LocalDateTime.now();
+
+        Event talk = event(101, "Talk", now.plusDays(3), 20, 30);
+        Event concert = event(102, "Concert", now.plusDays(3), 20, 30);
+
+        when(personalMatchIndex.kernel()).thenReturn(PersonalMatchKernel.build(List.of(
+            category(101, "Talk"),
+            category(102, "Music"),
+            category(103, "Music"))));
+        when(eventService.fetchEvents(queryDTO)).thenReturn(List.of(talk, concert));
+        when(userService.getUserProfile("user-3")).thenReturn(UserProfileVO.builder()
+            .likes(List.of(103))
+            .bookmarks(List.of())
+            .build());
+        when(userService.getUserLikeEntries("user-3")).thenReturn(List.of(new UserLikeDTO(103, now.minusDays(1))));
+        when(userService.getCategoryPreferences("user-3")).thenReturn(Map.of("Music", 1.0));
+
+        // the same scores twice, the second time into the buffer the first call left on this thread
+        for (int i = 0; i < 2; i++) {
+            List<Event> recommendations = recommendationService.fetchRecommendations("user-3", queryDTO);
+            assertIterableEquals(List.of(102, 101), recommendations.stream().map(Event::getEventId).toList());
+        }
+        verify(eventService, never()).getCategoriesForEvents(any());
+    }
+
     @Test
     void coldStart_returnsPopularityDrivenRecommendationsWithoutCategoryLookup() throws Exception {
         EventQueryDTO queryDTO = EventQueryDTO.builder().build();
@@ -109,7 +169,8 @@ class RecommendationServiceTest {
         Event mediumPopular = event(102, "Medium Popular", now.plusDays(7), 25, 25);
         Event leastPopular = event(103, "Least Popular", now.plusDays(7), 3, 2);
 
-        when(eventService.fetchEvents(queryDTO)).thenReturn(List.of(mostPopular, mediumPopular, leastPopular));
+        when(coldStartRankings.pool(queryDTO)).thenReturn(
+            ColdStartPool.build(List.of(mostPopular, mediumPopular, leastPopular), 50, 2_000));
         when(userService.getUserProfile("cold-start-user")).thenReturn(UserProfileVO.builder()
             .likes(List.of())
             .bookmarks(List.of())
@@ -125,6 +186,47 @@ class RecommendationServiceTest {
             recommendations.stream().map(Event::getEventId).toList()
         );
         verify(eventService, never()).getCategoriesForEvents(any());
+        // ranked from the shared candidates, not the whole filter
+        verify(eventService, never()).fetchEvents(any());
+    }
+
+    @Test
+    void coldStartPages_neitherRepeatNorSkipEventsPastThePoolDepth() throws Exception {
+        EventQueryDTO queryDTO = EventQueryDTO.builder().build();
+        LocalDateTime now = LocalDateTime.now();
+        List<Event> events = new ArrayList<>();
+        for (int eventId = 1; eventId <= 300; eventId++) {
+            events.add(event(eventId, "Event " + eventId, now.plusDays(3), eventId, 0));
+        }
+        ColdStartPool pool = ColdStartPool.build(events, 200, 2_000);
+
+        when(coldStartRankings.pool(queryDTO)).thenReturn(pool);
+        when(eventService.fetchEvents(queryDTO)).thenReturn(events);
+        when(userService.getUserProfile("cold-start-user")).thenReturn(UserProfileVO.builder()
+            .likes(List.of())
+            .bookmarks(List.of())
+            .build());
+        when(userService.getUserLikeEntries("cold-start-user")).thenReturn(List.of());
+
+        List<Integer> seen = new ArrayList<>();
+        Integer afterRank = null;
+        Integer afterId = null;
+        do {
+            PageVO<Event> page =
+                recommendationService.fetchRecommendationPage("cold-start-user", queryDTO, afterRank, afterId, 50);
+            page.getItems().forEach(e -> seen.add(e.getEventId()));
+            if (page.getNextCursor() == null) {
+                break;
+            }
+            CursorUtils.Cursor cursor = CursorUtils.decode(page.getNextCursor());
+            afterRank = Integer.parseInt(cursor.getSortKey());
+            afterId = cursor.getEventId();
+        } while (seen.size() <= events.size());
+
+        // the pool alone ranks only part of the filter, the later pages rank all of it
+        assertFalse(pool.covers(300));
+        assertEquals(300, seen.size());
+        assertEquals(300, Set.copyOf(seen).size());
     }
 
     private Event event(
@@ -1,12 +1,19 @@
 package com.map.service;
 
+import com.map.catalog.EventCatalog;
 import com.map.dto.EventQueryDTO;
+import com.map.dto.TrendingScoreDTO;
 import com.map.entity.Event;
+import com.map.mapper.EventMapper;
 import com.map.service.impl.TrendingServiceImpl;
+import com.map.trending.HotEventTracker;
+import com.map.trending.TrendingEngine;
+import com.map.trending.TrendingLeaderboards;
+import com.map.vo.TrendingRecalculationVO;
 import java.time.LocalDateTime;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import org.apache.ibatis.cursor.Cursor;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
@@ -15,9 +22,12 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static com.map.constant.RecommendationConstant.RECOMMENDATION_LIMIT;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.times;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -27,75 +37,117 @@ class TrendingServiceTest {
     @Mock
     private EventService eventService;
 
+    @Mock
+    private TrendingEngine trendingEngine;
+
+    @Mock
+    private HotEventTracker hotEventTracker;
+
+    @Mock
+    private EventMapper eventMapper;
+
+    @Mock
+    private EventCatalog eventCatalog;
+
+    @Mock
+    private TrendingLeaderboards trendingLeaderboards;
+
+    @Mock
+    private Cursor<TrendingScoreDTO> cursor;
+
     @InjectMocks
     private TrendingServiceImpl trendingService;
 
     @Captor
-    private ArgumentCaptor<Integer> eventIdCaptor;
+    private ArgumentCaptor<Integer[]> idsCaptor;
 
     @Captor
-    private ArgumentCaptor<Double> scoreCaptor;
+    private ArgumentCaptor<Double[]> scoresCaptor;
 
     @Test
-    void recalculateTrendingScores_updatesNormalizedScoresForEachEvent() {
-        when(eventService.fetchEvents(any(EventQueryDTO.class))).thenReturn(List.of(
-            event(101, 10, 5),
-            event(102, 2, 3),
-            event(103, 0, 0)
-        ));
+    void recalculateTrendingScores_writesOnlyScoresThatDifferInOneStatement() {
+        when(trendingEngine.currentScores()).thenReturn(Map.of(101, 1.0, 102, 0.25));
+        stream(new TrendingScoreDTO(101, 1.0), new TrendingScoreDTO(102, 0.5),
+            new TrendingScoreDTO(103, 0.0), new TrendingScoreDTO(104, null));
+        when(eventMapper.updateTrendingScores(any(), any())).thenReturn(2);
+
+        TrendingRecalculationVO report = trendingService.recalculateTrendingScores();
+
+        verify(eventMapper).updateTrendingScores(idsCaptor.capture(), scoresCaptor.capture());
+        assertArrayEquals(new Integer[] {102, 104}, idsCaptor.getValue());
+        assertArrayEquals(new Double[] {0.25, 0.0}, scoresCaptor.getValue());
+        assertEquals(4, report.getScannedEvents());
+        assertEquals(2, report.getUpdatedEvents());
+        assertEquals(1, report.getStatements());
+        verify(trendingLeaderboards).update(102, 0.25);
+        verify(eventCatalog).markDirty();
+    }
+
+    @Test
+    void recalculateTrendingScores_resetsEventsWithoutRecentActivity() {
+        when(trendingEngine.currentScores()).thenReturn(Map.of());
+        stream(new TrendingScoreDTO(201, 0.8), new TrendingScoreDTO(202, 0.0));
+        when(eventMapper.updateTrendingScores(any(), any())).thenReturn(1);
 
         trendingService.recalculateTrendingScores();
 
-        verify(eventService, times(3)).updateTrendingScore(eventIdCaptor.capture(), scoreCaptor.capture());
-        Map<Integer, Double> updatedScores = toScoreMap(eventIdCaptor.getAllValues(), scoreCaptor.getAllValues());
+        verify(eventMapper).updateTrendingScores(idsCaptor.capture(), scoresCaptor.capture());
+        assertArrayEquals(new Integer[] {201}, idsCaptor.getValue());
+        assertArrayEquals(new Double[] {0.0}, scoresCaptor.getValue());
+    }
+
+    @Test
+    void recalculateTrendingScores_writesNothingWhenScoresAreUnchanged() {
+        when(trendingEngine.currentScores()).thenReturn(Map.of(301, 0.5));
+        stream(new TrendingScoreDTO(301, 0.50001), new TrendingScoreDTO(302, 0.0));
+
+        TrendingRecalculationVO report = trendingService.recalculateTrendingScores();
 
-        assertEquals(1.0, updatedScores.get(101), 1e-9);
-        assertEquals(5.0 / 15.0, updatedScores.get(102), 1e-9);
-        assertEquals(0.0, updatedScores.get(103), 1e-9);
+        verify(eventMapper, never()).updateTrendingScores(any(), any());
+        verify(eventCatalog, never()).markDirty();
+        assertEquals(2, report.getScannedEvents());
+        assertEquals(0, report.getUpdatedEvents());
     }
 
     @Test
-    void recalculateTrendingScores_handlesZeroPopularityWithoutDivisionByZero() {
-        when(eventService.fetchEvents(any(EventQueryDTO.class))).thenReturn(List.of(
-            event(201, 0, 0),
-            event(202, 0, 0)
-        ));
+    void fetchTrendingEvents_pushesDefaultLimitDownToQuery() {
+        // leaderboards not loaded yet
+        when(trendingLeaderboards.top(any(EventQueryDTO.class))).thenReturn(null);
+        when(eventService.fetchEventsByTrendingScore(any(EventQueryDTO.class))).thenReturn(List.of(event(301, 0.5)));
 
-        trendingService.recalculateTrendingScores();
+        List<Event> events = trendingService.fetchTrendingEvents(EventQueryDTO.builder().category("Music").build());
 
-        verify(eventService, times(2)).updateTrendingScore(eventIdCaptor.capture(), scoreCaptor.capture());
-        for (Double updatedScore : scoreCaptor.getAllValues()) {
-            assertEquals(0.0, updatedScore, 1e-9);
-        }
+        assertEquals(1, events.size());
+        verify(eventService).fetchEventsByTrendingScore(argThat(dto ->
+            dto.getLimit() == RECOMMENDATION_LIMIT && "Music".equals(dto.getCategory())));
     }
 
     @Test
-    void recalculateTrendingScores_doesNothingWhenNoEventsExist() {
-        when(eventService.fetchEvents(any(EventQueryDTO.class))).thenReturn(List.of());
+    void fetchTrendingEvents_answersFromLeaderboardsWithoutQuerying() {
+        when(trendingLeaderboards.top(argThat(dto -> dto.getLimit() == RECOMMENDATION_LIMIT)))
+            .thenReturn(List.of(event(302, 0.9)));
 
-        trendingService.recalculateTrendingScores();
+        List<Event> events = trendingService.fetchTrendingEvents(EventQueryDTO.builder().near("Main Green").build());
 
-        verify(eventService, times(0)).updateTrendingScore(any(), any());
+        assertEquals(302, events.get(0).getEventId());
+        verify(eventService, never()).fetchEventsByTrendingScore(any());
     }
 
-    private Map<Integer, Double> toScoreMap(List<Integer> eventIds, List<Double> scores) {
-        Map<Integer, Double> scoreMap = new HashMap<>();
-        for (int i = 0; i < eventIds.size(); i++) {
-            scoreMap.put(eventIds.get(i), scores.get(i));
-        }
-        return scoreMap;
+    private void stream(TrendingScoreDTO... rows) {
+        when(eventMapper.selectTrendingScores()).thenReturn(cursor);
+        when(cursor.iterator()).thenReturn(List.of(rows).iterator());
     }
 
-    private Event event(int eventId, int likedCount, int viewedCount) {
+    private Event event(int eventId, double trendingScore) {
         LocalDateTime startTime = LocalDateTime.now().plusDays(1);
         return Event.builder()
             .eventId(eventId)
             .name("Event " + eventId)
             .startTime(startTime)
             .endTime(startTime.plusHours(1))
-            .likedCount(likedCount)
-            .viewedCount(viewedCount)
-            .trendingScore(0.0)
+            .likedCount(0)
+            .viewedCount(0)
+            .trendingScore(trendingScore)
             .build();
     }
 }
@@ -1,21 +1,40 @@
 package com.map.service;
 
+import com.map.cache.RecommendationCache;
+import com.map.cache.UserDirectory;
+import com.map.cache.UserInteractionCache;
+import com.map.cache.UserInteractions;
+import com.map.catalog.EventCatalog;
+import com.map.counter.ViewCounter;
+import com.map.dto.CategoryPreferenceDTO;
+import com.map.dto.InteractionDTO;
 import com.map.dto.UserLikeDTO;
 import com.map.mapper.EventMapper;
 import com.map.mapper.UserMapper;
 import com.map.service.impl.UserServiceImpl;
+import com.map.trending.HotEventTracker;
+import com.map.trending.TrendingEngine;
+import com.map.trending.UniqueViewerTracker;
+import com.map.vo.InteractionResultVO;
+import com.map.vo.LikeStateVO;
 import com.map.vo.UserProfileVO;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.mybatis.spring.SqlSessionTemplate;
+import org.springframework.dao.DataIntegrityViolationException;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertIterableEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -29,24 +48,55 @@ class UserServiceTest {
     @Mock
     private EventMapper eventMapper;
 
+    @Mock
+    private EventCatalog eventCatalog;
+
+    @Mock
+    private ViewCounter viewCounter;
+
+    @Mock
+    private TrendingEngine trendingEngine;
+
+    @Mock
+    private HotEventTracker hotEventTracker;
+
+    @Mock
+    private UniqueViewerTracker uniqueViewerTracker;
+
+    @Mock
+    private UserInteractionCache userInteractionCache;
+
+    @Mock
+    private UserDirectory userDirectory;
+
+    @Mock
+    private RecommendationCache recommendationCache;
+
+    @Mock
+    private SqlSessionTemplate batchSqlSessionTemplate;
+
     @InjectMocks
     private UserServiceImpl userService;
 
     @Test
-    void getUserProfile_newUser_createsUserAndThrows() {
-        when(userMapper.checkUserExists("new_user")).thenReturn(false);
+    void getUserProfile_newUser_createsUserAndReturnsEmptyProfile() throws Exception {
+        when(userDirectory.exists("new_user")).thenReturn(false);
+        when(userInteractionCache.get("new_user")).thenReturn(UserInteractions.empty());
 
-        Exception exception = assertThrows(Exception.class, () -> userService.getUserProfile("new_user"));
+        UserProfileVO profile = userService.getUserProfile("new_user");
 
-        assertEquals("User not found: new_user", exception.getMessage());
+        assertTrue(profile.getLikes().isEmpty());
         verify(userMapper).createUser("new_user");
+        verify(userDirectory).add("new_user");
     }
 
     @Test
     void getUserProfile_existingUser_returnsLikesAndBookmarks() throws Exception {
-        when(userMapper.checkUserExists("mytest")).thenReturn(true);
-        when(userMapper.getUserLikes("mytest")).thenReturn(List.of(1, 2));
-        when(userMapper.getUserBookmarks("mytest")).thenReturn(List.of(3));
+        when(userDirectory.exists("mytest")).thenReturn(true);
+        when(userInteractionCache.get("mytest")).thenReturn(UserInteractions.of(
+            List.of(new UserLikeDTO(2, LocalDateTime.of(2026, 4, 20, 10, 0)),
+                new UserLikeDTO(1, LocalDateTime.of(2026, 4, 21, 10, 0))),
+            List.of(3)));
 
         UserProfileVO profile = userService.getUserProfile("mytest");
 
@@ -55,55 +105,150 @@ class UserServiceTest {
     }
 
     @Test
-    void getUserLikeEntries_returnsMapperResults() {
+    void getUserProfile_cachedUserSkipsTheDatabase() throws Exception {
+        when(userInteractionCache.getIfPresent("mytest")).thenReturn(UserInteractions.of(List.of(), List.of(3)));
+
+        UserProfileVO profile = userService.getUserProfile("mytest");
+
+        assertIterableEquals(List.of(3), profile.getBookmarks());
+        verify(userDirectory, never()).exists("mytest");
+    }
+
+    @Test
+    void getUserLikeEntries_returnsCachedEntries() {
         List<UserLikeDTO> likes = List.of(new UserLikeDTO(1, LocalDateTime.of(2026, 4, 20, 10, 0)));
-        when(userMapper.getUserLikesWithTimestamps("test_user1")).thenReturn(likes);
+        when(userInteractionCache.get("test_user1")).thenReturn(UserInteractions.of(likes, List.of()));
 
         List<UserLikeDTO> actualLikes = userService.getUserLikeEntries("test_user1");
 
         assertEquals(likes, actualLikes);
-        verify(userMapper).getUserLikesWithTimestamps("test_user1");
     }
 
     @Test
-    void likeEvent_addsLikeAndIncrementsCountWhenEventWasNotPreviouslyLiked() throws Exception {
-        when(userMapper.checkUserExists("mytest")).thenReturn(true);
-        when(eventMapper.checkIfEventExists(1)).thenReturn(true);
-        when(userMapper.checkIfUserLiked("mytest", 1)).thenReturn(false);
+    void getCategoryPreferences_readsStoredWeightsByCategory() {
+        when(userMapper.selectCategoryPreferences("mytest")).thenReturn(List.of(
+            new CategoryPreferenceDTO("Music", 0.9), new CategoryPreferenceDTO("Talk", 0.1)));
 
-        userService.likeEvent("mytest", 1);
+        Map<String, Double> preferences = userService.getCategoryPreferences("mytest");
 
-        verify(eventMapper).incrementLikedCount(1);
-        verify(userMapper).likeEvent("mytest", 1);
+        assertEquals(Map.of("Music", 0.9, "Talk", 0.1), preferences);
+        verify(userMapper, never()).getUserLikesWithTimestamps(any());
     }
 
     @Test
-    void likeEvent_updatesTimestampWithoutIncrementWhenAlreadyLiked() throws Exception {
-        when(userMapper.checkUserExists("mytest")).thenReturn(true);
-        when(eventMapper.checkIfEventExists(1)).thenReturn(true);
-        when(userMapper.checkIfUserLiked("mytest", 1)).thenReturn(true);
+    void likeEvent_returnsNewStateAndMarksCatalogDirtyWhenLikeWasAdded() throws Exception {
+        LikeStateVO added = new LikeStateVO(1, true, 6, true);
+        when(userMapper.likeEvent("mytest", 1)).thenReturn(added);
 
-        userService.likeEvent("mytest", 1);
+        LikeStateVO state = userService.likeEvent("mytest", 1);
 
-        verify(eventMapper, never()).incrementLikedCount(1);
-        verify(userMapper).likeEvent("mytest", 1);
+        assertEquals(added, state);
+        verify(trendingEngine).recordLike(1);
+        verify(hotEventTracker).recordLike(1);
+        verify(eventCatalog).markDirty();
+        verify(recommendationCache).invalidate("mytest");
+        verify(userDirectory, never()).exists("mytest");
     }
 
     @Test
-    void delikeEvent_removesLikeAndDecrementsCountWhenPresent() {
-        when(userMapper.checkUserExists("mytest")).thenReturn(true);
-        when(eventMapper.checkIfEventExists(1)).thenReturn(true);
-        when(userMapper.checkIfUserLiked("mytest", 1)).thenReturn(true);
+    void likeEvent_leavesCatalogAloneWhenAlreadyLiked() throws Exception {
+        when(userMapper.likeEvent("mytest", 1)).thenReturn(new LikeStateVO(1, true, 5, false));
+
+        LikeStateVO state = userService.likeEvent("mytest", 1);
+
+        assertEquals(5, state.getLikedCount());
+        verify(trendingEngine, never()).recordLike(any());
+        verify(eventCatalog, never()).markDirty();
+    }
+
+    @Test
+    void likeEvent_reportsWhichForeignKeyFailed() {
+        when(userMapper.likeEvent("mytest", 99)).thenThrow(new DataIntegrityViolationException("fk"));
+        when(userDirectory.exists("mytest")).thenReturn(true);
+
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> userService.likeEvent("mytest", 99));
+
+        assertEquals("Event not found: 99", exception.getMessage());
+    }
+
+    @Test
+    void delikeEvent_returnsNewStateWhenLikeWasRemoved() {
+        when(userMapper.delikeEvent("mytest", 1)).thenReturn(new LikeStateVO(1, false, 4, true));
+
+        LikeStateVO state = userService.delikeEvent("mytest", 1);
+
+        assertEquals(false, state.getLiked());
+        verify(trendingEngine).recordUnlike(1);
+        verify(recommendationCache).invalidate("mytest");
+        verify(eventCatalog).markDirty();
+    }
+
+    @Test
+    void delikeEvent_unknownUserThrows() {
+        when(userMapper.delikeEvent("ghost", 1)).thenReturn(null);
+        when(userDirectory.exists("ghost")).thenReturn(false);
+
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> userService.delikeEvent("ghost", 1));
+
+        assertEquals("User not found: ghost", exception.getMessage());
+    }
+
+    @Test
+    void applyInteractions_replaysInOrderAndWritesOnlyTheNetChange() {
+        when(batchSqlSessionTemplate.getMapper(UserMapper.class)).thenReturn(userMapper);
+        when(batchSqlSessionTemplate.getMapper(EventMapper.class)).thenReturn(eventMapper);
+        when(userDirectory.exists("mytest", userMapper)).thenReturn(true);
+        when(eventMapper.selectExistingEventIds(List.of(1, 2, 3, 99))).thenReturn(List.of(1, 2, 3));
+        when(uniqueViewerTracker.record(3, "mytest")).thenReturn(1);
+        when(userMapper.selectLikedEventIdsForUpdate("mytest", List.of(1, 2, 3, 99))).thenReturn(List.of(2));
+        when(userMapper.selectBookmarkedEventIds("mytest", List.of(1, 2, 3, 99))).thenReturn(List.of());
+
+        List<InteractionResultVO> results = userService.applyInteractions("mytest", List.of(
+            new InteractionDTO("like", 1),
+            new InteractionDTO("unlike", 1),
+            new InteractionDTO("like", 1),
+            new InteractionDTO("like", 2),
+            new InteractionDTO("bookmark", 3),
+            new InteractionDTO("view", 3),
+            new InteractionDTO("view", 99),
+            new InteractionDTO("share", 3)));
+
+        assertIterableEquals(
+            List.of("APPLIED", "APPLIED", "APPLIED", "UNCHANGED", "APPLIED", "APPLIED", "REJECTED", "REJECTED"),
+            results.stream().map(InteractionResultVO::getStatus).toList());
+        assertEquals("Event not found: 99", results.get(6).getMessage());
+        // the liked state comes from the transaction, never from the per-process cache
+        verify(userInteractionCache, never()).get(any());
+        // liked_count follows the rows upsertLike actually inserts
+        verify(userMapper).upsertLike("mytest", 1);
+        verify(userMapper).upsertLike("mytest", 2);
+        verify(userMapper).bookmarkEvent("mytest", 3);
+        verify(viewCounter).add(3, 1L);
+        verify(trendingEngine).recordLike(1);
+        verify(trendingEngine, never()).recordLike(2);
+        verify(trendingEngine).recordViews(3, 1);
+        verify(batchSqlSessionTemplate).flushStatements();
+        verify(eventCatalog).markDirty();
+        verify(userInteractionCache).updateAfterCommit(eq("mytest"), any());
+        verify(recommendationCache).invalidateAfterCommit("mytest");
+    }
+
+    @Test
+    void applyInteractions_unknownUserRejectsWholeBatch() {
+        when(batchSqlSessionTemplate.getMapper(UserMapper.class)).thenReturn(userMapper);
+        when(batchSqlSessionTemplate.getMapper(EventMapper.class)).thenReturn(eventMapper);
+        when(userDirectory.exists("ghost", userMapper)).thenReturn(false);
 
-        userService.delikeEvent("mytest", 1);
+        Exception exception = assertThrows(IllegalArgumentException.class,
+            () -> userService.applyInteractions("ghost", List.of(new InteractionDTO("like", 1))));
 
-        verify(eventMapper).decrementLikedCount(1);
-        verify(userMapper).delikeEvent("mytest", 1);
+        assertEquals("User not found: ghost", exception.getMessage());
+        verify(batchSqlSessionTemplate, never()).flushStatements();
     }
 
     @Test
     void bookmarkEvent_persistsBookmarkForExistingUserAndEvent() throws Exception {
-        when(userMapper.checkUserExists("mytest")).thenReturn(true);
+        when(userDirectory.exists("mytest")).thenReturn(true);
         when(eventMapper.checkIfEventExists(1)).thenReturn(true);
 
         userService.bookmarkEvent("mytest", 1);
@@ -113,7 +258,7 @@ class UserServiceTest {
 
     @Test
     void debookmarkEvent_removesBookmarkForExistingUserAndEvent() throws Exception {
-        when(userMapper.checkUserExists("mytest")).thenReturn(true);
+        when(userDirectory.exists("mytest")).thenReturn(true);
         when(eventMapper.checkIfEventExists(1)).thenReturn(true);
 
         userService.debookmarkEvent("mytest", 1);
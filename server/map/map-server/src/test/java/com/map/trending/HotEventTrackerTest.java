@@ -0,0 +1,86 @@
+package com.map.trending;
+
+import com.map.enumeration.HotWindow;
+import com.map.vo.HotEventVO;
+import com.map.vo.HotEventsVO;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HotEventTrackerTest {
+
+    private static final Instant START = Instant.parse("2026-05-01T12:00:00Z");
+
+    private Instant now = START;
+    private HotEventTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        tracker = new HotEventTracker(new Clock() {
+            @Override
+            public ZoneId getZone() {
+                return ZoneOffset.UTC;
+            }
+
+            @Override
+            public Clock withZone(ZoneId zone) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public Instant instant() {
+                return now;
+            }
+        });
+        tracker.init();
+    }
+
+    @Test
+    void hot_ranksBurstingEventsWithinTheErrorBound() {
+        for (int i = 0; i < 500; i++) {
+            tracker.recordView(7);
+        }
+        for (int i = 0; i < 100; i++) {
+            tracker.recordLike(3);
+        }
+        // a long tail of events with one view each, many more than the monitored capacity
+        for (int eventId = 1000; eventId < 3000; eventId++) {
+            tracker.recordView(eventId);
+        }
+
+        HotEventsVO hot = tracker.hot(HotWindow.FIVE_MINUTES, 2);
+
+        assertEquals(List.of(7, 3), hot.getEvents().stream().map(HotEventVO::getEventId).toList());
+        assertEquals(2500L, hot.getTotalViews());
+        assertEquals(100L, hot.getTotalLikes());
+        HotEventVO top = hot.getEvents().get(0);
+        assertTrue(top.getViews() >= 500 && top.getViews() <= 500 + hot.getErrorBound());
+        HotEventVO second = hot.getEvents().get(1);
+        assertTrue(second.getLikes() >= 100 && second.getLikes() <= 100 + hot.getErrorBound());
+    }
+
+    @Test
+    void hot_onlyCountsMinutesInsideTheWindow() {
+        tracker.recordView(1);
+        now = START.plus(Duration.ofMinutes(5));
+        tracker.recordView(2);
+        tracker.recordView(2);
+
+        assertEquals(List.of(2), tracker.hot(HotWindow.FIVE_MINUTES, 10).getEvents().stream()
+            .map(HotEventVO::getEventId).toList());
+        assertEquals(List.of(2, 1), tracker.hot(HotWindow.FIFTEEN_MINUTES, 10).getEvents().stream()
+            .map(HotEventVO::getEventId).toList());
+
+        // an hour later the ring reuses the slices
+        now = START.plus(Duration.ofMinutes(65));
+        assertTrue(tracker.hot(HotWindow.ONE_HOUR, 10).getEvents().isEmpty());
+    }
+}
@@ -0,0 +1,166 @@
+package com.map.trending;
+
+import com.map.catalog.EventCatalog;
+import com.map.dto.TrendingScoreDTO;
+import com.map.dto.UserLikeDTO;
+import com.map.mapper.EventMapper;
+import com.map.mapper.UserMapper;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TrendingEngineTest {
+
+    private static final Instant START = Instant.parse("2026-05-01T12:00:00Z");
+
+    @Mock
+    private EventMapper eventMapper;
+
+    @Mock
+    private UserMapper userMapper;
+
+    @Mock
+    private EventCatalog eventCatalog;
+
+    @Mock
+    private TrendingLeaderboards trendingLeaderboards;
+
+    private MutableClock clock;
+    private TrendingEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(START);
+        engine = new TrendingEngine(clock);
+        ReflectionTestUtils.setField(engine, "eventMapper", eventMapper);
+        ReflectionTestUtils.setField(engine, "userMapper", userMapper);
+        ReflectionTestUtils.setField(engine, "eventCatalog", eventCatalog);
+        ReflectionTestUtils.setField(engine, "trendingLeaderboards", trendingLeaderboards);
+        engine.init();
+    }
+
+    @Test
+    void currentScores_normalizesByTheMostActiveEvent() {
+        engine.recordLike(1);
+        engine.recordView(2);
+        engine.recordView(2);
+        engine.recordView(3);
+        engine.recordLike(3);
+        engine.recordUnlike(3);
+
+        Map<Integer, Double> scores = engine.currentScores();
+
+        assertEquals(1.0, scores.get(1), 1e-9);
+        assertEquals(2.0 / 3.0, scores.get(2), 1e-9);
+        assertEquals(1.0 / 3.0, scores.get(3), 1e-9);
+    }
+
+    @Test
+    void currentScores_decaysOlderActivityByHalfLife() {
+        engine.recordLike(1);
+        clock.advance(Duration.ofMinutes(60));
+        engine.recordLike(2);
+
+        Map<Integer, Double> scores = engine.currentScores();
+
+        assertEquals(0.5, scores.get(1), 1e-9);
+        assertEquals(1.0, scores.get(2), 1e-9);
+    }
+
+    @Test
+    void currentScores_dropsActivityOutsideTheWindow() {
+        engine.recordView(1);
+        clock.advance(Duration.ofMinutes(359));
+        assertTrue(engine.currentScores().containsKey(1));
+
+        clock.advance(Duration.ofMinutes(1));
+
+        assertTrue(engine.currentScores().isEmpty());
+    }
+
+    @Test
+    void persist_seedsStoredLikesAndWritesOnlyMovedScores() {
+        LocalDateTime anHourAgo = LocalDateTime.ofInstant(START.minus(Duration.ofMinutes(60)), ZoneOffset.UTC);
+        when(userMapper.selectLikesBetween(any(), any())).thenReturn(List.of(new UserLikeDTO(5, anHourAgo)));
+        List<TrendingScoreDTO> writes = new ArrayList<>();
+        when(eventMapper.updateTrendingScores(any(), any())).thenAnswer(inv -> {
+            Integer[] eventIds = inv.getArgument(0);
+            Double[] scores = inv.getArgument(1);
+            for (int i = 0; i < eventIds.length; i++) {
+                writes.add(new TrendingScoreDTO(eventIds[i], scores[i]));
+            }
+            return eventIds.length;
+        });
+
+        engine.persist();
+        engine.persist();
+
+        assertEquals(List.of(new TrendingScoreDTO(5, 1.0)), writes);
+        verify(userMapper).selectLikesBetween(any(), any());
+        verify(eventCatalog).markDirty();
+        verify(trendingLeaderboards).update(5, 1.0);
+
+        // the seeded like leaves the window and the stored score is reset
+        clock.advance(Duration.ofMinutes(300));
+        engine.persist();
+
+        assertEquals(new TrendingScoreDTO(5, 0.0), writes.get(1));
+    }
+
+    @Test
+    void persist_withoutActivitySkipsTheDatabase() {
+        when(userMapper.selectLikesBetween(any(), any())).thenReturn(List.of());
+
+        engine.persist();
+
+        verify(eventMapper, never()).updateTrendingScores(any(), any());
+        verify(eventCatalog, never()).markDirty();
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        private void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
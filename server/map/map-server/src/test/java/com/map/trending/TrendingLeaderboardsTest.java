@@ -0,0 +1,100 @@
+package com.map.trending;
+
+import com.map.catalog.EventCatalogSnapshot;
+import com.map.dto.EventCategoryDTO;
+import com.map.dto.EventQueryDTO;
+import com.map.entity.Event;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class TrendingLeaderboardsTest {
+
+    private TrendingLeaderboards leaderboards;
+
+    @BeforeEach
+    void setUp() {
+        leaderboards = new TrendingLeaderboards();
+        EventCatalogSnapshot snapshot = EventCatalogSnapshot.build(1L, List.of(
+            event(1, "Main Green", 0.9),
+            event(2, "Main Green", 0.5),
+            event(3, "Pembroke Hall", 0.7),
+            event(4, "Pembroke Hall", 0.5),
+            event(5, "Main Green", 0.99)
+        ), List.of(
+            category(1, "Music"),
+            category(2, "Music"),
+            category(3, "Music"),
+            category(4, "Arts"),
+            category(4, "Music")
+            // event 5 has no category, so a trending read never returns it
+        ));
+        leaderboards.onRefresh(EventCatalogSnapshot.empty(), snapshot);
+    }
+
+    @Test
+    void top_ranksByScoreThenEventIdAndPagesPastCursor() {
+        List<Event> first = leaderboards.top(EventQueryDTO.builder().limit(3).build());
+        List<Event> second = leaderboards.top(EventQueryDTO.builder().limit(3)
+            .afterScore(first.get(2).getTrendingScore()).afterId(first.get(2).getEventId()).build());
+
+        assertEquals(List.of(1, 3, 2), ids(first));
+        assertEquals(List.of(4), ids(second));
+    }
+
+    @Test
+    void top_intersectsCategoryAndLocationCaseInsensitively() {
+        assertEquals(List.of(1, 2), ids(leaderboards.top(
+            EventQueryDTO.builder().category("music").near("MAIN GREEN").build())));
+        assertEquals(List.of(4), ids(leaderboards.top(
+            EventQueryDTO.builder().category("Arts").near("All Locations").build())));
+        assertEquals(List.of(), ids(leaderboards.top(EventQueryDTO.builder().category("Sports").build())));
+    }
+
+    @Test
+    void update_movesEventOnEveryBoardItBelongsTo() {
+        leaderboards.update(4, 0.95);
+
+        List<Event> global = leaderboards.top(EventQueryDTO.builder().limit(1).build());
+        assertEquals(List.of(4), ids(global));
+        assertEquals((float) 0.95, global.get(0).getTrendingScore(), 0.0);
+        assertEquals(List.of(4, 3), ids(leaderboards.top(EventQueryDTO.builder().near("Pembroke Hall").build())));
+        assertEquals(List.of(4), ids(leaderboards.top(EventQueryDTO.builder().category("Arts").build())));
+    }
+
+    @Test
+    void top_leavesTimeAndBoxFiltersToTheQuery() {
+        assertNull(leaderboards.top(EventQueryDTO.builder().time("Today").build()));
+        assertNull(leaderboards.top(EventQueryDTO.builder().from(LocalDateTime.now()).build()));
+        assertNull(new TrendingLeaderboards().top(EventQueryDTO.builder().build()));
+    }
+
+    private List<Integer> ids(List<Event> events) {
+        return events.stream().map(Event::getEventId).toList();
+    }
+
+    private Event event(int eventId, String location, double trendingScore) {
+        LocalDateTime startTime = LocalDateTime.of(2026, 5, 1, 18, 0).plusHours(eventId);
+        return Event.builder()
+            .eventId(eventId)
+            .name("Event " + eventId)
+            .startTime(startTime)
+            .endTime(startTime.plusHours(1))
+            .location(location)
+            .likedCount(0)
+            .viewedCount(0)
+            .trendingScore(trendingScore)
+            .build();
+    }
+
+    private EventCategoryDTO category(int eventId, String categoryName) {
+        EventCategoryDTO dto = new EventCategoryDTO();
+        dto.setEventId(eventId);
+        dto.setCategoryName(categoryName);
+        return dto;
+    }
+}
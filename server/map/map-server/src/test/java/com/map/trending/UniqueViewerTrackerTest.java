@@ -0,0 +1,165 @@
+package com.map.trending;
+
+import com.map.catalog.EventCatalog;
+import com.map.catalog.EventCatalogSnapshot;
+import com.map.dto.ViewerSketchDTO;
+import com.map.entity.Event;
+import com.map.mapper.EventMapper;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UniqueViewerTrackerTest {
+
+    @Mock
+    private EventMapper eventMapper;
+
+    @Mock
+    private EventCatalog eventCatalog;
+
+    private UniqueViewerTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        tracker = new UniqueViewerTracker();
+        ReflectionTestUtils.setField(tracker, "eventMapper", eventMapper);
+        ReflectionTestUtils.setField(tracker, "eventCatalog", eventCatalog);
+        ReflectionTestUtils.setField(tracker, "nodeId", "node-a");
+        when(eventCatalog.isLoaded()).thenReturn(true);
+        when(eventCatalog.snapshot()).thenReturn(catalog(List.of(1, 3, 4, 5, 7, 8), List.of()));
+    }
+
+    @Test
+    void record_countsEachViewerOnce() {
+        assertEquals(1, tracker.record(7, "alice"));
+        assertEquals(0, tracker.record(7, "alice"));
+        assertEquals(1, tracker.record(7, "bob"));
+        assertEquals(1, tracker.record(8, "alice"));
+    }
+
+    @Test
+    void record_countedViewersStayWithinSketchError() {
+        long counted = 0;
+        for (int i = 0; i < 50_000; i++) {
+            counted += tracker.record(1, "viewer-" + i);
+            counted += tracker.record(1, "viewer-" + i / 2);
+        }
+
+        assertTrue(Math.abs(counted - 50_000) < 50_000 * 0.07, "counted " + counted);
+    }
+
+    @Test
+    void uniqueViewers_mergesSketchesOfOtherNodes() {
+        HyperLogLog otherNode = new HyperLogLog(11);
+        for (int i = 0; i < 1_000; i++) {
+            tracker.record(5, "viewer-" + i);
+            otherNode.add("viewer-" + (i + 500));
+        }
+        when(eventMapper.selectViewerSketchesOfEvent(5)).thenReturn(List.of(otherNode.toBytes()));
+
+        long unique = tracker.uniqueViewers(5);
+
+        assertTrue(Math.abs(unique - 1_500) < 1_500 * 0.07, "estimated " + unique);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_loadsOwnSketchesOnceThenWritesOnlyChangedOnes() {
+        HyperLogLog stored = new HyperLogLog(11);
+        stored.add("alice");
+        when(eventMapper.selectViewerSketches("node-a")).thenReturn(List.of(new ViewerSketchDTO(3, stored.toBytes())));
+
+        tracker.record(4, "bob");
+        tracker.flush();
+        // alice was counted before the restart
+        assertEquals(0, tracker.record(3, "alice"));
+        tracker.flush();
+
+        ArgumentCaptor<List<ViewerSketchDTO>> written = ArgumentCaptor.forClass(List.class);
+        verify(eventMapper).upsertViewerSketches(eq("node-a"), written.capture());
+        assertEquals(List.of(4), written.getValue().stream().map(ViewerSketchDTO::getEventId).toList());
+        verify(eventMapper).selectViewerSketches("node-a");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_writesNothingUntilOwnSketchesAreLoaded() {
+        HyperLogLog stored = new HyperLogLog(11);
+        stored.add("alice");
+        when(eventMapper.selectViewerSketches("node-a"))
+            .thenThrow(new RuntimeException("connection refused"))
+            .thenReturn(List.of(new ViewerSketchDTO(3, stored.toBytes())));
+
+        tracker.record(3, "bob");
+        tracker.flush();
+        verify(eventMapper, never()).upsertViewerSketches(any(), any());
+
+        tracker.flush();
+
+        // the row written keeps alice from before the restart as well as bob
+        ArgumentCaptor<List<ViewerSketchDTO>> written = ArgumentCaptor.forClass(List.class);
+        verify(eventMapper).upsertViewerSketches(eq("node-a"), written.capture());
+        HyperLogLog sketch = HyperLogLog.fromBytes(written.getValue().get(0).getRegisters());
+        assertEquals(2, sketch.estimate());
+    }
+
+    @Test
+    void record_keepsNoSketchForUnknownOrEndedEvents() {
+        when(eventCatalog.snapshot()).thenReturn(catalog(List.of(3), List.of(4)));
+
+        assertEquals(0, tracker.record(99_999, "alice"));
+        assertEquals(0, tracker.record(4, "alice"));
+        assertEquals(1, tracker.record(3, "alice"));
+        tracker.flush();
+
+        ArgumentCaptor<List<ViewerSketchDTO>> written = ArgumentCaptor.forClass(List.class);
+        verify(eventMapper).upsertViewerSketches(eq("node-a"), written.capture());
+        assertEquals(List.of(3), written.getValue().stream().map(ViewerSketchDTO::getEventId).toList());
+    }
+
+    @Test
+    void onRefresh_dropsSketchesOfEndedEventsAndPurgesTheirRows() {
+        tracker.record(3, "alice");
+        tracker.record(4, "alice");
+        tracker.flush();
+
+        // event 3 ended and event 4 was deleted
+        EventCatalogSnapshot next = catalog(List.of(5), List.of(3));
+        when(eventCatalog.snapshot()).thenReturn(next);
+        tracker.onRefresh(EventCatalogSnapshot.empty(), next);
+        assertEquals(0, tracker.record(3, "bob"));
+        tracker.flush();
+        tracker.flush();
+
+        verify(eventMapper).deleteEndedViewerSketches(any());
+    }
+
+    // the live events start a day from now, the ended ones finished an hour ago
+    private static EventCatalogSnapshot catalog(List<Integer> live, List<Integer> ended) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Event> events = new ArrayList<>();
+        for (Integer eventId : live) {
+            events.add(Event.builder().eventId(eventId).startTime(now.plusDays(1)).endTime(now.plusDays(1)).build());
+        }
+        for (Integer eventId : ended) {
+            events.add(Event.builder().eventId(eventId).startTime(now.minusHours(3)).endTime(now.minusHours(1)).build());
+        }
+        return EventCatalogSnapshot.build(1, events, List.of());
+    }
+}
@@ -0,0 +1,80 @@
+package com.map.utils;
+
+import com.map.entity.Event;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * One cold start request for RECOMMENDATION_LIMIT events: scoring the whole upcoming catalog with
+ * getColdStartRecommendations against sampling a ColdStartPool built for the default depth.
+ * Run with: mvn -pl map-server test-compile exec:java -Dexec.classpathScope=test
+ *     -Dexec.mainClass=com.map.utils.ColdStartPoolBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ColdStartPoolBenchmark {
+
+    private static final int K = 50;
+
+    @Param({"10000", "100000"})
+    private int events;
+
+    private List<Event> catalog;
+    private ColdStartPool pool;
+    private Random random;
+    private LocalDateTime now;
+
+    @Setup
+    public void setUp() {
+        Random counts = new Random(5);
+        now = LocalDateTime.now();
+        catalog = new ArrayList<>(events);
+        for (int i = 0; i < events; i++) {
+            // a skewed popularity, most events with a handful of likes and views
+            int popularity = (int) Math.min(100_000, Math.exp(counts.nextDouble() * 8));
+            catalog.add(Event.builder()
+                .eventId(i)
+                .startTime(now.plusDays(1))
+                .likedCount(popularity / 10)
+                .viewedCount(popularity)
+                .build());
+        }
+        pool = ColdStartPool.build(catalog, 200, 2_000);
+        random = new Random(11);
+    }
+
+    @Benchmark
+    public List<Event> scoreWholeCatalog() {
+        return RecommendationUtils.getColdStartRecommendations(catalog, K, random);
+    }
+
+    @Benchmark
+    public List<Event> samplePool() {
+        return pool.sample(K, random.nextLong(), now);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ColdStartPoolBenchmark.class.getSimpleName()).build()).run();
+    }
+}
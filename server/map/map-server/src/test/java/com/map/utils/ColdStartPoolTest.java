@@ -0,0 +1,101 @@
+package com.map.utils;
+
+import com.map.entity.Event;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertIterableEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ColdStartPoolTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 9, 1, 12, 0);
+
+    @Test
+    void sample_ranksLikeScoringTheWholeCatalogWithTheSameBoosts() {
+        Random random = new Random(7);
+        List<Event> events = new ArrayList<>();
+        for (int eventId = 1; eventId <= 5_000; eventId++) {
+            // few popular events and long runs of ties, as in a fresh catalog
+            int popularity = random.nextInt(10) == 0 ? random.nextInt(500) : random.nextInt(3);
+            events.add(event(eventId, popularity, 1));
+        }
+        ColdStartPool pool = ColdStartPool.build(events, 100, 5_000);
+
+        for (long seed = 0; seed < 20; seed++) {
+            assertIterableEquals(ids(scoreAll(events, 100, seed)), ids(pool.sample(100, seed, NOW)));
+            assertIterableEquals(ids(scoreAll(events, 30, seed)), ids(pool.sample(30, seed, NOW)));
+        }
+        assertTrue(pool.size() < events.size(), "kept " + pool.size());
+    }
+
+    @Test
+    void build_capsCandidatesAndCoversOnlyItsDepthThen() {
+        List<Event> events = new ArrayList<>();
+        for (int eventId = 1; eventId <= 1_000; eventId++) {
+            events.add(event(eventId, eventId <= 10 ? 100 : 0, 1));
+        }
+
+        ColdStartPool capped = ColdStartPool.build(events, 20, 50);
+        ColdStartPool small = ColdStartPool.build(events.subList(0, 30), 20, 50);
+
+        assertEquals(50, capped.size());
+        assertTrue(capped.covers(20));
+        assertFalse(capped.covers(21));
+        assertTrue(small.covers(500));
+        // the popular events outrank any boosted one, in whatever order their own boosts put them
+        assertEquals(Set.of(1, 2, 3, 4, 5, 6, 7, 8, 9, 10), Set.copyOf(ids(capped.sample(20, 3L, NOW)).subList(0, 10)));
+    }
+
+    @Test
+    void sample_sameSeedGivesTheSameRankingAtAnyDepthAndSkipsStartedEvents() {
+        List<Event> events = new ArrayList<>();
+        for (int eventId = 1; eventId <= 200; eventId++) {
+            events.add(event(eventId, eventId % 7, eventId == 5 ? -1 : 1));
+        }
+        ColdStartPool pool = ColdStartPool.build(events, 100, 1_000);
+
+        List<Integer> deep = ids(pool.sample(100, 42L, NOW));
+        List<Integer> shallow = ids(pool.sample(40, 42L, NOW));
+
+        assertIterableEquals(deep.subList(0, 40), shallow);
+        assertFalse(deep.contains(5));
+    }
+
+    // reference: cold start scoring of every event, with the boosts the pool draws for the seed
+    private static List<Event> scoreAll(List<Event> events, int limit, long seed) {
+        double maxPopularity = RecommendationUtils.computeMaxPopularity(events);
+        double[] scores = new double[events.size()];
+        for (int i = 0; i < events.size(); i++) {
+            Event event = events.get(i);
+            scores[i] = 0.9 * ((event.getLikedCount() + event.getViewedCount()) / maxPopularity)
+                + 0.1 * ColdStartPool.randomScore(seed, event.getEventId());
+        }
+        return IntStream.range(0, events.size()).boxed()
+            .sorted(Comparator.comparingDouble((Integer i) -> scores[i]).reversed())
+            .limit(limit)
+            .map(events::get)
+            .toList();
+    }
+
+    private static List<Integer> ids(List<Event> events) {
+        return events.stream().map(Event::getEventId).toList();
+    }
+
+    private static Event event(int eventId, int likedCount, int startsInHours) {
+        return Event.builder()
+            .eventId(eventId)
+            .startTime(NOW.plusHours(startsInHours))
+            .likedCount(likedCount)
+            .viewedCount(0)
+            .build();
+    }
+}
@@ -0,0 +1,75 @@
+package com.map.utils;
+
+import com.map.entity.Event;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Recommendation scoring and top-50 selection on the calling thread against the fork-join scoring pool.
+ * Run with: mvn -pl map-server test-compile exec:java -Dexec.classpathScope=test
+ *     -Dexec.mainClass=com.map.utils.ParallelScoringBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParallelScoringBenchmark {
+
+    @Param({"50000", "200000", "1000000"})
+    private int candidates;
+
+    private List<Event> events;
+    private double[] personal;
+    private ForkJoinPool pool;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(13);
+        events = new ArrayList<>(candidates);
+        personal = new double[candidates];
+        for (int i = 0; i < candidates; i++) {
+            events.add(Event.builder().eventId(i).likedCount(random.nextInt(50)).viewedCount(random.nextInt(500)).build());
+            personal[i] = random.nextDouble();
+        }
+        pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public List<Event> sequential() {
+        return RecommendationUtils.scoreAndSortEvents(events, personal, 0.7, 0.2, 0.1, 50, new Random(1), null);
+    }
+
+    @Benchmark
+    public List<Event> parallel() {
+        return RecommendationUtils.scoreAndSortEvents(events, personal, 0.7, 0.2, 0.1, 50, new Random(1), pool);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ParallelScoringBenchmark.class.getSimpleName()).build()).run();
+    }
+}
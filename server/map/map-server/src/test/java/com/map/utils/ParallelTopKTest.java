@@ -0,0 +1,59 @@
+package com.map.utils;
+
+import com.map.entity.Event;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ParallelTopKTest {
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    void select_matchesSequentialSelectionAcrossPartitions() {
+        Random random = new Random(5);
+        double[] scores = new double[100_000];
+        for (int i = 0; i < scores.length; i++) {
+            scores[i] = random.nextInt(1_000);
+        }
+        TopKSelector sequential = new TopKSelector(200);
+        for (int i = 0; i < scores.length; i++) {
+            sequential.offer(i, scores[i]);
+        }
+
+        assertArrayEquals(sequential.drain(), ParallelTopK.select(scores.length, 200, i -> scores[i], pool).drain());
+    }
+
+    @Test
+    void scoreAndSortEvents_parallelRankingEqualsSequentialWithSeededRandom() {
+        Random random = new Random(9);
+        List<Event> events = new ArrayList<>();
+        double[] personal = new double[60_000];
+        for (int i = 0; i < personal.length; i++) {
+            events.add(Event.builder().eventId(i).likedCount(random.nextInt(50)).viewedCount(random.nextInt(500)).build());
+            personal[i] = random.nextInt(4) / 4.0;
+        }
+
+        List<Event> sequential = RecommendationUtils.scoreAndSortEvents(
+            events, personal, 0.7, 0.2, 0.1, 500, new Random(1), null);
+        List<Event> parallel = RecommendationUtils.scoreAndSortEvents(
+            events, personal, 0.7, 0.2, 0.1, 500, new Random(1), pool);
+
+        assertEquals(ids(sequential), ids(parallel));
+    }
+
+    private List<Integer> ids(List<Event> events) {
+        return events.stream().map(Event::getEventId).toList();
+    }
+}
@@ -0,0 +1,102 @@
+package com.map.utils;
+
+import com.map.dto.EventCategoryDTO;
+import com.map.dto.UserLikeDTO;
+import com.map.entity.Event;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * RecommendationUtils#computePersonalMatchScores against PersonalMatchKernel, per recommendation request.
+ * mapImplementation and kernel include turning the (event id, category) pairs into their structure, as the
+ * service does; kernelScoresOnly scores against an already built kernel.
+ * Run with: mvn -pl map-server test-compile exec:java -Dexec.classpathScope=test
+ *     -Dexec.mainClass=com.map.utils.PersonalMatchKernelBenchmark
+ * (add -prof gc to the options below to compare allocation per call).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PersonalMatchKernelBenchmark {
+
+    private static final String[] CATEGORIES = {
+        "Music", "Sports", "Arts", "Food", "Tech", "Film", "Talks", "Career", "Wellness", "Community"};
+
+    @Param({"1000", "10000", "100000"})
+    private int eventCount;
+
+    private List<Event> events;
+    private List<EventCategoryDTO> pairs;
+    private List<UserLikeDTO> likes;
+    private LocalDateTime now;
+    private double[] buffer;
+    private PersonalMatchKernel builtKernel;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(7);
+        now = LocalDateTime.now();
+        events = new ArrayList<>(eventCount);
+        pairs = new ArrayList<>(eventCount * 2);
+        for (int eventId = 1; eventId <= eventCount; eventId++) {
+            events.add(Event.builder().eventId(eventId).build());
+            for (int c = 1 + random.nextInt(3); c > 0; c--) {
+                EventCategoryDTO pair = new EventCategoryDTO();
+                pair.setEventId(eventId);
+                pair.setCategoryName(CATEGORIES[random.nextInt(CATEGORIES.length)]);
+                pairs.add(pair);
+            }
+        }
+        likes = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            likes.add(new UserLikeDTO(1 + random.nextInt(eventCount), now.minusDays(random.nextInt(60))));
+        }
+        buffer = new double[eventCount];
+        builtKernel = PersonalMatchKernel.build(pairs);
+    }
+
+    @Benchmark
+    public Map<Integer, Double> mapImplementation() {
+        Map<Integer, List<String>> eventCategoryMap = new HashMap<>();
+        for (EventCategoryDTO pair : pairs) {
+            eventCategoryMap.computeIfAbsent(pair.getEventId(), k -> new ArrayList<>()).add(pair.getCategoryName());
+        }
+        return RecommendationUtils.computePersonalMatchScores(likes, events, eventCategoryMap);
+    }
+
+    @Benchmark
+    public double[] kernel() {
+        return PersonalMatchKernel.build(pairs).scores(likes, events, now, buffer);
+    }
+
+    @Benchmark
+    public double[] kernelScoresOnly() {
+        return builtKernel.scores(likes, events, now, buffer);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(PersonalMatchKernelBenchmark.class.getSimpleName()).build()).run();
+    }
+}
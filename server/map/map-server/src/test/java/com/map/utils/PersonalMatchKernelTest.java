@@ -0,0 +1,105 @@
+package com.map.utils;
+
+import com.map.dto.EventCategoryDTO;
+import com.map.dto.UserLikeDTO;
+import com.map.entity.Event;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class PersonalMatchKernelTest {
+
+    private static final String[] CATEGORIES = {"Music", "Sports", "Arts", "Food", "Tech", "Film", "Talks"};
+
+    @Test
+    void scores_matchMapImplementationExactly() {
+        Random random = new Random(42);
+        LocalDateTime now = LocalDateTime.now();
+        List<Event> events = new ArrayList<>();
+        List<EventCategoryDTO> pairs = new ArrayList<>();
+        for (int eventId = 1; eventId <= 2_000; eventId++) {
+            events.add(Event.builder().eventId(eventId).build());
+            int count = random.nextInt(4);
+            for (int c = 0; c < count; c++) {
+                pairs.add(category(eventId, CATEGORIES[random.nextInt(CATEGORIES.length)]));
+            }
+        }
+        List<UserLikeDTO> likes = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            int eventId = 1 + random.nextInt(2_000);
+            pairs.add(category(eventId, CATEGORIES[random.nextInt(CATEGORIES.length)]));
+            likes.add(new UserLikeDTO(eventId, now.minusDays(random.nextInt(90))));
+        }
+        Map<Integer, List<String>> eventCategoryMap = new HashMap<>();
+        for (EventCategoryDTO pair : pairs) {
+            eventCategoryMap.computeIfAbsent(pair.getEventId(), k -> new ArrayList<>()).add(pair.getCategoryName());
+        }
+        // the map version expects every event to have a category list
+        for (Event event : events) {
+            eventCategoryMap.putIfAbsent(event.getEventId(), List.of());
+        }
+
+        Map<Integer, Double> expected = RecommendationUtils.computePersonalMatchScores(likes, events, eventCategoryMap);
+        double[] actual = PersonalMatchKernel.build(pairs).scores(likes, events, now, null);
+
+        for (int i = 0; i < events.size(); i++) {
+            assertEquals(expected.getOrDefault(events.get(i).getEventId(), 0.0), actual[i], 0.0);
+        }
+    }
+
+    @Test
+    void scores_reusesLargeEnoughBufferAndSkipsEventsWithoutCategories() {
+        LocalDateTime now = LocalDateTime.now();
+        PersonalMatchKernel kernel = PersonalMatchKernel.build(List.of(
+            category(1, "Music"), category(1, "Arts"), category(2, "Music"), category(9, "Music")));
+        double[] buffer = new double[8];
+
+        double[] scores = kernel.scores(List.of(new UserLikeDTO(9, now), new UserLikeDTO(404, now)),
+            List.of(Event.builder().eventId(1).build(), Event.builder().eventId(2).build(),
+                Event.builder().eventId(3).build()), now, buffer);
+
+        assertSame(buffer, scores);
+        assertEquals(1.0, scores[0], 0.0);
+        assertEquals(1.0, scores[1], 0.0);
+        assertEquals(0.0, scores[2], 0.0);
+        assertEquals(2, kernel.categoryCount());
+    }
+
+    @Test
+    void scores_fromCategoryPreferencesMatchScoresFromLikes() {
+        LocalDateTime now = LocalDateTime.now();
+        List<EventCategoryDTO> eventPairs = List.of(
+            category(1, "Music"), category(1, "Arts"), category(2, "Talks"), category(3, "Food"));
+        List<EventCategoryDTO> allPairs = new ArrayList<>(eventPairs);
+        allPairs.addAll(List.of(category(8, "Music"), category(8, "Talks"), category(9, "Arts")));
+        List<UserLikeDTO> likes = List.of(new UserLikeDTO(8, now.minusDays(3)), new UserLikeDTO(9, now.minusDays(30)));
+        List<Event> events = List.of(Event.builder().eventId(1).build(), Event.builder().eventId(2).build(),
+            Event.builder().eventId(3).build());
+        // what the stored preferences hold for these likes; Film matches no event
+        Map<String, Double> preferences = Map.of(
+            "Music", Math.exp(-0.05 * 3) / 2, "Talks", Math.exp(-0.05 * 3) / 2, "Arts", Math.exp(-0.05 * 30),
+            "Film", 1.0);
+
+        double[] expected = PersonalMatchKernel.build(allPairs).scores(likes, events, now, null);
+        double[] actual = PersonalMatchKernel.build(eventPairs).scores(preferences, events, null);
+
+        for (int i = 0; i < events.size(); i++) {
+            assertEquals(expected[i], actual[i], 1e-15);
+        }
+        assertEquals(0.0, actual[2], 0.0);
+    }
+
+    private static EventCategoryDTO category(int eventId, String categoryName) {
+        EventCategoryDTO dto = new EventCategoryDTO();
+        dto.setEventId(eventId);
+        dto.setCategoryName(categoryName);
+        return dto;
+    }
+}
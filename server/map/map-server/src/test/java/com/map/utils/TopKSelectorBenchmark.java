@@ -0,0 +1,93 @@
+package com.map.utils;
+
+import com.map.entity.Event;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Ranking the top RECOMMENDATION_LIMIT of n scored candidates: one wrapper per candidate plus a full sort, as
+ * scoreAndSortEvents used to do, against TopKSelector.
+ * Run with: mvn -pl map-server test-compile exec:java -Dexec.classpathScope=test
+ *     -Dexec.mainClass=com.map.utils.TopKSelectorBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TopKSelectorBenchmark {
+
+    private static final int K = 50;
+
+    @Param({"10000", "100000", "1000000"})
+    private int candidates;
+
+    private List<Event> events;
+    private double[] scores;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(3);
+        events = new ArrayList<>(candidates);
+        scores = new double[candidates];
+        for (int i = 0; i < candidates; i++) {
+            events.add(Event.builder().eventId(i).build());
+            scores[i] = random.nextDouble();
+        }
+    }
+
+    @Benchmark
+    public List<Event> sortAndLimit() {
+        List<Scored> scored = new ArrayList<>();
+        for (int i = 0; i < events.size(); i++) {
+            scored.add(new Scored(events.get(i), scores[i]));
+        }
+        scored.sort((a, b) -> Double.compare(b.score, a.score));
+        return scored.stream().limit(K).map(s -> s.event).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<Event> topK() {
+        TopKSelector topK = new TopKSelector(K);
+        for (int i = 0; i < events.size(); i++) {
+            topK.offer(i, scores[i]);
+        }
+        List<Event> ranked = new ArrayList<>(K);
+        for (int index : topK.drain()) {
+            ranked.add(events.get(index));
+        }
+        return ranked;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(TopKSelectorBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    private static final class Scored {
+        private final Event event;
+        private final double score;
+
+        private Scored(Event event, double score) {
+            this.event = event;
+            this.score = score;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.map.utils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TopKSelectorTest {
+
+    @Test
+    void drain_matchesStableSortThenLimitIncludingTies() {
+        Random random = new Random(11);
+        double[] scores = new double[5_000];
+        for (int i = 0; i < scores.length; i++) {
+            // few distinct values, so many ties have to fall back to input order
+            scores[i] = random.nextInt(40) / 8.0;
+        }
+        List<Integer> sorted = new ArrayList<>();
+        for (int i = 0; i < scores.length; i++) {
+            sorted.add(i);
+        }
+        sorted.sort(Comparator.comparingDouble((Integer i) -> scores[i]).reversed());
+
+        for (int k : new int[] {1, 50, 4_999, 5_000}) {
+            TopKSelector topK = new TopKSelector(k);
+            for (int i = 0; i < scores.length; i++) {
+                topK.offer(i, scores[i]);
+            }
+            assertArrayEquals(sorted.subList(0, k).stream().mapToInt(Integer::intValue).toArray(), topK.drain());
+        }
+    }
+
+    @Test
+    void drain_emptiesSelectorForReuse() {
+        TopKSelector topK = new TopKSelector(2);
+        topK.offer(0, 1.0);
+        topK.offer(1, 3.0);
+        topK.offer(2, 2.0);
+
+        assertArrayEquals(new int[] {1, 2}, topK.drain());
+        assertEquals(0, topK.size());
+        topK.offer(7, 0.5);
+        assertArrayEquals(new int[] {7}, topK.drain());
+        TopKSelector none = new TopKSelector(0);
+        none.offer(0, 1.0);
+        assertArrayEquals(new int[0], none.drain());
+    }
+}